@@ -0,0 +1,73 @@
+"""
+Decoding of columnar transaction batches sent by the Finance Service
+"""
+from datetime import date, timedelta
+from typing import Any, Dict, List, Union
+
+COLUMNAR_FORMAT = 'columnar-v1'
+_EPOCH = date(1970, 1, 1)
+
+
+def decode_transactions(payload: Union[List[Dict[str, Any]], Dict[str, Any], None]) -> List[Dict[str, Any]]:
+    """
+    Accept either a list of transaction objects or a columnar batch
+    ({"format": "columnar-v1", "ids": [...], "epochDays": [...], "amountCents": [...],
+    "typeCodes": [...], "types": [...], "categoryCodes": [...], "categories": [...]})
+    and return the list-of-objects shape the analyzers work on. Missing values are left out of the
+    objects, so analyzers fall back to their defaults as with the object shape.
+    """
+    if not payload:
+        return []
+    if isinstance(payload, list):
+        return payload
+    if payload.get('format') != COLUMNAR_FORMAT:
+        raise ValueError(f"Unsupported transactions format: {payload.get('format')}")
+
+    ids = payload.get('ids', [])
+    epoch_days = payload.get('epochDays', [])
+    amount_cents = payload.get('amountCents', [])
+    type_codes = payload.get('typeCodes', [])
+    types = payload.get('types', [])
+    category_codes = payload.get('categoryCodes', [])
+    categories = payload.get('categories', [])
+
+    count = payload.get('count', len(ids))
+    columns = (ids, epoch_days, amount_cents, type_codes, category_codes)
+    if any(len(column) != count for column in columns):
+        raise ValueError('Columnar transaction arrays differ in length')
+
+    transactions = []
+    for i in range(count):
+        day = epoch_days[i]
+        cents = amount_cents[i]
+        type_code = type_codes[i]
+        category_code = category_codes[i]
+        transaction = {'id': ids[i]}
+        try:
+            if day is not None:
+                transaction['date'] = (_EPOCH + timedelta(days=day)).isoformat()
+            if cents is not None:
+                transaction['amount'] = cents / 100
+        except (TypeError, OverflowError) as e:
+            raise ValueError(f'Malformed columnar transaction at index {i}: {e}') from e
+        type_name = _lookup(types, type_code, 'type')
+        if type_name is not None:
+            transaction['type'] = type_name
+        category = _lookup(categories, category_code, 'category')
+        if category is not None:
+            transaction['category'] = category
+        transactions.append(transaction)
+    return transactions
+
+
+def _lookup(dictionary: List[Any], code: Any, name: str) -> Any:
+    """Dictionary entry for a code; None or a negative code means the value is missing"""
+    if code is None:
+        return None
+    if not isinstance(code, int) or isinstance(code, bool):
+        raise ValueError(f'Columnar {name} code must be an integer, got {code!r}')
+    if code < 0:
+        return None
+    if code >= len(dictionary):
+        raise ValueError(f'Columnar {name} code {code} is outside its dictionary of {len(dictionary)}')
+    return dictionary[code]
@@ -9,6 +9,7 @@ from flask import Blueprint, request, jsonify
 from app.analyzer import FinancialAnalyzer
 from app.recommender import RecommendationEngine
 from app.predictive_analyzer import PredictiveAnalyzer
+from app.columnar import decode_transactions
 from app.dto import (
     AnalysisType,
     AdviceType,
@@ -181,7 +182,10 @@ def predict_cash_flow():
         if not data:
             return jsonify(ErrorDTO.create('BAD_REQUEST', 'Request body is required').to_dict()), 400
 
-        transactions = data.get('transactions', [])
+        try:
+            transactions = decode_transactions(data.get('transactions'))
+        except ValueError as e:
+            return jsonify(ErrorDTO.create('VALIDATION_ERROR', str(e)).to_dict()), 422
         months_ahead = data.get('monthsAhead', 6)
 
         if not transactions:
@@ -221,7 +225,10 @@ def assess_risk():
             return jsonify(ErrorDTO.create('BAD_REQUEST', 'Request body is required').to_dict()), 400
 
         user_profile = data.get('userProfile', {})
-        transactions = data.get('transactions', [])
+        try:
+            transactions = decode_transactions(data.get('transactions'))
+        except ValueError as e:
+            return jsonify(ErrorDTO.create('VALIDATION_ERROR', str(e)).to_dict()), 422
 
         # Perform risk assessment
         risk_assessment, insights, confidence = predictive_analyzer.assess_financial_risk(
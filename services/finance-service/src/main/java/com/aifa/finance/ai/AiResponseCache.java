@@ -0,0 +1,168 @@
+package com.aifa.finance.ai;
+
+import com.aifa.finance.event.TransactionChangedEvent;
+import com.aifa.finance.event.UserDataChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Content-addressed cache in front of {@link AiServiceClient}.
+ * Entries are keyed by a hash of the user, the user's data version, the endpoint and the payload serialized
+ * with sorted map keys, so equal requests share an entry and any change to the user's data misses it.
+ * The data version is a per-user counter bumped by the change events published on this instance; changes
+ * made through another instance are picked up when the entry expires.
+ * Entries expire after the TTL and the least recently used are evicted past the size bound. A request that
+ * finds a call for the same key still in flight joins it instead of calling the AI service again; failed
+ * calls are dropped so the next request retries.
+ */
+@Component
+public class AiResponseCache {
+
+    private final AiServiceClient aiServiceClient;
+    private final ObjectMapper canonicalMapper;
+    private final MeterRegistry meterRegistry;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final ConcurrentMap<Long, Long> dataVersions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter coalesced;
+    private final Counter misses;
+
+    public AiResponseCache(AiServiceClient aiServiceClient,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${ai.cache.ttl:PT15M}") Duration ttl,
+                           @Value("${ai.cache.max-entries:10000}") int maxEntries) {
+        this.aiServiceClient = aiServiceClient;
+        this.canonicalMapper = objectMapper.copy().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.meterRegistry = meterRegistry;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LruMap(maxEntries);
+        this.hits = meterRegistry.counter("ai.cache.requests", "result", "hit");
+        this.coalesced = meterRegistry.counter("ai.cache.requests", "result", "coalesced");
+        this.misses = meterRegistry.counter("ai.cache.requests", "result", "miss");
+    }
+
+    @PostConstruct
+    void registerGauge() {
+        Gauge.builder("ai.cache.size", this, AiResponseCache::size).register(meterRegistry);
+    }
+
+    /**
+     * POST through the cache on behalf of a user
+     */
+    public CompletableFuture<Map<String, Object>> post(Long userId, String path, Object payload) {
+        String key;
+        try {
+            key = key(userId, dataVersions.getOrDefault(userId, 0L), path, payload);
+        } catch (JsonProcessingException e) {
+            return aiServiceClient.post(path, payload);
+        }
+
+        long now = System.nanoTime();
+        Entry inserted;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                (entry.response().isDone() ? hits : coalesced).increment();
+                return entry.response().copy();
+            }
+            inserted = new Entry(userId, new CompletableFuture<>(), now + ttlNanos);
+            entries.put(key, inserted);
+        }
+        CompletableFuture<Map<String, Object>> pending = inserted.response();
+
+        misses.increment();
+        aiServiceClient.post(path, payload).whenComplete((response, error) -> {
+            if (error != null) {
+                // Only this call's entry: a retry may already have replaced it
+                synchronized (entries) {
+                    entries.remove(key, inserted);
+                }
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(response);
+            }
+        });
+        return pending.copy();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDataChanged(UserDataChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    /**
+     * Move the user to a new data version once a change commits and drop the entries of older versions,
+     * which could never be hit again. Calls already in flight complete under the old version's key.
+     */
+    private void invalidate(Long userId) {
+        dataVersions.merge(userId, 1L, Long::sum);
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.userId().equals(userId));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private String key(Long userId, long dataVersion, String path, Object payload) throws JsonProcessingException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((userId + "|" + dataVersion + "|" + path + "|").getBytes(StandardCharsets.UTF_8));
+            digest.update(canonicalMapper.writeValueAsBytes(payload));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class LruMap extends LinkedHashMap<String, Entry> {
+
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(256, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private record Entry(Long userId, CompletableFuture<Map<String, Object>> response, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
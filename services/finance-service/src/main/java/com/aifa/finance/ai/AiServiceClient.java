@@ -0,0 +1,178 @@
+package com.aifa.finance.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client for the Python AI service.
+ * Calls go through a shared JDK HttpClient (pooled keep-alive connections, connect and request timeouts) and
+ * complete asynchronously, so no servlet thread waits on the AI service. A bulkhead caps concurrent calls and
+ * rejects the excess immediately; a circuit breaker stops calling a failing service until it recovers.
+ * Every rejection or failure surfaces as {@link AiServiceUnavailableException} for the caller's fallback.
+ */
+@Component
+@Slf4j
+public class AiServiceClient {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {};
+
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Counter bulkheadRejections;
+    private final Counter breakerRejections;
+
+    public AiServiceClient(@Value("${ai.service.url:http://localhost:8000}") String baseUrl,
+                           @Value("${ai.service.connect-timeout:PT2S}") Duration connectTimeout,
+                           @Value("${ai.service.request-timeout:PT5S}") Duration requestTimeout,
+                           @Value("${ai.service.max-concurrent-calls:16}") int maxConcurrentCalls,
+                           @Value("${ai.service.breaker.window:20}") int breakerWindow,
+                           @Value("${ai.service.breaker.minimum-calls:10}") int breakerMinimumCalls,
+                           @Value("${ai.service.breaker.failure-rate:0.5}") double breakerFailureRate,
+                           @Value("${ai.service.breaker.open-duration:PT30S}") Duration breakerOpenDuration,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(connectTimeout)
+            .executor(executor)
+            .build();
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(breakerWindow, breakerMinimumCalls, breakerFailureRate, breakerOpenDuration);
+        this.meterRegistry = meterRegistry;
+        this.bulkheadRejections = meterRegistry.counter("ai.client.rejections", "reason", "bulkhead");
+        this.breakerRejections = meterRegistry.counter("ai.client.rejections", "reason", "circuit_open");
+        Gauge.builder("ai.client.breaker.state", circuitBreaker, breaker -> breaker.state().ordinal())
+            .description("0 closed, 1 open, 2 half-open")
+            .register(meterRegistry);
+        Gauge.builder("ai.client.in_flight", bulkhead, permits -> maxConcurrentCalls - permits.availablePermits())
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * POST a JSON body and parse the JSON object it returns
+     */
+    public CompletableFuture<Map<String, Object>> post(String path, Object body) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException("Too many concurrent AI service calls"));
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            breakerRejections.increment();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException("AI service circuit is open"));
+        }
+
+        HttpRequest request;
+        try {
+            long serializeStarted = System.nanoTime();
+            byte[] payload = objectMapper.writeValueAsBytes(body);
+            Timer.builder("ai.client.serialization")
+                .description("Time to serialize an AI service request body")
+                .tag("path", path)
+                .register(meterRegistry)
+                .record(System.nanoTime() - serializeStarted, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("ai.client.request.size")
+                .description("AI service request body size")
+                .baseUnit("bytes")
+                .tag("path", path)
+                .register(meterRegistry)
+                .record(payload.length);
+
+            request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            bulkhead.release();
+            circuitBreaker.release();
+            return CompletableFuture.failedFuture(new AiServiceUnavailableException("Could not build AI request", e));
+        }
+
+        long started = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            .thenApply(response -> parse(path, response))
+            .whenComplete((result, error) -> {
+                bulkhead.release();
+                String outcome;
+                if (error == null) {
+                    circuitBreaker.onSuccess();
+                    outcome = "success";
+                } else {
+                    circuitBreaker.onFailure();
+                    outcome = unwrap(error) instanceof HttpTimeoutException ? "timeout" : "error";
+                    log.warn("AI service call {} failed: {}", path, unwrap(error).toString());
+                }
+                Timer.builder("ai.client.latency")
+                    .description("AI service call latency")
+                    .tag("path", path)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            })
+            .exceptionallyCompose(error -> CompletableFuture.failedFuture(unwrap(error) instanceof AiServiceUnavailableException unavailable
+                ? unavailable
+                : new AiServiceUnavailableException("AI service call " + path + " failed", unwrap(error))));
+    }
+
+    public String breakerState() {
+        return circuitBreaker.state().name();
+    }
+
+    private Map<String, Object> parse(String path, HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new AiServiceUnavailableException("AI service call " + path + " returned HTTP " + response.statusCode());
+        }
+        try {
+            return objectMapper.readValue(response.body(), JSON_OBJECT);
+        } catch (IOException e) {
+            throw new AiServiceUnavailableException("AI service call " + path + " returned unreadable JSON", e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
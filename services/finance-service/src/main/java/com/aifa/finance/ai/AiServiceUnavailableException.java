@@ -0,0 +1,16 @@
+package com.aifa.finance.ai;
+
+/**
+ * The AI service could not answer: the call was rejected locally, timed out, or failed.
+ * Callers answer with their fallback.
+ */
+public class AiServiceUnavailableException extends RuntimeException {
+
+    public AiServiceUnavailableException(String message) {
+        super(message);
+    }
+
+    public AiServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,97 @@
+package com.aifa.finance.ai;
+
+import com.aifa.finance.api.dto.TransactionDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Transactions in the columnar wire format accepted by the AI service.
+ * Written straight from the DTOs by a streaming serializer as one array per field: ids, epoch days, amounts in
+ * cents, and type and category codes indexing small dictionaries sent alongside. Missing values are JSON null,
+ * a missing category is -1. Wrap a list in this record instead of building a map per transaction.
+ */
+@JsonSerialize(using = TransactionBatch.Serializer.class)
+public record TransactionBatch(List<TransactionDto> transactions) {
+
+    public static final String FORMAT = "columnar-v1";
+
+    static final class Serializer extends JsonSerializer<TransactionBatch> {
+
+        @Override
+        public void serialize(TransactionBatch batch, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            List<TransactionDto> transactions = batch.transactions();
+            gen.writeStartObject();
+            gen.writeStringField("format", FORMAT);
+            gen.writeNumberField("count", transactions.size());
+
+            gen.writeArrayFieldStart("ids");
+            for (TransactionDto t : transactions) {
+                if (t.id() != null) {
+                    gen.writeNumber(t.id());
+                } else {
+                    gen.writeNull();
+                }
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("epochDays");
+            for (TransactionDto t : transactions) {
+                if (t.date() != null) {
+                    gen.writeNumber(t.date().toEpochDay());
+                } else {
+                    gen.writeNull();
+                }
+            }
+            gen.writeEndArray();
+
+            gen.writeArrayFieldStart("amountCents");
+            for (TransactionDto t : transactions) {
+                if (t.amount() != null) {
+                    gen.writeNumber(Math.round(t.amount() * 100));
+                } else {
+                    gen.writeNull();
+                }
+            }
+            gen.writeEndArray();
+
+            writeCodes(gen, "typeCodes", "types", transactions, TransactionDto::type);
+            writeCodes(gen, "categoryCodes", "categories", transactions, TransactionDto::category);
+            gen.writeEndObject();
+        }
+
+        /**
+         * Dictionary-encode one string column; codes follow first appearance
+         */
+        private static void writeCodes(JsonGenerator gen, String codesField, String dictionaryField,
+                                       List<TransactionDto> transactions, Function<TransactionDto, String> column) throws IOException {
+            Map<String, Integer> codes = new HashMap<>();
+            String[] dictionary = new String[transactions.size()];
+            gen.writeArrayFieldStart(codesField);
+            for (TransactionDto t : transactions) {
+                String value = column.apply(t);
+                if (value == null) {
+                    gen.writeNumber(-1);
+                    continue;
+                }
+                Integer code = codes.get(value);
+                if (code == null) {
+                    code = codes.size();
+                    codes.put(value, code);
+                    dictionary[code] = value;
+                }
+                gen.writeNumber(code);
+            }
+            gen.writeEndArray();
+            gen.writeFieldName(dictionaryField);
+            gen.writeArray(dictionary, 0, codes.size());
+        }
+    }
+}
@@ -15,6 +15,8 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/actuator/health", "/actuator/**").permitAll()
+                // Service-to-service endpoints that act across users, e.g. the market price feed
+                .requestMatchers("/internal/**").hasAuthority("SCOPE_prices:write")
                 .anyRequest().authenticated())
             .oauth2ResourceServer(oauth2 -> oauth2.jwt());
         return http.build();
@@ -1,14 +1,19 @@
 package com.aifa.finance.controller;
 
 import com.aifa.finance.dto.AccountRequest;
+import com.aifa.finance.dto.AccountBalanceResponse;
 import com.aifa.finance.dto.AccountResponse;
+import com.aifa.finance.dto.NetWorthPointResponse;
 import com.aifa.finance.service.AccountService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -63,4 +68,19 @@ public class AccountController {
     public ResponseEntity<BigDecimal> getNetWorth(@RequestParam Long userId) {
         return ResponseEntity.ok(accountService.calculateNetWorth(userId));
     }
+
+    @GetMapping("/net-worth/history")
+    public ResponseEntity<List<NetWorthPointResponse>> getNetWorthHistory(
+            @RequestParam Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(accountService.getNetWorthHistory(userId, startDate, endDate));
+    }
+
+    @GetMapping("/{id}/balance")
+    public ResponseEntity<AccountBalanceResponse> getBalanceAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(accountService.getBalanceAt(id, at));
+    }
 }
@@ -31,8 +31,9 @@ public class AnalyticsController {
     public ResponseEntity<List<AnalyticsSnapshotResponse>> getSnapshotHistory(
             @RequestParam Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        return ResponseEntity.ok(analyticsService.getSnapshotHistory(userId, startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer points) {
+        return ResponseEntity.ok(analyticsService.getSnapshotHistory(userId, startDate, endDate, points));
     }
 
     @GetMapping("/snapshot/last30days")
@@ -3,6 +3,7 @@ package com.aifa.finance.controller;
 import com.aifa.finance.dto.BudgetRequest;
 import com.aifa.finance.dto.BudgetResponse;
 import com.aifa.finance.dto.BudgetAlertResponse;
+import com.aifa.finance.dto.BudgetOverviewResponse;
 import com.aifa.finance.service.BudgetService;
 import com.aifa.finance.service.AuthService;
 import lombok.RequiredArgsConstructor;
@@ -57,6 +58,15 @@ public class BudgetController {
         return ResponseEntity.ok(budgets);
     }
 
+    /**
+     * Get all budgets with recent alerts and projections in one call
+     */
+    @GetMapping("/overview")
+    public ResponseEntity<BudgetOverviewResponse> getBudgetOverview(@AuthenticationPrincipal Jwt jwt) {
+        Long userId = authService.getOrCreateUser(jwt).getId();
+        return ResponseEntity.ok(budgetService.getBudgetOverview(userId));
+    }
+
     /**
      * Get a specific budget
      */
@@ -0,0 +1,32 @@
+package com.aifa.finance.controller;
+
+import com.aifa.finance.service.AuthService;
+import com.aifa.finance.service.EventStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@RequiredArgsConstructor
+public class EventStreamController {
+    private final EventStreamService eventStreamService;
+    private final AuthService authService;
+
+    /**
+     * Live notifications, budget alerts and summary deltas for the current user
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        Long userId = authService.getOrCreateUser(jwt).getId();
+        return eventStreamService.subscribe(userId, lastEventId);
+    }
+}
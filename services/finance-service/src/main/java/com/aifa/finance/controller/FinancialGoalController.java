@@ -2,7 +2,9 @@ package com.aifa.finance.controller;
 
 import com.aifa.finance.dto.FinancialGoalRequest;
 import com.aifa.finance.dto.FinancialGoalResponse;
+import com.aifa.finance.dto.GoalSimulationResponse;
 import com.aifa.finance.service.FinancialGoalService;
+import com.aifa.finance.service.GoalSimulationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,6 +19,7 @@ import java.util.List;
 public class FinancialGoalController {
 
     private final FinancialGoalService goalService;
+    private final GoalSimulationService goalSimulationService;
 
     @PostMapping
     public ResponseEntity<FinancialGoalResponse> createGoal(@RequestParam Long userId, @RequestBody FinancialGoalRequest request) {
@@ -33,6 +36,11 @@ public class FinancialGoalController {
         return ResponseEntity.ok(goalService.getUpcomingGoals(userId));
     }
 
+    @GetMapping("/simulations")
+    public ResponseEntity<List<GoalSimulationResponse>> simulateGoals(@RequestParam Long userId) {
+        return ResponseEntity.ok(goalSimulationService.simulateGoals(userId));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<FinancialGoalResponse>> getGoalsByStatus(@RequestParam Long userId, @PathVariable String status) {
         return ResponseEntity.ok(goalService.getGoalsByStatus(userId, status));
@@ -19,7 +19,8 @@ public class NotificationController {
 
     @PostMapping
     public ResponseEntity<NotificationResponse> createNotification(@RequestParam Long userId, @RequestBody NotificationRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(notificationService.createNotification(userId, request));
+        NotificationResponse response = notificationService.createNotification(userId, request);
+        return ResponseEntity.status(response.id() != null ? HttpStatus.CREATED : HttpStatus.ACCEPTED).body(response);
     }
 
     @GetMapping
@@ -43,9 +44,8 @@ public class NotificationController {
     }
 
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead(@RequestParam Long userId) {
-        notificationService.markAllAsRead(userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Integer> markAllAsRead(@RequestParam Long userId) {
+        return ResponseEntity.ok(notificationService.markAllAsRead(userId));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,35 @@
+package com.aifa.finance.controller;
+
+import com.aifa.finance.dto.PriceFeedResponse;
+import com.aifa.finance.market.PriceFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Market price intake for the feed service. Prices revalue every user's holdings, so these endpoints live under
+ * {@code /internal}, which {@link com.aifa.finance.config.SecurityConfig} restricts to the price feed scope.
+ */
+@RestController
+@RequestMapping("/internal/prices")
+@RequiredArgsConstructor
+public class PriceFeedController {
+
+    private final PriceFeedService priceFeedService;
+
+    @PostMapping
+    public ResponseEntity<PriceFeedResponse> ingestPrices(@RequestBody Map<String, BigDecimal> prices) {
+        return ResponseEntity.ok(priceFeedService.ingest(prices));
+    }
+
+    @PostMapping("/{symbol}")
+    public ResponseEntity<Void> tickPrice(@PathVariable String symbol, @RequestParam BigDecimal price,
+                                          @RequestParam(required = false) Instant asOf) {
+        priceFeedService.tick(symbol, price, asOf);
+        return ResponseEntity.accepted().build();
+    }
+}
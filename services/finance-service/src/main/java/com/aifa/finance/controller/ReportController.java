@@ -2,12 +2,16 @@ package com.aifa.finance.controller;
 
 import com.aifa.finance.dto.ReportRequest;
 import com.aifa.finance.dto.ReportResponse;
+import com.aifa.finance.report.ReportDownloadHandler;
 import com.aifa.finance.service.ReportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,10 +20,13 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportDownloadHandler downloadHandler;
 
     @PostMapping
     public ResponseEntity<ReportResponse> generateReport(@RequestParam Long userId, @RequestBody ReportRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(reportService.generateReport(userId, request));
+        ReportResponse response = reportService.generateReport(userId, request);
+        HttpStatus status = "COMPLETED".equals(response.status()) ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(response);
     }
 
     @GetMapping
@@ -32,6 +39,11 @@ public class ReportController {
         return ResponseEntity.ok(reportService.getReportById(id));
     }
 
+    @GetMapping("/{id}/file")
+    public void downloadReport(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        downloadHandler.serve(reportService.getReportFile(id), request, response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteReport(@PathVariable Long id) {
         reportService.deleteReport(id);
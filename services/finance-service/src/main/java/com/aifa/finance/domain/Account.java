@@ -61,6 +61,10 @@ public class Account {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    @Builder.Default
+    @Column(name = "balance_sequence", nullable = false)
+    private Long balanceSequence = 0L; // sequence of the latest balance journal entry
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -87,6 +91,10 @@ public class Account {
         OTHER
     }
 
+    public boolean isLiability() {
+        return accountType == AccountType.CREDIT_CARD || accountType == AccountType.LOAN;
+    }
+
     /**
      * Calculate net balance (for credit cards and loans, negative balance is debt)
      */
@@ -0,0 +1,51 @@
+package com.aifa.finance.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Account balance right after the journal entry with the same sequence, so a point-in-time lookup
+ * only sums the entries after the nearest checkpoint.
+ */
+@Entity
+@Table(name = "account_balance_checkpoints", indexes = {
+    @Index(name = "idx_balance_checkpoints_account_time", columnList = "account_id, as_of"),
+    @Index(name = "idx_balance_checkpoints_user", columnList = "user_id, account_id")
+}, uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"account_id", "sequence"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "sequence", nullable = false)
+    private Long sequence;
+
+    @Column(name = "balance", nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "liability", nullable = false)
+    private Boolean liability;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+}
@@ -0,0 +1,62 @@
+package com.aifa.finance.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only change to an account balance.
+ * liability records how the amount counted towards net worth when it was booked; a type change between
+ * asset and liability is journalled as a TYPE_CHANGE pair moving the balance from one side to the other.
+ */
+@Entity
+@Table(name = "account_balance_entries", indexes = {
+    @Index(name = "idx_balance_entries_user_time", columnList = "user_id, effective_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"account_id", "sequence"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountBalanceEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "sequence", nullable = false)
+    private Long sequence;
+
+    @Column(name = "entry_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private EntryType entryType;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "liability", nullable = false)
+    private Boolean liability;
+
+    @Column(name = "effective_at", nullable = false)
+    private LocalDateTime effectiveAt;
+
+    public enum EntryType {
+        OPEN,
+        ADJUSTMENT,
+        TYPE_CHANGE,
+        CLOSE
+    }
+}
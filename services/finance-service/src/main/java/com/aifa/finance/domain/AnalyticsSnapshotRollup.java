@@ -0,0 +1,125 @@
+package com.aifa.finance.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Downsampled analytics point: the last daily snapshot of a week or month, kept after the dailies are purged.
+ * snapshotDate is the as-of date of that sample, periodStart the first day of the week or month it represents.
+ */
+@Entity
+@Table(name = "analytics_snapshot_rollups", indexes = {
+    @Index(name = "idx_analytics_rollups_user_date", columnList = "user_id, snapshot_date")
+}, uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "resolution", "period_start"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsSnapshotRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "resolution", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Resolution resolution;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "total_expenses", precision = 19, scale = 2)
+    private BigDecimal totalExpenses;
+
+    @Column(name = "total_income", precision = 19, scale = 2)
+    private BigDecimal totalIncome;
+
+    @Column(name = "net_savings", precision = 19, scale = 2)
+    private BigDecimal netSavings;
+
+    @Column(name = "savings_rate", precision = 5, scale = 2)
+    private BigDecimal savingsRate;
+
+    @Column(name = "total_assets", precision = 19, scale = 2)
+    private BigDecimal totalAssets;
+
+    @Column(name = "total_liabilities", precision = 19, scale = 2)
+    private BigDecimal totalLiabilities;
+
+    @Column(name = "net_worth", precision = 19, scale = 2)
+    private BigDecimal netWorth;
+
+    @Column(name = "liquid_assets", precision = 19, scale = 2)
+    private BigDecimal liquidAssets;
+
+    @Column(name = "budget_utilization", precision = 5, scale = 2)
+    private BigDecimal budgetUtilization;
+
+    @Column(name = "over_budget_count")
+    private Integer overBudgetCount;
+
+    @Column(name = "top_category")
+    private String topCategory;
+
+    @Column(name = "top_category_amount", precision = 19, scale = 2)
+    private BigDecimal topCategoryAmount;
+
+    @Column(name = "transaction_count")
+    private Integer transactionCount;
+
+    @Column(name = "average_transaction", precision = 19, scale = 2)
+    private BigDecimal averageTransaction;
+
+    @Column(name = "active_goals_count")
+    private Integer activeGoalsCount;
+
+    @Column(name = "completed_goals_count")
+    private Integer completedGoalsCount;
+
+    @Column(name = "total_goal_progress", precision = 5, scale = 2)
+    private BigDecimal totalGoalProgress;
+
+    /**
+     * Overwrite every metric with those of a daily snapshot
+     */
+    public void copyMetricsFrom(AnalyticsSnapshot snapshot) {
+        snapshotDate = snapshot.getSnapshotDate();
+        totalExpenses = snapshot.getTotalExpenses();
+        totalIncome = snapshot.getTotalIncome();
+        netSavings = snapshot.getNetSavings();
+        savingsRate = snapshot.getSavingsRate();
+        totalAssets = snapshot.getTotalAssets();
+        totalLiabilities = snapshot.getTotalLiabilities();
+        netWorth = snapshot.getNetWorth();
+        liquidAssets = snapshot.getLiquidAssets();
+        budgetUtilization = snapshot.getBudgetUtilization();
+        overBudgetCount = snapshot.getOverBudgetCount();
+        topCategory = snapshot.getTopCategory();
+        topCategoryAmount = snapshot.getTopCategoryAmount();
+        transactionCount = snapshot.getTransactionCount();
+        averageTransaction = snapshot.getAverageTransaction();
+        activeGoalsCount = snapshot.getActiveGoalsCount();
+        completedGoalsCount = snapshot.getCompletedGoalsCount();
+        totalGoalProgress = snapshot.getTotalGoalProgress();
+    }
+
+    public enum Resolution {
+        WEEKLY,
+        MONTHLY
+    }
+}
@@ -25,7 +25,7 @@ public class BudgetAlert {
 
     @Column(name = "alert_type", nullable = false)
     @Enumerated(EnumType.STRING)
-    private AlertType alertType; // WARNING, EXCEEDED, RECOVERED
+    private AlertType alertType; // WARNING, EXCEEDED, RECOVERED, FORECAST_EXCEEDED
 
     @Column(nullable = false)
     private Integer percentage; // The threshold at which alert was triggered
@@ -41,6 +41,7 @@ public class BudgetAlert {
     public enum AlertType {
         WARNING,
         EXCEEDED,
-        RECOVERED
+        RECOVERED,
+        FORECAST_EXCEEDED
     }
 }
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Table(name = "investments", indexes = {
     @Index(name = "idx_investments_user_id", columnList = "user_id"),
     @Index(name = "idx_investments_account_id", columnList = "account_id"),
-    @Index(name = "idx_investments_user_account", columnList = "user_id, account_id")
+    @Index(name = "idx_investments_user_account", columnList = "user_id, account_id"),
+    @Index(name = "idx_investments_by_symbol", columnList = "symbol")
 })
 @Data
 @Builder
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_notifications_user_id", columnList = "user_id"),
     @Index(name = "idx_notifications_read", columnList = "user_id, is_read"),
     @Index(name = "idx_notifications_type", columnList = "user_id, notification_type"),
-    @Index(name = "idx_notifications_created_at", columnList = "user_id, created_at")
+    @Index(name = "idx_notifications_created_at", columnList = "user_id, created_at"),
+    @Index(name = "idx_notifications_unsent", columnList = "is_sent, id")
 })
 @Data
 @Builder
@@ -82,7 +83,8 @@ public class Notification {
         ACCOUNT_UPDATE,
         TRANSACTION_ALERT,
         SAVINGS_REMINDER,
-        SYSTEM_MESSAGE
+        SYSTEM_MESSAGE,
+        DIGEST
     }
 
     public enum NotificationPriority {
@@ -13,7 +13,11 @@ import java.time.LocalDateTime;
 @Table(name = "reports", indexes = {
     @Index(name = "idx_reports_user_id", columnList = "user_id"),
     @Index(name = "idx_reports_report_type", columnList = "user_id, report_type"),
-    @Index(name = "idx_reports_generated_at", columnList = "user_id, generated_at")
+    @Index(name = "idx_reports_generated_at", columnList = "user_id, generated_at"),
+    @Index(name = "idx_reports_cache_key", columnList = "user_id, report_type, data_version"),
+    @Index(name = "idx_reports_due", columnList = "is_scheduled, next_generation"),
+    @Index(name = "idx_reports_status", columnList = "status, generated_at"),
+    @Index(name = "idx_reports_running", columnList = "status, running_since")
 })
 @Data
 @Builder
@@ -66,6 +70,22 @@ public class Report {
     @Column(name = "next_generation")
     private LocalDateTime nextGeneration;
 
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private ReportStatus status;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "data_version", length = 64)
+    private String dataVersion; // fingerprint of the user's data the result was computed from
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "running_since")
+    private LocalDateTime runningSince; // when the current RUNNING claim was taken
+
     @PrePersist
     protected void onCreate() {
         generatedAt = LocalDateTime.now();
@@ -84,4 +104,11 @@ public class Report {
         INVESTMENT_PERFORMANCE,
         CUSTOM
     }
+
+    public enum ReportStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
 }
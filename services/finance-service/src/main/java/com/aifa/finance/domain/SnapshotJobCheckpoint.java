@@ -0,0 +1,73 @@
+package com.aifa.finance.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one user-id partition of the nightly snapshot job, so an interrupted run resumes where it stopped.
+ */
+@Entity
+@Table(name = "snapshot_job_checkpoints", indexes = {
+    @Index(name = "idx_snapshot_job_checkpoints_date", columnList = "snapshot_date, status")
+}, uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"snapshot_date", "partition_start"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotJobCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "partition_start", nullable = false)
+    private Long partitionStart;
+
+    @Column(name = "partition_end", nullable = false)
+    private Long partitionEnd;
+
+    @Column(name = "last_user_id")
+    private Long lastUserId;
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private Integer failedCount;
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner; // run holding the partition, null when released
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        PENDING,
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
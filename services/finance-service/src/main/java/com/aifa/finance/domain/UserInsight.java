@@ -0,0 +1,43 @@
+package com.aifa.finance.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a user's precomputed insight set, in display order
+ */
+@Entity
+@Table(name = "user_insights", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "position"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserInsight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "position", nullable = false)
+    private Integer position;
+
+    @Column(name = "insight_type", nullable = false, length = 30)
+    private String insightType;
+
+    @Column(name = "message", columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,10 @@
+package com.aifa.finance.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record AccountBalanceResponse(
+    Long accountId,
+    LocalDateTime asOf,
+    BigDecimal balance
+) {}
@@ -22,5 +22,6 @@ public record AnalyticsSnapshotResponse(
     BigDecimal averageTransaction,
     Integer activeGoalsCount,
     Integer completedGoalsCount,
-    BigDecimal totalGoalProgress
+    BigDecimal totalGoalProgress,
+    String resolution
 ) {}
@@ -0,0 +1,33 @@
+package com.aifa.finance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetOverviewResponse {
+    private List<BudgetSummary> budgets;
+    private BigDecimal totalLimit;
+    private BigDecimal totalSpent;
+    private BigDecimal totalProjectedSpend;
+    private LocalDateTime generatedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BudgetSummary {
+        private BudgetResponse budget;
+        private Double percentageSpent;
+        private BigDecimal projectedMonthEndSpend;
+        private List<BudgetAlertResponse> recentAlerts;
+    }
+}
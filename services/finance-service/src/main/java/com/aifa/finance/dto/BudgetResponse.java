@@ -23,6 +23,8 @@ public class BudgetResponse {
     private LocalDate startDate;
     private LocalDate endDate;
     private Integer alertThreshold;
+    private BigDecimal projectedSpend;
+    private LocalDate predictedExceedDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -26,6 +26,8 @@ public class CashFlowForecastResponse {
     public static class CashFlowPrediction {
         private String date;
         private BigDecimal predictedBalance;
+        private BigDecimal lowerBound;
+        private BigDecimal upperBound;
         private Double confidence;
         private String riskLevel;
         private List<String> factors;
@@ -40,6 +42,7 @@ public class CashFlowForecastResponse {
         private Integer predictionHorizon;
         private Integer dataPointsUsed;
         private String lastTransactionDate;
+        private List<String> recurringFlows;
         private String error;
     }
 }
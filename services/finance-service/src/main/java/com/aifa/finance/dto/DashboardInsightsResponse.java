@@ -0,0 +1,17 @@
+package com.aifa.finance.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Composite dashboard insights; parts listed in pending or failed are null
+ */
+public record DashboardInsightsResponse(
+    List<Map<String, String>> insights,
+    CashFlowForecastResponse cashFlowForecast,
+    RiskAssessmentResponse riskAssessment,
+    GoalPredictionResponse goalPrediction,
+    List<String> pending,
+    List<String> failed,
+    long elapsedMillis
+) {}
@@ -0,0 +1,22 @@
+package com.aifa.finance.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public record GoalSimulationResponse(
+    Long goalId,
+    String goalName,
+    BigDecimal targetAmount,
+    BigDecimal currentAmount,
+    BigDecimal monthlyContribution,
+    LocalDate targetDate,
+    double probabilityByTargetDate,
+    LocalDate p10CompletionDate,
+    LocalDate p50CompletionDate,
+    LocalDate p90CompletionDate,
+    List<SuccessPoint> successCurve,
+    int paths
+) {
+    public record SuccessPoint(LocalDate date, double probability) {}
+}
@@ -0,0 +1,11 @@
+package com.aifa.finance.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record NetWorthPointResponse(
+    LocalDate date,
+    BigDecimal totalAssets,
+    BigDecimal totalLiabilities,
+    BigDecimal netWorth
+) {}
@@ -0,0 +1,10 @@
+package com.aifa.finance.dto;
+
+public record PriceFeedResponse(
+    int symbols,
+    int rejected,
+    int batches,
+    int holdingsRevalued,
+    int portfoliosRefreshed,
+    long elapsedMillis
+) {}
@@ -15,5 +15,8 @@ public record ReportResponse(
     LocalDateTime generatedAt,
     Boolean isScheduled,
     String scheduleFrequency,
-    LocalDateTime nextGeneration
+    LocalDateTime nextGeneration,
+    String status,
+    String errorMessage,
+    LocalDateTime completedAt
 ) {}
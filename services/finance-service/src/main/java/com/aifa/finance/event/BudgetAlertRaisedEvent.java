@@ -0,0 +1,14 @@
+package com.aifa.finance.event;
+
+/**
+ * Published when a budget crosses an alert threshold.
+ */
+public record BudgetAlertRaisedEvent(
+    Long userId,
+    Long budgetId,
+    String budgetName,
+    String category,
+    String alertType,
+    Integer percentage
+) {
+}
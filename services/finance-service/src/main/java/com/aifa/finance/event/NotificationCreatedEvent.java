@@ -0,0 +1,9 @@
+package com.aifa.finance.event;
+
+import com.aifa.finance.notification.NotificationMessage;
+
+/**
+ * Published when a notification row has been created for a user.
+ */
+public record NotificationCreatedEvent(NotificationMessage notification) {
+}
@@ -0,0 +1,6 @@
+package com.aifa.finance.event;
+
+/**
+ * A report row was created in PENDING state and needs generating.
+ */
+public record ReportRequestedEvent(Long reportId) {}
@@ -0,0 +1,33 @@
+package com.aifa.finance.event;
+
+import com.aifa.finance.domain.Transaction;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a transaction has been written for a user.
+ * Listeners use it to invalidate or incrementally update derived per-user state.
+ */
+public record TransactionChangedEvent(
+    Long userId,
+    Long transactionId,
+    String type,
+    String category,
+    double amount,
+    LocalDate transactionDate
+) {
+    public static TransactionChangedEvent of(Transaction transaction) {
+        return new TransactionChangedEvent(
+            transaction.getUser().getId(),
+            transaction.getId(),
+            transaction.getType(),
+            transaction.getCategory(),
+            transaction.getAmount() != null ? transaction.getAmount() : 0.0,
+            transaction.getTransactionDate()
+        );
+    }
+
+    public boolean isExpense() {
+        return "EXPENSE".equalsIgnoreCase(type);
+    }
+}
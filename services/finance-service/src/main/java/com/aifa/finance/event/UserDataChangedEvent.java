@@ -0,0 +1,8 @@
+package com.aifa.finance.event;
+
+/**
+ * Published after a user's accounts or budgets have been written.
+ * Transaction writes publish {@link TransactionChangedEvent} instead.
+ */
+public record UserDataChangedEvent(Long userId) {
+}
@@ -0,0 +1,53 @@
+package com.aifa.finance.forecast;
+
+import java.time.LocalDate;
+
+/**
+ * Repeat interval of a recurring flow; days is the nominal length used to match observed gaps.
+ */
+public enum Cadence {
+    WEEKLY(7),
+    BIWEEKLY(14),
+    MONTHLY(30),
+    QUARTERLY(91),
+    ANNUAL(365);
+
+    private final int days;
+
+    Cadence(int days) {
+        this.days = days;
+    }
+
+    public int days() {
+        return days;
+    }
+
+    public LocalDate next(LocalDate date) {
+        return switch (this) {
+            case WEEKLY -> date.plusWeeks(1);
+            case BIWEEKLY -> date.plusWeeks(2);
+            case MONTHLY -> date.plusMonths(1);
+            case QUARTERLY -> date.plusMonths(3);
+            case ANNUAL -> date.plusYears(1);
+        };
+    }
+
+    /**
+     * How far an observed gap may stray from the nominal length and still count as this cadence
+     */
+    int tolerance() {
+        return Math.max(2, days / 5);
+    }
+
+    /**
+     * Cadence whose nominal length is within tolerance of the gap, or null
+     */
+    static Cadence matching(double gapDays) {
+        for (Cadence cadence : values()) {
+            if (Math.abs(gapDays - cadence.days) <= cadence.tolerance()) {
+                return cadence;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.aifa.finance.forecast;
+
+import java.time.LocalDate;
+
+/**
+ * A past money movement: positive amounts are inflows, negative ones outflows.
+ */
+public record CashFlowEvent(LocalDate date, double amount, String label) {}
@@ -0,0 +1,30 @@
+package com.aifa.finance.forecast;
+
+/**
+ * Outcome of a goal simulation; successByMonth[m] is the share of paths that reached the target within m months.
+ */
+public record GoalSimulation(int paths, double[] successByMonth) {
+
+    public int horizonMonths() {
+        return successByMonth.length - 1;
+    }
+
+    /**
+     * Probability of having reached the target after the given number of months, capped at the horizon
+     */
+    public double probabilityWithin(int months) {
+        return successByMonth[Math.max(0, Math.min(months, horizonMonths()))];
+    }
+
+    /**
+     * Months until the given share of paths has reached the target, or null if it does not within the horizon
+     */
+    public Integer monthsToReach(double percentile) {
+        for (int m = 0; m < successByMonth.length; m++) {
+            if (successByMonth[m] >= percentile) {
+                return m;
+            }
+        }
+        return null;
+    }
+}
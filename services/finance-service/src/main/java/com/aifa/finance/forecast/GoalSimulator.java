@@ -0,0 +1,74 @@
+package com.aifa.finance.forecast;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Monte Carlo simulation of saving towards a target.
+ * Each path compounds the balance with a lognormal monthly return, adds the monthly contribution and stops at
+ * the first month the target is reached. Paths are split into fixed-size chunks that run on the caller's executor,
+ * each with its own {@link SplittableRandom} split from one seeded root, so a given seed always yields the same
+ * result whatever the executor.
+ * State is kept in primitive arrays; a path costs a handful of floating-point operations per simulated month.
+ */
+public final class GoalSimulator {
+
+    private static final int CHUNK_SIZE = 2048;
+
+    private GoalSimulator() {
+    }
+
+    /**
+     * @param expectedReturn annual expected return, e.g. 0.07
+     * @param volatility     annual standard deviation of returns, e.g. 0.15
+     * @param horizonMonths  months simulated before a path counts as never reaching the target
+     * @param executor       runs the chunks; the caller waits for all of them
+     */
+    public static GoalSimulation simulate(double currentSavings, double monthlyContribution, double targetAmount,
+                                          double expectedReturn, double volatility, int horizonMonths,
+                                          int paths, long seed, Executor executor) {
+        double monthlySigma = volatility / Math.sqrt(12);
+        double monthlyMu = Math.log1p(expectedReturn) / 12 - monthlySigma * monthlySigma / 2;
+
+        int chunks = (paths + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+
+        // hits[m] counts paths first reaching the target in month m; index horizonMonths + 1 means never
+        int[][] chunkHits = new int[chunks][];
+        CompletableFuture<?>[] running = new CompletableFuture<?>[chunks];
+        for (int c = 0; c < chunks; c++) {
+            int chunk = c;
+            running[c] = CompletableFuture.runAsync(() -> {
+                SplittableRandom random = randoms[chunk];
+                int[] hits = new int[horizonMonths + 2];
+                int end = Math.min(paths, (chunk + 1) * CHUNK_SIZE);
+                for (int p = chunk * CHUNK_SIZE; p < end; p++) {
+                    double balance = currentSavings;
+                    int month = 0;
+                    while (balance < targetAmount && month < horizonMonths) {
+                        balance = balance * Math.exp(monthlyMu + monthlySigma * random.nextGaussian()) + monthlyContribution;
+                        month++;
+                    }
+                    hits[balance >= targetAmount ? month : horizonMonths + 1]++;
+                }
+                chunkHits[chunk] = hits;
+            }, executor);
+        }
+        CompletableFuture.allOf(running).join();
+
+        double[] successByMonth = new double[horizonMonths + 1];
+        long reached = 0;
+        for (int m = 0; m <= horizonMonths; m++) {
+            for (int[] hits : chunkHits) {
+                reached += hits[m];
+            }
+            successByMonth[m] = (double) reached / paths;
+        }
+        return new GoalSimulation(paths, successByMonth);
+    }
+}
@@ -0,0 +1,10 @@
+package com.aifa.finance.forecast;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Expected balance at the end of a day with its 80% band; factors name the recurring flows due that day.
+ */
+public record ProjectedDay(LocalDate date, double expected, double lower, double upper, double confidence,
+                           String riskLevel, List<String> factors) {}
@@ -0,0 +1,10 @@
+package com.aifa.finance.forecast;
+
+import java.util.List;
+
+/**
+ * Result of a projection; accuracy is the backtest score over the last 30 days of history, or null
+ * when there was too little history to backtest.
+ */
+public record Projection(List<ProjectedDay> days, List<RecurringFlow> recurringFlows, int dataPoints,
+                         double dailyResidual, Double accuracy, double confidence) {}
@@ -0,0 +1,116 @@
+package com.aifa.finance.forecast;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds recurring flows in transaction history.
+ * Events are grouped by direction and a normalized label; a group is recurring when it has enough
+ * occurrences, most gaps between them match one cadence, and it has not lapsed by more than a cycle.
+ */
+final class RecurrenceDetector {
+
+    private static final int MIN_OCCURRENCES = 3;
+    private static final double MIN_REGULAR_SHARE = 0.7;
+
+    private RecurrenceDetector() {
+    }
+
+    /**
+     * @param matched set for every history index that belongs to a detected flow
+     */
+    static List<RecurringFlow> detect(List<CashFlowEvent> history, LocalDate today, boolean[] matched) {
+        Map<String, List<Integer>> groups = new HashMap<>();
+        for (int i = 0; i < history.size(); i++) {
+            CashFlowEvent event = history.get(i);
+            String key = normalize(event.label());
+            if (key.isEmpty() || event.amount() == 0) {
+                continue;
+            }
+            groups.computeIfAbsent((event.amount() > 0 ? "+" : "-") + key, k -> new ArrayList<>()).add(i);
+        }
+
+        List<RecurringFlow> flows = new ArrayList<>();
+        for (List<Integer> members : groups.values()) {
+            RecurringFlow flow = fit(history, members, today);
+            if (flow != null) {
+                flows.add(flow);
+                members.forEach(i -> matched[i] = true);
+            }
+        }
+        return flows;
+    }
+
+    private static RecurringFlow fit(List<CashFlowEvent> history, List<Integer> members, LocalDate today) {
+        if (members.size() < MIN_OCCURRENCES) {
+            return null;
+        }
+        // History arrives date-ordered, so members are too
+        int gapCount = members.size() - 1;
+        double[] gaps = new double[gapCount];
+        double[] amounts = new double[members.size()];
+        for (int i = 0; i < members.size(); i++) {
+            amounts[i] = history.get(members.get(i)).amount();
+            if (i > 0) {
+                gaps[i - 1] = ChronoUnit.DAYS.between(history.get(members.get(i - 1)).date(), history.get(members.get(i)).date());
+            }
+        }
+        Cadence cadence = Cadence.matching(median(gaps));
+        if (cadence == null) {
+            return null;
+        }
+        int regular = 0;
+        for (double gap : gaps) {
+            if (Math.abs(gap - cadence.days()) <= cadence.tolerance()) {
+                regular++;
+            }
+        }
+        if (regular < MIN_REGULAR_SHARE * gapCount) {
+            return null;
+        }
+
+        CashFlowEvent last = history.get(members.get(members.size() - 1));
+        LocalDate next = cadence.next(last.date());
+        if (ChronoUnit.DAYS.between(next, today) > cadence.tolerance()) {
+            // Lapsed: the last expected occurrence never came
+            return null;
+        }
+        while (!next.isAfter(today)) {
+            // Late but within tolerance: expect it tomorrow rather than skipping a cycle
+            next = next.isBefore(today) ? today.plusDays(1) : cadence.next(next);
+        }
+
+        double amount = median(amounts);
+        double[] deviations = new double[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            deviations[i] = Math.abs(amounts[i] - amount);
+        }
+        // Scaled median absolute deviation estimates the standard deviation without outlier sensitivity
+        double spread = 1.4826 * median(deviations);
+        return new RecurringFlow(last.label(), amount, cadence, next, null, spread);
+    }
+
+    static String normalize(String label) {
+        if (label == null) {
+            return "";
+        }
+        String[] words = label.toLowerCase(Locale.ROOT).replaceAll("[^a-z ]", " ").trim().split("\\s+");
+        return String.join(" ", Arrays.copyOf(words, Math.min(words.length, 3))).trim();
+    }
+
+    static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+}
@@ -0,0 +1,9 @@
+package com.aifa.finance.forecast;
+
+import java.time.LocalDate;
+
+/**
+ * A flow expected to repeat: signed amount, next occurrence after today, optional last date,
+ * and the standard deviation of its amount.
+ */
+public record RecurringFlow(String label, double amount, Cadence cadence, LocalDate nextDate, LocalDate until, double spread) {}
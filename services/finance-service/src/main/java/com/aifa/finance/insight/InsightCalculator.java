@@ -0,0 +1,139 @@
+package com.aifa.finance.insight;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Spending insights from monthly aggregates over a user's full history.
+ * Each category's spend in the last complete month is compared with its average over the months before it,
+ * and income against expenses gives the recent savings rate. Works on a few rows per category and month, so
+ * the cost does not grow with the number of transactions.
+ */
+public final class InsightCalculator {
+
+    private static final int BASELINE_MONTHS = 6;
+    private static final int MIN_BASELINE_MONTHS = 3;
+    private static final int SAVINGS_MONTHS = 3;
+    private static final double CHANGE_THRESHOLD = 0.15;
+    private static final double MIN_CHANGE_AMOUNT = 20.0;
+    private static final double TARGET_SAVINGS_RATE = 0.20;
+    private static final int MAX_CATEGORY_INSIGHTS = 2;
+
+    public record CategoryMonth(String category, YearMonth month, double amount) {}
+
+    public record MonthTotals(YearMonth month, double income, double expenses) {}
+
+    public record Insight(String type, String message) {}
+
+    private InsightCalculator() {
+    }
+
+    public static List<Insight> calculate(List<CategoryMonth> categoryMonths, List<MonthTotals> monthTotals, YearMonth current) {
+        if (monthTotals.isEmpty()) {
+            return List.of(new Insight("getting_started", "Add or import transactions to get personalised insights."));
+        }
+        YearMonth lastMonth = current.minusMonths(1);
+        YearMonth firstMonth = monthTotals.stream().map(MonthTotals::month).min(Comparator.naturalOrder()).orElseThrow();
+
+        List<Insight> insights = new ArrayList<>();
+        insights.addAll(categoryChanges(categoryMonths, firstMonth, lastMonth));
+        savingsRate(monthTotals, lastMonth).ifPresent(insights::add);
+
+        Map<String, Double> totalByCategory = new HashMap<>();
+        categoryMonths.forEach(row -> totalByCategory.merge(row.category(), row.amount(), Double::sum));
+        totalByCategory.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .ifPresent(top -> insights.add(new Insight("spending", String.format(
+                "Your highest spending category is %s with $%.2f in total.", top.getKey(), top.getValue()))));
+
+        double totalExpenses = monthTotals.stream().mapToDouble(MonthTotals::expenses).sum();
+        long months = firstMonth.until(current, ChronoUnit.MONTHS) + 1;
+        insights.add(new Insight("summary", String.format(
+            "Total expenses across %d categories: $%.2f over %d month(s).", totalByCategory.size(), totalExpenses, months)));
+        return insights;
+    }
+
+    /**
+     * Categories whose last-month spend moved furthest from their average over the preceding months
+     */
+    private static List<Insight> categoryChanges(List<CategoryMonth> categoryMonths, YearMonth firstMonth, YearMonth lastMonth) {
+        YearMonth baselineStart = lastMonth.minusMonths(BASELINE_MONTHS);
+        if (baselineStart.isBefore(firstMonth)) {
+            baselineStart = firstMonth;
+        }
+        long baselineMonths = baselineStart.until(lastMonth, ChronoUnit.MONTHS);
+        if (baselineMonths < MIN_BASELINE_MONTHS) {
+            return List.of();
+        }
+
+        Map<String, double[]> byCategory = new TreeMap<>();
+        for (CategoryMonth row : categoryMonths) {
+            double[] sums = byCategory.computeIfAbsent(row.category(), c -> new double[2]);
+            if (row.month().equals(lastMonth)) {
+                sums[0] += row.amount();
+            } else if (!row.month().isBefore(baselineStart) && row.month().isBefore(lastMonth)) {
+                sums[1] += row.amount();
+            }
+        }
+
+        List<Change> changes = new ArrayList<>();
+        byCategory.forEach((category, sums) -> {
+            double average = sums[1] / baselineMonths;
+            double delta = sums[0] - average;
+            if (average > 0 && Math.abs(delta) >= MIN_CHANGE_AMOUNT && Math.abs(delta) / average >= CHANGE_THRESHOLD) {
+                changes.add(new Change(category, sums[0], average, delta));
+            }
+        });
+
+        List<Insight> insights = new ArrayList<>();
+        changes.stream()
+            .filter(change -> change.delta() > 0)
+            .sorted(Comparator.comparingDouble(Change::delta).reversed())
+            .limit(MAX_CATEGORY_INSIGHTS)
+            .forEach(change -> insights.add(new Insight("overspend", String.format(
+                "You spent %.0f%% more on %s last month ($%.2f) than your %d-month average ($%.2f).",
+                change.delta() / change.average() * 100, change.category(), change.spent(), baselineMonths, change.average()))));
+        changes.stream()
+            .filter(change -> change.delta() < 0)
+            .min(Comparator.comparingDouble(Change::delta))
+            .ifPresent(change -> insights.add(new Insight("saving", String.format(
+                "You spent %.0f%% less on %s last month ($%.2f) than your %d-month average ($%.2f).",
+                -change.delta() / change.average() * 100, change.category(), change.spent(), baselineMonths, change.average()))));
+        return insights;
+    }
+
+    private static Optional<Insight> savingsRate(List<MonthTotals> monthTotals, YearMonth lastMonth) {
+        YearMonth from = lastMonth.minusMonths(SAVINGS_MONTHS - 1);
+        double income = 0;
+        double expenses = 0;
+        for (MonthTotals totals : monthTotals) {
+            if (!totals.month().isBefore(from) && !totals.month().isAfter(lastMonth)) {
+                income += totals.income();
+                expenses += totals.expenses();
+            }
+        }
+        if (income <= 0) {
+            return Optional.empty();
+        }
+        double rate = (income - expenses) / income;
+        String message;
+        if (rate < 0) {
+            message = String.format("You spent $%.2f more than you earned over the last %d months.", expenses - income, SAVINGS_MONTHS);
+        } else if (rate < TARGET_SAVINGS_RATE) {
+            message = String.format("You saved %.0f%% of your income over the last %d months; automating a transfer of $%.2f a month on payday would reach %.0f%%.",
+                rate * 100, SAVINGS_MONTHS, (TARGET_SAVINGS_RATE - rate) * income / SAVINGS_MONTHS, TARGET_SAVINGS_RATE * 100);
+        } else {
+            message = String.format("You saved %.0f%% of your income over the last %d months.", rate * 100, SAVINGS_MONTHS);
+        }
+        return Optional.of(new Insight("saving", message));
+    }
+
+    private record Change(String category, double spent, double average, double delta) {}
+}
@@ -0,0 +1,160 @@
+package com.aifa.finance.insight;
+
+import com.aifa.finance.domain.UserInsight;
+import com.aifa.finance.event.TransactionChangedEvent;
+import com.aifa.finance.repository.TransactionRepository;
+import com.aifa.finance.repository.UserInsightRepository;
+import com.aifa.finance.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps each user's insight set in user_insights up to date.
+ * A committed transaction change schedules a refresh after the debounce delay; further changes inside that
+ * window join the scheduled refresh, so an import of a thousand rows costs one recomputation. Refreshes run on a
+ * bounded pool and never overlap for the same user. A user without a stored set gets one computed on first read.
+ * Insight text is phrased relative to the month it was computed in ("this month", "last month"), so a set computed
+ * in an earlier month is recomputed on read and replaced in the background, the same way.
+ */
+@Component
+@Slf4j
+public class InsightRefresher {
+
+    private final TransactionRepository transactionRepository;
+    private final UserInsightRepository userInsightRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer timer;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("insight-debounce").factory());
+    private final ThreadPoolExecutor executor;
+    private final long debounceMillis;
+
+    public InsightRefresher(TransactionRepository transactionRepository,
+                            UserInsightRepository userInsightRepository,
+                            UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${insights.refresh.debounce:PT10S}") Duration debounce,
+                            @Value("${insights.refresh.workers:2}") int workers,
+                            @Value("${insights.refresh.queue-capacity:1000}") int queueCapacity) {
+        this.transactionRepository = transactionRepository;
+        this.userInsightRepository = userInsightRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.timer = Timer.builder("insights.refresh.duration")
+            .description("Time to recompute and store one user's insights")
+            .register(meterRegistry);
+        this.debounceMillis = debounce.toMillis();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("insight-refresh-", 0).factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        requestRefresh(event.userId());
+    }
+
+    public void requestRefresh(Long userId) {
+        if (scheduled.add(userId)) {
+            scheduler.schedule(() -> dispatch(userId), debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The stored insight set, or a freshly computed one when the user has none yet or it dates from an earlier month
+     */
+    public List<InsightCalculator.Insight> insights(Long userId) {
+        List<UserInsight> stored = userInsightRepository.findByUserId(userId);
+        if (!stored.isEmpty() && !YearMonth.from(stored.get(0).getComputedAt()).isBefore(YearMonth.now())) {
+            return stored.stream()
+                .map(insight -> new InsightCalculator.Insight(insight.getInsightType(), insight.getMessage()))
+                .toList();
+        }
+        // Stored by the background refresh, so concurrent first reads never race on the insert
+        requestRefresh(userId);
+        return compute(userId);
+    }
+
+    private void dispatch(Long userId) {
+        try {
+            executor.execute(() -> refresh(userId));
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(userId);
+            log.warn("Insight refresh queue full, insights for user {} stay stale until their next change", userId);
+        }
+    }
+
+    private void refresh(Long userId) {
+        if (!running.add(userId)) {
+            scheduler.schedule(() -> dispatch(userId), debounceMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        // Cleared before reading, so a change committed from here on schedules another refresh
+        scheduled.remove(userId);
+        try {
+            timer.record(() -> transactionTemplate.executeWithoutResult(status -> store(userId, compute(userId))));
+        } catch (RuntimeException e) {
+            log.warn("Insight refresh for user {} failed: {}", userId, e.getMessage());
+        } finally {
+            running.remove(userId);
+        }
+    }
+
+    private List<InsightCalculator.Insight> compute(Long userId) {
+        List<InsightCalculator.CategoryMonth> categoryMonths = transactionRepository.sumExpensesByCategoryAndMonth(userId).stream()
+            .map(row -> new InsightCalculator.CategoryMonth((String) row[0],
+                YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue()), ((Number) row[3]).doubleValue()))
+            .toList();
+        List<InsightCalculator.MonthTotals> monthTotals = transactionRepository.sumByMonth(userId).stream()
+            .map(row -> new InsightCalculator.MonthTotals(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                ((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue()))
+            .toList();
+        return InsightCalculator.calculate(categoryMonths, monthTotals, YearMonth.now());
+    }
+
+    private void store(Long userId, List<InsightCalculator.Insight> insights) {
+        userInsightRepository.deleteByUserId(userId);
+        LocalDateTime computedAt = LocalDateTime.now();
+        List<UserInsight> rows = new ArrayList<>(insights.size());
+        for (int i = 0; i < insights.size(); i++) {
+            rows.add(UserInsight.builder()
+                .user(userRepository.getReferenceById(userId))
+                .position(i)
+                .insightType(insights.get(i).type())
+                .message(insights.get(i).message())
+                .computedAt(computedAt)
+                .build());
+        }
+        userInsightRepository.saveAll(rows);
+    }
+}
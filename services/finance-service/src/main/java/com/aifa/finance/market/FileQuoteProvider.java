@@ -0,0 +1,103 @@
+package com.aifa.finance.market;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in provider reading quotes from a local CSV file of {@code SYMBOL,PRICE} lines, for tests and development.
+ * Blank lines and lines starting with {@code #} are skipped. The file is read again when it changes, and quotes
+ * are stamped with the time they are served, as a live provider would.
+ */
+@Component
+@ConditionalOnProperty(name = "prices.quote-provider", havingValue = "file")
+@Slf4j
+public class FileQuoteProvider implements QuoteProvider {
+
+    private final Path path;
+    private final int maxBatchSize;
+    private final double maxRequestsPerSecond;
+    private volatile Snapshot snapshot = new Snapshot(null, Map.of());
+
+    public FileQuoteProvider(@Value("${prices.file-provider.path:quotes.csv}") Path path,
+                             @Value("${prices.file-provider.batch-size:50}") int maxBatchSize,
+                             @Value("${prices.file-provider.requests-per-second:5}") double maxRequestsPerSecond) {
+        this.path = path;
+        this.maxBatchSize = maxBatchSize;
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    @Override
+    public double maxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    @Override
+    public List<Quote> fetch(List<String> symbols) {
+        Map<String, BigDecimal> prices = prices();
+        Instant now = Instant.now();
+        List<Quote> quotes = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            BigDecimal price = prices.get(symbol);
+            if (price != null) {
+                quotes.add(new Quote(symbol, price, now));
+            }
+        }
+        return quotes;
+    }
+
+    private Map<String, BigDecimal> prices() {
+        try {
+            if (!Files.exists(path)) {
+                return Map.of();
+            }
+            FileTime modified = Files.getLastModifiedTime(path);
+            Snapshot current = snapshot;
+            if (modified.equals(current.modified())) {
+                return current.prices();
+            }
+            Map<String, BigDecimal> prices = new HashMap<>();
+            for (String line : Files.readAllLines(path)) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = trimmed.split(",");
+                try {
+                    prices.put(fields[0].trim(), new BigDecimal(fields[1].trim()));
+                } catch (RuntimeException e) {
+                    log.warn("Skipping malformed quote line in {}: {}", path, line);
+                }
+            }
+            snapshot = new Snapshot(modified, Map.copyOf(prices));
+            return snapshot.prices();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read quotes from " + path, e);
+        }
+    }
+
+    private record Snapshot(FileTime modified, Map<String, BigDecimal> prices) {}
+}
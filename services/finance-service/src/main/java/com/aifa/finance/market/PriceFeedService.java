@@ -0,0 +1,219 @@
+package com.aifa.finance.market;
+
+import com.aifa.finance.dto.PriceFeedResponse;
+import com.aifa.finance.exception.BadRequestException;
+import com.aifa.finance.repository.InvestmentRepository;
+import com.aifa.finance.repository.PortfolioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies market prices to every holding of the priced symbols, across all users.
+ * Each batch is one transaction of set-based statements: the owners' portfolios are locked and adjusted by the
+ * change in value of their holdings, then the matching investments are revalued. Symbols nobody holds match no
+ * rows, at the cost of one probe of the symbol index each.
+ * Intraday ticks only replace the symbol's pending quote; pending quotes are written together every flush interval,
+ * so a symbol ticking many times costs one write per interval. Quotes reach the {@link QuoteCache} once their batch
+ * commits, so the cache never shows a price the holdings do not have.
+ * {@link com.aifa.finance.service.InvestmentService#updatePrice} remains for single corrections.
+ */
+@Service
+@Slf4j
+public class PriceFeedService {
+
+    private static final int MAX_SYMBOL_LENGTH = 20;
+
+    private final InvestmentRepository investmentRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final QuoteCache quoteCache;
+    private final Duration maxClockSkew;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer batchTimer;
+    private final Counter revaluedCounter;
+    private final ConcurrentMap<String, Quote> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("price-tick-flush").factory());
+
+    @Value("${prices.feed.batch-size:1000}")
+    private int batchSize;
+
+    public PriceFeedService(InvestmentRepository investmentRepository,
+                            PortfolioRepository portfolioRepository,
+                            QuoteCache quoteCache,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${prices.tick.flush-interval:PT5S}") Duration flushInterval,
+                            @Value("${prices.tick.max-clock-skew:PT5S}") Duration maxClockSkew) {
+        this.investmentRepository = investmentRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.quoteCache = quoteCache;
+        this.maxClockSkew = maxClockSkew;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTimer = Timer.builder("prices.feed.batch.duration")
+            .description("Time to revalue holdings and portfolios for one batch of prices")
+            .register(meterRegistry);
+        this.revaluedCounter = Counter.builder("prices.feed.holdings.revalued")
+            .description("Investments revalued from price feed batches")
+            .register(meterRegistry);
+        flusher.scheduleWithFixedDelay(this::flushTicks, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * Revalue holdings at the given prices, taken now. Symbols match {@code Investment.symbol} exactly; entries without
+     * a symbol or with a price that is missing or not positive are rejected, as {@code calculateMetrics} would ignore them.
+     */
+    public PriceFeedResponse ingest(Map<String, BigDecimal> prices) {
+        Instant asOf = Instant.now();
+        List<Quote> quotes = new ArrayList<>(prices.size());
+        prices.forEach((symbol, price) -> quotes.add(new Quote(symbol, price, asOf)));
+        return ingestQuotes(quotes);
+    }
+
+    /**
+     * Revalue holdings at the given quotes; a quote no newer than the cached one for its symbol is skipped
+     */
+    public PriceFeedResponse ingestQuotes(Collection<Quote> quotes) {
+        return applyQuotes(quotes).response();
+    }
+
+    /**
+     * Revalue holdings at the given quotes as {@link #ingestQuotes} does, also reporting which symbols were written
+     */
+    public Applied applyQuotes(Collection<Quote> quotes) {
+        long started = System.nanoTime();
+        // Sorted so concurrent feeds visit symbols, and so rows, in the same order
+        TreeMap<String, Quote> accepted = new TreeMap<>();
+        int rejected = 0;
+        for (Quote quote : quotes) {
+            String symbol = quote.symbol() != null ? quote.symbol().trim() : "";
+            if (!isValid(symbol, quote.price()) || quote.asOf() == null) {
+                rejected++;
+                continue;
+            }
+            Quote trimmed = new Quote(symbol, quote.price(), quote.asOf());
+            if (quoteCache.isNewer(trimmed)) {
+                accepted.merge(symbol, trimmed, QuoteCache::newer);
+            }
+        }
+
+        List<Quote> entries = new ArrayList<>(accepted.values());
+        int batches = 0;
+        int holdings = 0;
+        int portfolios = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            int[] counts = applyBatch(entries.subList(from, Math.min(entries.size(), from + batchSize)));
+            holdings += counts[0];
+            portfolios += counts[1];
+            batches++;
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Price feed of {} symbol(s) revalued {} holding(s) and {} portfolio(s) in {} batch(es), {} ms",
+            accepted.size(), holdings, portfolios, batches, elapsedMillis);
+        return new Applied(new PriceFeedResponse(accepted.size(), rejected, batches, holdings, portfolios, elapsedMillis),
+            accepted.keySet());
+    }
+
+    /**
+     * Record an intraday price; holdings of the symbol are revalued by the next flush.
+     * Returns false when a quote at least as recent is already cached or pending. A quote dated beyond the allowed clock skew is rejected,
+     * as it would otherwise shadow every genuine quote until that time.
+     */
+    public boolean tick(String symbol, BigDecimal price, Instant asOf) {
+        String trimmed = symbol != null ? symbol.trim() : "";
+        if (!isValid(trimmed, price)) {
+            throw new BadRequestException("A price tick needs a symbol of up to " + MAX_SYMBOL_LENGTH + " characters and a positive price");
+        }
+        Instant now = Instant.now();
+        if (asOf != null && asOf.isAfter(now.plus(maxClockSkew))) {
+            throw new BadRequestException("A price tick cannot be dated after " + now.plus(maxClockSkew));
+        }
+        Quote quote = new Quote(trimmed, price, asOf != null ? asOf : now);
+        return quoteCache.isNewer(quote) && pending.merge(trimmed, quote, QuoteCache::newer) == quote;
+    }
+
+    private void flushTicks() {
+        List<Quote> latest = new ArrayList<>();
+        for (String symbol : pending.keySet()) {
+            Quote quote = pending.remove(symbol);
+            if (quote != null) {
+                latest.add(quote);
+            }
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+        latest.sort(Comparator.comparing(Quote::symbol));
+        for (int from = 0; from < latest.size(); from += batchSize) {
+            List<Quote> batch = latest.subList(from, Math.min(latest.size(), from + batchSize));
+            try {
+                applyBatch(batch);
+            } catch (RuntimeException e) {
+                // Retried at the next flush, unless a newer tick has arrived by then
+                batch.forEach(quote -> pending.merge(quote.symbol(), quote, QuoteCache::newer));
+                log.warn("Price tick flush of {} symbol(s) failed: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write one batch of quotes, sorted by symbol, in one transaction, then cache them
+     */
+    private int[] applyBatch(List<Quote> batch) {
+        String[] symbols = new String[batch.size()];
+        BigDecimal[] prices = new BigDecimal[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            symbols[i] = batch.get(i).symbol();
+            prices[i] = batch.get(i).price();
+        }
+        int[] counts = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            portfolioRepository.lockIdsForSymbols(symbols);
+            int adjusted = portfolioRepository.applyRevaluationDeltas(symbols, prices, now);
+            int revalued = investmentRepository.revalueBySymbols(symbols, prices, now);
+            return new int[] {revalued, adjusted};
+        }));
+        // The template has committed by now, so cached quotes always match the stored prices
+        batch.forEach(quoteCache::put);
+        revaluedCounter.increment(counts[0]);
+        return counts;
+    }
+
+    /**
+     * Outcome of applying quotes, with the symbols whose quotes were written
+     */
+    public record Applied(PriceFeedResponse response, Set<String> written) {}
+
+    private static boolean isValid(String symbol, BigDecimal price) {
+        return !symbol.isEmpty() && symbol.length() <= MAX_SYMBOL_LENGTH && price != null && price.signum() > 0;
+    }
+}
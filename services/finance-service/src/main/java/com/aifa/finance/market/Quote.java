@@ -0,0 +1,9 @@
+package com.aifa.finance.market;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Last traded or closing price of a symbol and when it was taken
+ */
+public record Quote(String symbol, BigDecimal price, Instant asOf) {}
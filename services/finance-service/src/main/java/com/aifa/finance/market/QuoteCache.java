@@ -0,0 +1,48 @@
+package com.aifa.finance.market;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latest quote per symbol whose price has been written to the holdings, from price feeds and ticks.
+ * Quotes are stored only once their write commits, and arriving out of order never replace a newer one, so
+ * feeds and ticks use it to drop quotes older than what this instance has already written. Responses read the
+ * holdings themselves, which other instances also write.
+ */
+@Component
+public class QuoteCache {
+
+    private final ConcurrentMap<String, Quote> quotes = new ConcurrentHashMap<>();
+
+    public QuoteCache(MeterRegistry meterRegistry) {
+        Gauge.builder("prices.quotes.cached", quotes, ConcurrentMap::size)
+            .description("Symbols with a cached quote")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Store the quote unless the cached one is at least as recent; true when it was stored
+     */
+    public boolean put(Quote quote) {
+        return quotes.merge(quote.symbol(), quote, QuoteCache::newer) == quote;
+    }
+
+    /**
+     * True when no quote at least as recent is cached for the symbol
+     */
+    public boolean isNewer(Quote quote) {
+        Quote cached = quotes.get(quote.symbol());
+        return cached == null || quote.asOf().isAfter(cached.asOf());
+    }
+
+    /**
+     * The later of two quotes for one symbol, keeping the first on a tie
+     */
+    public static Quote newer(Quote first, Quote second) {
+        return second.asOf().isAfter(first.asOf()) ? second : first;
+    }
+}
@@ -0,0 +1,28 @@
+package com.aifa.finance.market;
+
+import java.util.List;
+
+/**
+ * Source of market quotes for {@link QuoteRefreshScheduler}.
+ * Implementations are Spring beans; the scheduler stays idle unless exactly one is present. Calls may run
+ * concurrently, each with at most {@link #maxBatchSize()} symbols, and are spaced to {@link #maxRequestsPerSecond()}.
+ */
+public interface QuoteProvider {
+
+    String name();
+
+    /**
+     * Most symbols one request may ask for
+     */
+    int maxBatchSize();
+
+    /**
+     * Requests the provider accepts per second across all concurrent calls
+     */
+    double maxRequestsPerSecond();
+
+    /**
+     * Quotes for the symbols the provider knows; unknown symbols are left out of the result
+     */
+    List<Quote> fetch(List<String> symbols);
+}
@@ -0,0 +1,192 @@
+package com.aifa.finance.market;
+
+import com.aifa.finance.repository.InvestmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pulls fresh quotes for held symbols whose holdings were last updated longer ago than the max age.
+ * Symbols are collected once across all users, so ten thousand holders of one symbol cost one lookup, then
+ * split into provider-sized batches fetched concurrently and spaced to the provider's request rate. All quotes
+ * from a run are applied through {@link PriceFeedService#applyQuotes}, which writes them back to the holdings'
+ * current price and {@code lastUpdated}. Staleness is read from the holdings rather than the per-instance
+ * {@link QuoteCache}, so a restart or a second instance does not fetch symbols another run has just refreshed.
+ * A symbol asked for but not written, because the provider left it out, failed, or returned no newer quote, is
+ * not asked for again until its retry backoff passes; the backoff doubles with each miss up to the maximum and is
+ * kept per instance, so a restart allows one early retry.
+ */
+@Component
+@Slf4j
+public class QuoteRefreshScheduler {
+
+    private final ObjectProvider<QuoteProvider> quoteProviders;
+    private final InvestmentRepository investmentRepository;
+    private final PriceFeedService priceFeedService;
+    private final Timer runTimer;
+    private final Counter requestsSucceeded;
+    private final Counter requestsFailed;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ConcurrentMap<String, Backoff> backoffs = new ConcurrentHashMap<>();
+
+    @Value("${prices.refresh.max-age:PT15M}")
+    private Duration maxAge;
+
+    @Value("${prices.refresh.concurrency:4}")
+    private int concurrency;
+
+    @Value("${prices.refresh.retry-backoff:PT5M}")
+    private Duration retryBackoff;
+
+    @Value("${prices.refresh.max-retry-backoff:PT6H}")
+    private Duration maxRetryBackoff;
+
+    public QuoteRefreshScheduler(ObjectProvider<QuoteProvider> quoteProviders,
+                                 InvestmentRepository investmentRepository,
+                                 PriceFeedService priceFeedService,
+                                 MeterRegistry meterRegistry) {
+        this.quoteProviders = quoteProviders;
+        this.investmentRepository = investmentRepository;
+        this.priceFeedService = priceFeedService;
+        this.runTimer = Timer.builder("prices.refresh.duration")
+            .description("Time to fetch and apply quotes for all stale symbols")
+            .register(meterRegistry);
+        this.requestsSucceeded = meterRegistry.counter("prices.refresh.requests", "outcome", "success");
+        this.requestsFailed = meterRegistry.counter("prices.refresh.requests", "outcome", "failure");
+        Gauge.builder("prices.refresh.backed-off", backoffs, Map::size)
+            .description("Stale symbols waiting out a retry backoff")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${prices.refresh.poll:PT1M}", initialDelayString = "${prices.refresh.poll:PT1M}")
+    public void refreshStaleQuotes() {
+        QuoteProvider provider = quoteProviders.getIfUnique();
+        if (provider == null) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Quote refresh skipped: a run is already in progress");
+            return;
+        }
+        try {
+            runTimer.record(() -> refresh(provider));
+        } catch (RuntimeException e) {
+            log.warn("Quote refresh from {} failed: {}", provider.name(), e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void refresh(QuoteProvider provider) {
+        Instant now = Instant.now();
+        List<String> held = staleSymbols();
+        // Symbols no longer stale were refreshed elsewhere or are no longer held
+        backoffs.keySet().retainAll(new HashSet<>(held));
+        List<String> stale = held.stream()
+            .filter(symbol -> !backoffs.containsKey(symbol) || !backoffs.get(symbol).retryAfter().isAfter(now))
+            .toList();
+        if (stale.isEmpty()) {
+            return;
+        }
+        int batchSize = Math.max(1, provider.maxBatchSize());
+        Queue<Quote> quotes = new ConcurrentLinkedQueue<>();
+        RequestPacer pacer = new RequestPacer(provider.maxRequestsPerSecond());
+        try (ExecutorService pool = Executors.newFixedThreadPool(concurrency, Thread.ofVirtual().name("quote-refresh-", 0).factory())) {
+            for (int from = 0; from < stale.size(); from += batchSize) {
+                List<String> batch = stale.subList(from, Math.min(stale.size(), from + batchSize));
+                pool.execute(() -> fetch(provider, pacer, batch, quotes));
+            }
+        }
+        PriceFeedService.Applied applied = priceFeedService.applyQuotes(quotes);
+        int missed = 0;
+        for (String symbol : stale) {
+            if (applied.written().contains(symbol)) {
+                backoffs.remove(symbol);
+            } else {
+                backoffs.merge(symbol, new Backoff(1, now.plus(retryBackoff)),
+                    (previous, first) -> new Backoff(previous.misses() + 1, now.plus(backoff(previous.misses() + 1))));
+                missed++;
+            }
+        }
+        log.info("Quote refresh from {}: {} stale symbol(s), {} quote(s) received, {} holding(s) revalued, {} symbol(s) backed off",
+            provider.name(), stale.size(), quotes.size(), applied.response().holdingsRevalued(), missed);
+    }
+
+    /**
+     * Retry delay after the given number of consecutive misses: the backoff doubled per miss, at most the maximum
+     */
+    private Duration backoff(int misses) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(misses - 1, 20));
+        return delay.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : delay;
+    }
+
+    /**
+     * Distinct held symbols, sorted, with a holding not updated within the max age
+     */
+    private List<String> staleSymbols() {
+        return investmentRepository.findSymbolsUpdatedBefore(LocalDateTime.now().minus(maxAge));
+    }
+
+    private void fetch(QuoteProvider provider, RequestPacer pacer, List<String> symbols, Queue<Quote> quotes) {
+        try {
+            pacer.acquire();
+            quotes.addAll(provider.fetch(symbols));
+            requestsSucceeded.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // The symbols stay stale and are asked for again once their backoff passes
+            requestsFailed.increment();
+            log.warn("Quote request to {} for {} symbol(s) failed: {}", provider.name(), symbols.size(), e.getMessage());
+        }
+    }
+
+    private record Backoff(int misses, Instant retryAfter) {}
+
+    /**
+     * Hands out request start times at most maxRequestsPerSecond apart, shared by all fetches of one run
+     */
+    private static final class RequestPacer {
+
+        private final long intervalNanos;
+        private long next = System.nanoTime();
+
+        RequestPacer(double maxRequestsPerSecond) {
+            this.intervalNanos = maxRequestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxRequestsPerSecond) : 0;
+        }
+
+        void acquire() throws InterruptedException {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long slot = Math.max(now, next);
+                next = slot + intervalNanos;
+                wait = slot - now;
+            }
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+}
@@ -45,6 +45,12 @@ public class UserPreferences {
     @Column(nullable = false)
     private Boolean investmentUpdates;
 
+    @Column(name = "notification_digest", nullable = false)
+    private Boolean notificationDigest;
+
+    @Column(name = "digest_interval_minutes", nullable = false)
+    private Integer digestIntervalMinutes;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
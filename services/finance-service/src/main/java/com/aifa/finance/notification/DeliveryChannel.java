@@ -0,0 +1,7 @@
+package com.aifa.finance.notification;
+
+public enum DeliveryChannel {
+    EMAIL,
+    PUSH,
+    WEBHOOK
+}
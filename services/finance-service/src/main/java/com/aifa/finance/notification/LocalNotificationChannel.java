@@ -0,0 +1,36 @@
+package com.aifa.finance.notification;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-process stand-in channel that logs deliveries and keeps them in memory for inspection in tests.
+ * Registered only by {@link LocalNotificationChannelConfig}, as it would otherwise mark real notifications sent.
+ */
+@Slf4j
+public class LocalNotificationChannel implements NotificationChannel {
+
+    private final DeliveryChannel channel;
+    private final ConcurrentLinkedQueue<NotificationMessage> delivered = new ConcurrentLinkedQueue<>();
+
+    public LocalNotificationChannel(DeliveryChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public DeliveryChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void send(List<NotificationMessage> batch) {
+        delivered.addAll(batch);
+        log.debug("Delivered {} notification(s) via local {} channel", batch.size(), channel);
+    }
+
+    public List<NotificationMessage> delivered() {
+        return List.copyOf(delivered);
+    }
+}
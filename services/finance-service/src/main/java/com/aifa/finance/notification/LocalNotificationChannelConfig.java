@@ -0,0 +1,24 @@
+package com.aifa.finance.notification;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Logging stand-ins for the email and push channels in development and tests, where no real sender is configured.
+ * Other profiles leave channels without a sender undelivered, so their notifications stay unsent.
+ */
+@Configuration
+@Profile({"dev", "test"})
+public class LocalNotificationChannelConfig {
+
+    @Bean
+    public LocalNotificationChannel localEmailChannel() {
+        return new LocalNotificationChannel(DeliveryChannel.EMAIL);
+    }
+
+    @Bean
+    public LocalNotificationChannel localPushChannel() {
+        return new LocalNotificationChannel(DeliveryChannel.PUSH);
+    }
+}
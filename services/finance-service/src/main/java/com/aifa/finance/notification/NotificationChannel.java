@@ -0,0 +1,18 @@
+package com.aifa.finance.notification;
+
+import java.util.List;
+
+/**
+ * Delivery SPI. Register an implementation as a bean to deliver a channel; nothing is queued for channels
+ * without a bean, and {@link LocalNotificationChannelConfig} provides stand-ins in dev and test. Implementations are called
+ * from several dispatch workers at once and must be thread-safe.
+ */
+public interface NotificationChannel {
+
+    DeliveryChannel channel();
+
+    /**
+     * Deliver a batch of messages. Throwing marks the whole batch for retry.
+     */
+    void send(List<NotificationMessage> batch) throws Exception;
+}
@@ -0,0 +1,246 @@
+package com.aifa.finance.notification;
+
+import com.aifa.finance.event.NotificationCreatedEvent;
+import com.aifa.finance.model.UserPreferences;
+import com.aifa.finance.repository.NotificationRepository;
+import com.aifa.finance.repository.UserPreferencesRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous notification delivery.
+ * Created notifications are queued after commit, ordered by priority, and drained by virtual-thread
+ * workers that send one batch per channel and mark the delivered rows with a single UPDATE.
+ * Failed batches are retried with exponential backoff. Only channels with a registered {@link NotificationChannel}
+ * are queued; a notification no channel delivers stays unsent. The queue is memory-only, so rows still unsent
+ * when the application starts are queued again, and delivery is at least once.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final Map<DeliveryChannel, NotificationChannel> channels = new EnumMap<>(DeliveryChannel.class);
+    private final UserPreferencesRepository userPreferencesRepository;
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final PriorityBlockingQueue<DispatchTask> queue = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService retryScheduler =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("notification-retry").factory());
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Value("${notification.dispatch.workers:2}")
+    private int workerCount;
+
+    @Value("${notification.dispatch.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.dispatch.queue-capacity:50000}")
+    private int queueCapacity;
+
+    @Value("${notification.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${notification.dispatch.backoff:PT2S}")
+    private Duration backoff;
+
+    @Value("${notification.dispatch.max-backoff:PT5M}")
+    private Duration maxBackoff;
+
+    public NotificationDispatcher(List<NotificationChannel> registered,
+                                  UserPreferencesRepository userPreferencesRepository,
+                                  NotificationRepository notificationRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.userPreferencesRepository = userPreferencesRepository;
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        registered.forEach(channel -> channels.put(channel.channel(), channel));
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual().name("notification-dispatch-" + i).start(this::drain));
+        }
+        log.info("Notification dispatcher started with {} worker(s), channels {}", workerCount, channels.keySet());
+        Set<DeliveryChannel> missing = EnumSet.allOf(DeliveryChannel.class);
+        missing.removeAll(channels.keySet());
+        if (!missing.isEmpty()) {
+            log.warn("No sender registered for {}; notifications are not delivered on those channels", missing);
+        }
+    }
+
+    /**
+     * Queue the notifications left unsent by earlier runs, in id pages. Rows created since this instance started
+     * were queued by the instance that created them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void requeueUnsent() {
+        if (channels.isEmpty()) {
+            return;
+        }
+        long afterId = 0;
+        int requeued = 0;
+        while (queue.size() < queueCapacity) {
+            long cursor = afterId;
+            List<NotificationMessage> page = readOnlyTemplate.execute(status -> notificationRepository
+                .findUnsentAfter(cursor, startedAt, PageRequest.of(0, batchSize)).stream()
+                .map(NotificationMessage::from)
+                .toList());
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(this::enqueue);
+            requeued += page.size();
+            afterId = page.get(page.size() - 1).notificationId();
+        }
+        if (requeued > 0) {
+            log.info("Queued {} notification(s) left unsent by an earlier run", requeued);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        retryScheduler.shutdownNow();
+        if (!queue.isEmpty()) {
+            log.warn("Notification dispatcher stopped with {} undelivered task(s); rows stay unsent", queue.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        enqueue(event.notification());
+    }
+
+    /**
+     * Queue a notification on every channel the user has enabled
+     */
+    public void enqueue(NotificationMessage message) {
+        for (DeliveryChannel channel : channelsFor(message.userId())) {
+            if (queue.size() >= queueCapacity) {
+                log.warn("Notification queue full, leaving notification {} unsent", message.notificationId());
+                return;
+            }
+            queue.offer(new DispatchTask(message, channel, 1, sequence.incrementAndGet()));
+        }
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    public NotificationChannel channel(DeliveryChannel channel) {
+        return channels.get(channel);
+    }
+
+    private Set<DeliveryChannel> channelsFor(Long userId) {
+        Set<DeliveryChannel> enabled = EnumSet.noneOf(DeliveryChannel.class);
+        UserPreferences preferences = userPreferencesRepository.findByUserId(userId).orElse(null);
+        if (preferences == null || Boolean.TRUE.equals(preferences.getEmailNotifications())) {
+            enabled.add(DeliveryChannel.EMAIL);
+        }
+        if (preferences == null || Boolean.TRUE.equals(preferences.getPushNotifications())) {
+            enabled.add(DeliveryChannel.PUSH);
+        }
+        enabled.add(DeliveryChannel.WEBHOOK);
+        enabled.retainAll(channels.keySet());
+        return enabled;
+    }
+
+    private void drain() {
+        List<DispatchTask> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Notification dispatch batch failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<DispatchTask> batch) {
+        Map<DeliveryChannel, List<DispatchTask>> byChannel = batch.stream()
+            .collect(Collectors.groupingBy(DispatchTask::channel,
+                () -> new EnumMap<>(DeliveryChannel.class), Collectors.toList()));
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        byChannel.forEach((channel, tasks) -> {
+            try {
+                channels.get(channel).send(tasks.stream().map(DispatchTask::message).toList());
+                tasks.forEach(task -> sentIds.add(task.message().notificationId()));
+            } catch (Exception e) {
+                log.warn("Delivery of {} notification(s) via {} failed: {}", tasks.size(), channel, e.getMessage());
+                tasks.forEach(this::scheduleRetry);
+            }
+        });
+
+        if (!sentIds.isEmpty()) {
+            LocalDateTime sentAt = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> notificationRepository.markSent(sentIds, sentAt));
+        }
+    }
+
+    private void scheduleRetry(DispatchTask task) {
+        if (task.attempt() >= maxAttempts) {
+            log.error("Giving up on notification {} via {} after {} attempt(s)",
+                task.message().notificationId(), task.channel(), task.attempt());
+            return;
+        }
+        long delay = Math.min(backoff.toMillis() << (task.attempt() - 1), maxBackoff.toMillis());
+        DispatchTask next = new DispatchTask(task.message(), task.channel(), task.attempt() + 1, sequence.incrementAndGet());
+        retryScheduler.schedule(() -> queue.offer(next), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Higher priorities drain first; ties keep submission order.
+     */
+    private record DispatchTask(NotificationMessage message, DeliveryChannel channel, int attempt, long sequence)
+            implements Comparable<DispatchTask> {
+
+        @Override
+        public int compareTo(DispatchTask other) {
+            int byPriority = other.message.priority().compareTo(message.priority());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
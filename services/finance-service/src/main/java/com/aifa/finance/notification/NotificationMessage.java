@@ -0,0 +1,32 @@
+package com.aifa.finance.notification;
+
+import com.aifa.finance.domain.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a notification handed to delivery channels, so workers never touch managed entities.
+ */
+public record NotificationMessage(
+    Long notificationId,
+    Long userId,
+    Notification.NotificationType notificationType,
+    Notification.NotificationPriority priority,
+    String title,
+    String message,
+    String actionUrl,
+    LocalDateTime createdAt
+) {
+    public static NotificationMessage from(Notification notification) {
+        return new NotificationMessage(
+            notification.getId(),
+            notification.getUser().getId(),
+            notification.getNotificationType(),
+            notification.getPriority() != null ? notification.getPriority() : Notification.NotificationPriority.NORMAL,
+            notification.getTitle(),
+            notification.getMessage(),
+            notification.getActionUrl(),
+            notification.getCreatedAt()
+        );
+    }
+}
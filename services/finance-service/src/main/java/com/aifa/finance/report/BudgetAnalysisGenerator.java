@@ -0,0 +1,59 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Budget;
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.repository.BudgetRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Every budget overlapping the range with its utilization and status.
+ */
+@Component
+@RequiredArgsConstructor
+public class BudgetAnalysisGenerator implements ReportGenerator {
+
+    private final BudgetRepository budgetRepository;
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.BUDGET_ANALYSIS;
+    }
+
+    @Override
+    public void generate(ReportContext context, ReportSink sink) {
+        List<Budget> budgets = budgetRepository.findOverlapping(context.userId(), context.startDate(), context.endDate());
+
+        BigDecimal totalLimit = BigDecimal.ZERO;
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        int overBudget = 0;
+        sink.columns("budget", "category", "limit", "spent", "remaining", "utilization", "status");
+        for (Budget budget : budgets) {
+            BigDecimal limit = ReportValues.amount(budget.getMonthlyLimit());
+            BigDecimal spent = ReportValues.amount(budget.getSpentAmount());
+            BigDecimal utilization = ReportValues.percent(spent, limit);
+            String status;
+            if (spent.compareTo(limit) > 0) {
+                status = "EXCEEDED";
+                overBudget++;
+            } else if (utilization != null && budget.getAlertThreshold() != null
+                    && utilization.compareTo(BigDecimal.valueOf(budget.getAlertThreshold())) >= 0) {
+                status = "WARNING";
+            } else {
+                status = "ON_TRACK";
+            }
+            totalLimit = totalLimit.add(limit);
+            totalSpent = totalSpent.add(spent);
+            sink.row(budget.getName(), budget.getCategory(), limit, spent, limit.subtract(spent), utilization, status);
+        }
+
+        sink.summary("budgets", budgets.size());
+        sink.summary("totalLimit", totalLimit);
+        sink.summary("totalSpent", totalSpent);
+        sink.summary("utilization", ReportValues.percent(totalSpent, totalLimit));
+        sink.summary("overBudgetCount", overBudget);
+    }
+}
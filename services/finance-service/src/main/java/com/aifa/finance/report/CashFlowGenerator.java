@@ -0,0 +1,40 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Daily inflow and outflow with a running net position over the range.
+ */
+@Component
+@RequiredArgsConstructor
+public class CashFlowGenerator implements ReportGenerator {
+
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.CASH_FLOW;
+    }
+
+    @Override
+    public void generate(ReportContext context, ReportSink sink) {
+        BigDecimal totalIn = BigDecimal.ZERO;
+        BigDecimal totalOut = BigDecimal.ZERO;
+        sink.columns("date", "inflow", "outflow", "net", "cumulative");
+        for (Object[] row : transactionRepository.sumByDayBetween(context.userId(), context.startDate(), context.endDate())) {
+            BigDecimal inflow = ReportValues.amount(row[1]);
+            BigDecimal outflow = ReportValues.amount(row[2]);
+            totalIn = totalIn.add(inflow);
+            totalOut = totalOut.add(outflow);
+            sink.row(row[0], inflow, outflow, inflow.subtract(outflow), totalIn.subtract(totalOut));
+        }
+        sink.summary("totalInflow", totalIn);
+        sink.summary("totalOutflow", totalOut);
+        sink.summary("net", totalIn.subtract(totalOut));
+    }
+}
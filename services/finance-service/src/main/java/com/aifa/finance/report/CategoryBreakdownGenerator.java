@@ -0,0 +1,41 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Expenses per category with each category's share of the total.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryBreakdownGenerator implements ReportGenerator {
+
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.CATEGORY_BREAKDOWN;
+    }
+
+    @Override
+    public void generate(ReportContext context, ReportSink sink) {
+        List<Object[]> categories = transactionRepository.sumByCategoryBetween(
+            context.userId(), "EXPENSE", context.startDate(), context.endDate());
+        BigDecimal total = categories.stream()
+            .map(row -> ReportValues.amount(row[1]))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        sink.summary("total", total);
+        sink.summary("categories", categories.size());
+        sink.columns("category", "amount", "transactions", "share");
+        for (Object[] row : categories) {
+            BigDecimal amount = ReportValues.amount(row[1]);
+            sink.row(row[0], amount, ((Number) row[2]).longValue(), ReportValues.percent(amount, total));
+        }
+    }
+}
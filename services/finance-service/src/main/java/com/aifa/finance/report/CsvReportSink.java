@@ -0,0 +1,71 @@
+package com.aifa.finance.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * RFC 4180 CSV: the header row followed by the data rows. Summary figures stay in the JSON report data.
+ */
+public class CsvReportSink extends FileReportSink {
+
+    private final Writer writer;
+    private boolean closed;
+
+    public CsvReportSink(Path target) throws IOException {
+        super(target);
+        this.writer = new BufferedWriter(Files.newBufferedWriter(partFile(), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public void summary(String name, Object value) {
+    }
+
+    @Override
+    public void columns(String... names) {
+        writeLine(names);
+    }
+
+    @Override
+    public void row(Object... values) {
+        writeLine(values);
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.close();
+        }
+    }
+
+    private void writeLine(Object[] values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
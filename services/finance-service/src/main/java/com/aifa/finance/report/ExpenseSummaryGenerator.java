@@ -0,0 +1,18 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.repository.TransactionRepository;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ExpenseSummaryGenerator extends TransactionSummaryGenerator {
+
+    public ExpenseSummaryGenerator(TransactionRepository transactionRepository) {
+        super(transactionRepository, "EXPENSE");
+    }
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.EXPENSE_SUMMARY;
+    }
+}
@@ -0,0 +1,52 @@
+package com.aifa.finance.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A sink that streams rows into a file as they arrive, so memory stays flat however long the report is.
+ * Output goes to a ".part" file that only replaces the target on {@link #commit()};
+ * closing without committing discards it.
+ */
+public abstract class FileReportSink implements ReportSink, Closeable {
+
+    private final Path target;
+    private final Path partFile;
+    private boolean committed;
+
+    protected FileReportSink(Path target) {
+        this.target = target;
+        this.partFile = target.resolveSibling(target.getFileName() + ".part");
+    }
+
+    protected Path partFile() {
+        return partFile;
+    }
+
+    /**
+     * Write any trailer and close the underlying stream
+     */
+    protected abstract void finish() throws IOException;
+
+    public Path commit() throws IOException {
+        finish();
+        Files.move(partFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            try {
+                finish();
+            } catch (IOException ignored) {
+                // the partial file is deleted below either way
+            }
+            Files.deleteIfExists(partFile);
+        }
+    }
+}
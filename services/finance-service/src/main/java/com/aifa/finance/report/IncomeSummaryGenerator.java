@@ -0,0 +1,18 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.repository.TransactionRepository;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IncomeSummaryGenerator extends TransactionSummaryGenerator {
+
+    public IncomeSummaryGenerator(TransactionRepository transactionRepository) {
+        super(transactionRepository, "INCOME");
+    }
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.INCOME_SUMMARY;
+    }
+}
@@ -0,0 +1,62 @@
+package com.aifa.finance.report;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Collects a report into the JSON document stored in reports.report_data.
+ * Only the first maxRows rows are kept; the rest are counted so the document says it was truncated.
+ */
+public class JsonReportSink implements ReportSink {
+
+    private final ObjectMapper objectMapper;
+    private final int maxRows;
+    private final ObjectNode root;
+    private final ObjectNode summary;
+    private final ArrayNode rows;
+    private long rowCount;
+
+    public JsonReportSink(ObjectMapper objectMapper, int maxRows) {
+        this.objectMapper = objectMapper;
+        this.maxRows = maxRows;
+        this.root = objectMapper.createObjectNode();
+        this.summary = root.putObject("summary");
+        this.rows = objectMapper.createArrayNode();
+    }
+
+    @Override
+    public void summary(String name, Object value) {
+        summary.putPOJO(name, value);
+    }
+
+    @Override
+    public void columns(String... names) {
+        ArrayNode columns = root.putArray("columns");
+        for (String name : names) {
+            columns.add(name);
+        }
+    }
+
+    @Override
+    public void row(Object... values) {
+        if (rowCount++ < maxRows) {
+            ArrayNode row = rows.addArray();
+            for (Object value : values) {
+                row.addPOJO(value);
+            }
+        }
+    }
+
+    public String toJson() {
+        root.set("rows", rows);
+        root.put("rowCount", rowCount);
+        root.put("truncated", rowCount > maxRows);
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize report data", e);
+        }
+    }
+}
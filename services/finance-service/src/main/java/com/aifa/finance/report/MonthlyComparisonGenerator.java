@@ -0,0 +1,52 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Income and expenses per calendar month, with the month-over-month change in spending.
+ */
+@Component
+@RequiredArgsConstructor
+public class MonthlyComparisonGenerator implements ReportGenerator {
+
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.MONTHLY_COMPARISON;
+    }
+
+    @Override
+    public void generate(ReportContext context, ReportSink sink) {
+        List<Object[]> months = transactionRepository.sumByMonthBetween(context.userId(), context.startDate(), context.endDate());
+
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpenses = BigDecimal.ZERO;
+        BigDecimal previousExpenses = null;
+        sink.columns("month", "income", "expenses", "net", "expenseChange");
+        for (Object[] row : months) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            BigDecimal income = ReportValues.amount(row[2]);
+            BigDecimal expenses = ReportValues.amount(row[3]);
+            sink.row(month.toString(), income, expenses, income.subtract(expenses), ReportValues.change(expenses, previousExpenses));
+            totalIncome = totalIncome.add(income);
+            totalExpenses = totalExpenses.add(expenses);
+            previousExpenses = expenses;
+        }
+
+        sink.summary("months", months.size());
+        if (!months.isEmpty()) {
+            BigDecimal count = BigDecimal.valueOf(months.size());
+            sink.summary("averageIncome", totalIncome.divide(count, 2, RoundingMode.HALF_UP));
+            sink.summary("averageExpenses", totalExpenses.divide(count, 2, RoundingMode.HALF_UP));
+        }
+    }
+}
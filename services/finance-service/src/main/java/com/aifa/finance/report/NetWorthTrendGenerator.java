@@ -0,0 +1,44 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.dto.NetWorthPointResponse;
+import com.aifa.finance.service.BalanceJournalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Daily net worth over the range, read from the account balance journal.
+ */
+@Component
+@RequiredArgsConstructor
+public class NetWorthTrendGenerator implements ReportGenerator {
+
+    private final BalanceJournalService balanceJournalService;
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.NET_WORTH_TREND;
+    }
+
+    @Override
+    public void generate(ReportContext context, ReportSink sink) {
+        List<NetWorthPointResponse> points = balanceJournalService.netWorthSeries(
+            context.userId(), context.startDate(), context.endDate());
+
+        sink.columns("date", "assets", "liabilities", "netWorth");
+        for (NetWorthPointResponse point : points) {
+            sink.row(point.date(), point.totalAssets(), point.totalLiabilities(), point.netWorth());
+        }
+
+        sink.summary("points", points.size());
+        if (!points.isEmpty()) {
+            NetWorthPointResponse first = points.get(0);
+            NetWorthPointResponse last = points.get(points.size() - 1);
+            sink.summary("startNetWorth", first.netWorth());
+            sink.summary("endNetWorth", last.netWorth());
+            sink.summary("change", last.netWorth().subtract(first.netWorth()));
+        }
+    }
+}
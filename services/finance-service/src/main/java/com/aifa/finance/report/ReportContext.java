@@ -0,0 +1,8 @@
+package com.aifa.finance.report;
+
+import java.time.LocalDate;
+
+/**
+ * What a generator reports on: one user's data between two dates, both inclusive.
+ */
+public record ReportContext(Long userId, LocalDate startDate, LocalDate endDate) {}
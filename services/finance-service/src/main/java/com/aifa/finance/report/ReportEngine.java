@@ -0,0 +1,162 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.event.ReportRequestedEvent;
+import com.aifa.finance.repository.ReportRepository;
+import com.aifa.finance.service.DataVersionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs report generation off the request thread.
+ * Requested reports are queued after commit onto a bounded pool; each job moves its row through
+ * RUNNING to COMPLETED or FAILED, and clients poll the report until it settles.
+ * When the queue is full the report fails immediately instead of piling up work.
+ * Reports requested as CSV or XLSX are rendered to a file in the same generator pass.
+ */
+@Component
+@Slf4j
+public class ReportEngine {
+
+    private final Map<Report.ReportType, ReportGenerator> generators = new EnumMap<>(Report.ReportType.class);
+    private final ReportRepository reportRepository;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final ReportFileStore fileStore;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${report.data.max-rows:1000}")
+    private int maxRows;
+
+    public ReportEngine(List<ReportGenerator> registered,
+                        ReportRepository reportRepository,
+                        DataVersionService dataVersionService,
+                        ObjectMapper objectMapper,
+                        ReportFileStore fileStore,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${report.engine.workers:4}") int workers,
+                        @Value("${report.engine.queue-capacity:500}") int queueCapacity) {
+        registered.forEach(generator -> generators.put(generator.type(), generator));
+        this.reportRepository = reportRepository;
+        this.dataVersionService = dataVersionService;
+        this.objectMapper = objectMapper;
+        this.fileStore = fileStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("report-engine-", 0).factory());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public boolean supports(Report.ReportType type) {
+        return generators.containsKey(type);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReportRequested(ReportRequestedEvent event) {
+        submit(event.reportId());
+    }
+
+    public void submit(Long reportId) {
+        try {
+            executor.execute(() -> run(reportId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Report queue full, failing report {}", reportId);
+            fail(reportId, "Report queue is full, try again later");
+        }
+    }
+
+    public int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private void run(Long reportId) {
+        // Conditional claim, so a report submitted on several instances is generated once
+        Report report = transactionTemplate.execute(status ->
+            reportRepository.claimForRun(reportId, LocalDateTime.now(), Report.ReportStatus.PENDING, Report.ReportStatus.RUNNING) == 1
+                ? reportRepository.findById(reportId).orElse(null)
+                : null);
+        if (report == null) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            ReportGenerator generator = generators.get(report.getReportType());
+            if (generator == null) {
+                throw new UnsupportedOperationException("Report type " + report.getReportType() + " is not supported");
+            }
+            Long userId = report.getUser().getId();
+            ReportContext context = new ReportContext(userId,
+                report.getStartDate().toLocalDate(), report.getEndDate().toLocalDate());
+
+            // Version taken before reading, so a concurrent write makes the cached result stale rather than wrong
+            String dataVersion = dataVersionService.currentVersion(userId);
+            JsonReportSink sink = new JsonReportSink(objectMapper, maxRows);
+            String filePath = render(report, generator, context, sink);
+            String reportData = sink.toJson();
+
+            transactionTemplate.executeWithoutResult(status -> reportRepository.findById(reportId).ifPresent(saved -> {
+                saved.setReportData(reportData);
+                saved.setFilePath(filePath);
+                saved.setDataVersion(dataVersion);
+                saved.setStatus(Report.ReportStatus.COMPLETED);
+                saved.setErrorMessage(null);
+                saved.setCompletedAt(LocalDateTime.now());
+            }));
+            log.debug("Report {} ({}) generated in {} ms", reportId, report.getReportType(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Report {} failed: {}", reportId, e.getMessage());
+            fail(reportId, e.getMessage());
+        }
+    }
+
+    /**
+     * Run the generator once, teeing rows into the report's file when its format has one
+     *
+     * @return the stored file path, or null when no file was rendered
+     */
+    private String render(Report report, ReportGenerator generator, ReportContext context, JsonReportSink sink) throws IOException {
+        if (!fileStore.renders(report.getFileFormat())) {
+            readOnlyTemplate.executeWithoutResult(status -> generator.generate(context, sink));
+            return null;
+        }
+        try (FileReportSink file = fileStore.open(context.userId(), report.getId(), report.getFileFormat())) {
+            ReportSink tee = new TeeReportSink(sink, file);
+            readOnlyTemplate.executeWithoutResult(status -> generator.generate(context, tee));
+            return fileStore.relativePath(file.commit());
+        }
+    }
+
+    private void fail(Long reportId, String message) {
+        transactionTemplate.executeWithoutResult(status -> reportRepository.findById(reportId).ifPresent(report -> {
+            report.setStatus(Report.ReportStatus.FAILED);
+            report.setErrorMessage(message);
+            report.setCompletedAt(LocalDateTime.now());
+        }));
+    }
+}
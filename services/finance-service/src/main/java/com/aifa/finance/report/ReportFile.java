@@ -0,0 +1,5 @@
+package com.aifa.finance.report;
+
+import java.nio.file.Path;
+
+public record ReportFile(Path path, String fileName, String contentType) {}
@@ -0,0 +1,90 @@
+package com.aifa.finance.report;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Local directory holding rendered report files, one subdirectory per user.
+ * Report rows store paths relative to the directory, and every lookup is checked to stay inside it.
+ */
+@Component
+@Slf4j
+public class ReportFileStore {
+
+    private final Path directory;
+
+    public ReportFileStore(@Value("${report.files.directory:${java.io.tmpdir}/aifa-reports}") String directory) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+    }
+
+    public boolean renders(String fileFormat) {
+        return format(fileFormat) != null;
+    }
+
+    /**
+     * Open a streaming sink for the report's file; the file appears under its final name on commit
+     */
+    public FileReportSink open(Long userId, Long reportId, String fileFormat) throws IOException {
+        Format format = format(fileFormat);
+        if (format == null) {
+            throw new IllegalArgumentException("Unsupported report file format: " + fileFormat);
+        }
+        Path userDirectory = Files.createDirectories(directory.resolve(userId.toString()));
+        Path target = userDirectory.resolve("report-" + reportId + "." + format.extension);
+        return format == Format.CSV ? new CsvReportSink(target) : new XlsxReportSink(target);
+    }
+
+    public String relativePath(Path file) {
+        return directory.relativize(file.toAbsolutePath().normalize()).toString();
+    }
+
+    public Path resolve(String filePath) {
+        Path file = directory.resolve(filePath).normalize();
+        if (!file.startsWith(directory)) {
+            throw new IllegalArgumentException("Report file path escapes the report directory: " + filePath);
+        }
+        return file;
+    }
+
+    public void delete(String filePath) {
+        try {
+            Files.deleteIfExists(resolve(filePath));
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}: {}", filePath, e.getMessage());
+        }
+    }
+
+    public static String contentType(String filePath) {
+        return filePath.endsWith(".csv")
+            ? "text/csv; charset=UTF-8"
+            : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    private static Format format(String fileFormat) {
+        if (fileFormat == null) {
+            return null;
+        }
+        return switch (fileFormat.toUpperCase(Locale.ROOT)) {
+            case "CSV" -> Format.CSV;
+            case "XLSX", "EXCEL" -> Format.XLSX;
+            default -> null;
+        };
+    }
+
+    private enum Format {
+        CSV("csv"),
+        XLSX("xlsx");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+
+/**
+ * Produces one report type. Implementations are Spring beans picked up by {@link ReportEngine};
+ * generate runs inside a read-only transaction.
+ */
+public interface ReportGenerator {
+
+    Report.ReportType type();
+
+    void generate(ReportContext context, ReportSink sink);
+}
@@ -0,0 +1,14 @@
+package com.aifa.finance.report;
+
+/**
+ * Receives a report as it is generated: summary figures, then a header and a stream of rows.
+ * Generators push rows one at a time, so a sink decides how much it keeps in memory.
+ */
+public interface ReportSink {
+
+    void summary(String name, Object value);
+
+    void columns(String... names);
+
+    void row(Object... values);
+}
@@ -0,0 +1,37 @@
+package com.aifa.finance.report;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+final class ReportValues {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private ReportValues() {
+    }
+
+    static BigDecimal amount(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        BigDecimal decimal = value instanceof BigDecimal bd ? bd : BigDecimal.valueOf(((Number) value).doubleValue());
+        return decimal.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * part as a percentage of whole, or null when whole is zero
+     */
+    static BigDecimal percent(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() == 0) {
+            return null;
+        }
+        return part.multiply(HUNDRED).divide(whole, 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Relative change from previous to current in percent, or null without a previous value
+     */
+    static BigDecimal change(BigDecimal current, BigDecimal previous) {
+        return previous == null ? null : percent(current.subtract(previous), previous.abs());
+    }
+}
@@ -0,0 +1,229 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.event.ReportRequestedEvent;
+import com.aifa.finance.repository.ReportRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs scheduled reports, safely across several finance-service instances.
+ * Each poll claims a batch of due schedules, advances their next_generation and creates one PENDING report
+ * per run in a single transaction; {@link ReportEngine} generates them after commit.
+ * On PostgreSQL the batch is leased with FOR UPDATE SKIP LOCKED, so instances take disjoint batches without
+ * blocking. Elsewhere (H2 in tests) each schedule is claimed by a compare-and-set on next_generation.
+ * Polls are jittered so instances started together do not hit the table in lockstep. Reports an instance
+ * claimed but never finished, because it stopped, are returned to PENDING once their claim is older than
+ * report.schedule.requeue-after, which must therefore exceed the longest generation.
+ */
+@Component
+@Slf4j
+public class ScheduledReportExecutor {
+
+    private final ReportRepository reportRepository;
+    private final ReportEngine reportEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSource dataSource;
+    private final ScheduledExecutorService poller =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("report-schedule").factory());
+    private boolean skipLocked;
+
+    @Value("${report.schedule.leasing:auto}")
+    private String leasing;
+
+    @Value("${report.schedule.poll:PT1M}")
+    private Duration pollInterval;
+
+    @Value("${report.schedule.jitter:PT15S}")
+    private Duration jitter;
+
+    @Value("${report.schedule.batch-size:50}")
+    private int batchSize;
+
+    @Value("${report.schedule.requeue-after:PT15M}")
+    private Duration requeueAfter;
+
+    public ScheduledReportExecutor(ReportRepository reportRepository,
+                                   ReportEngine reportEngine,
+                                   ApplicationEventPublisher eventPublisher,
+                                   TransactionTemplate transactionTemplate,
+                                   DataSource dataSource) {
+        this.reportRepository = reportRepository;
+        this.reportEngine = reportEngine;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void start() {
+        skipLocked = switch (leasing.toLowerCase(Locale.ROOT)) {
+            case "skip-locked" -> true;
+            case "compare-and-set" -> false;
+            default -> isPostgres();
+        };
+        log.info("Scheduled reports use {} leasing, polling every {} (+ up to {} jitter)",
+            skipLocked ? "SKIP LOCKED" : "compare-and-set", pollInterval, jitter);
+        scheduleNextPoll();
+    }
+
+    @PreDestroy
+    void stop() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Next run of a schedule after the given time, or null for an unknown frequency
+     */
+    public static LocalDateTime advance(String frequency, LocalDateTime from) {
+        if (frequency == null) {
+            return null;
+        }
+        return switch (frequency) {
+            case "DAILY" -> from.plusDays(1);
+            case "WEEKLY" -> from.plusWeeks(1);
+            case "MONTHLY" -> from.plusMonths(1);
+            default -> null;
+        };
+    }
+
+    public int runDue() {
+        LocalDateTime now = LocalDateTime.now();
+        int started = 0;
+        int claimed;
+        do {
+            List<Report> runs = transactionTemplate.execute(status -> claimBatch(now));
+            claimed = runs.size();
+            started += claimed;
+        } while (claimed == batchSize && !Thread.currentThread().isInterrupted());
+        return started;
+    }
+
+    private void poll() {
+        try {
+            int started = runDue();
+            if (started > 0) {
+                log.info("Started {} scheduled report(s)", started);
+            }
+            requeueStale();
+        } catch (RuntimeException e) {
+            log.error("Scheduled report poll failed", e);
+        } finally {
+            scheduleNextPoll();
+        }
+    }
+
+    private void scheduleNextPoll() {
+        if (poller.isShutdown()) {
+            return;
+        }
+        long delay = pollInterval.toMillis() + ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        poller.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Claim up to one batch of due schedules and create their runs; must be called inside a transaction
+     */
+    private List<Report> claimBatch(LocalDateTime now) {
+        List<Report> runs = new ArrayList<>();
+        if (skipLocked) {
+            for (Report schedule : reportRepository.lockDueSchedules(now, batchSize)) {
+                LocalDateTime dueAt = schedule.getNextGeneration();
+                schedule.setNextGeneration(nextAfter(schedule.getScheduleFrequency(), dueAt, now));
+                runs.add(runOf(schedule, dueAt));
+            }
+        } else {
+            for (Report schedule : reportRepository.findDueSchedules(now, PageRequest.of(0, batchSize))) {
+                LocalDateTime dueAt = schedule.getNextGeneration();
+                LocalDateTime next = nextAfter(schedule.getScheduleFrequency(), dueAt, now);
+                if (reportRepository.advanceNextGeneration(schedule.getId(), dueAt, next) == 1) {
+                    runs.add(runOf(schedule, dueAt));
+                }
+            }
+        }
+        reportRepository.saveAll(runs).forEach(run -> eventPublisher.publishEvent(new ReportRequestedEvent(run.getId())));
+        return runs;
+    }
+
+    /**
+     * Keep the schedule's cadence but skip runs missed while no instance was up
+     */
+    private static LocalDateTime nextAfter(String frequency, LocalDateTime dueAt, LocalDateTime now) {
+        LocalDateTime next = advance(frequency, dueAt);
+        while (next != null && !next.isAfter(now)) {
+            next = advance(frequency, next);
+        }
+        return next;
+    }
+
+    /**
+     * One run covers the frequency period that ended on the day before it was due
+     */
+    private static Report runOf(Report schedule, LocalDateTime dueAt) {
+        LocalDateTime periodEnd = dueAt.toLocalDate().atStartOfDay();
+        LocalDateTime periodStart = switch (schedule.getScheduleFrequency()) {
+            case "WEEKLY" -> periodEnd.minusWeeks(1);
+            case "MONTHLY" -> periodEnd.minusMonths(1);
+            default -> periodEnd.minusDays(1);
+        };
+        return Report.builder()
+            .user(schedule.getUser())
+            .reportType(schedule.getReportType())
+            .reportName(schedule.getReportName())
+            .description(schedule.getDescription())
+            .startDate(periodStart)
+            .endDate(periodEnd.minusSeconds(1))
+            .fileFormat(schedule.getFileFormat())
+            .isScheduled(false)
+            .status(Report.ReportStatus.PENDING)
+            .build();
+    }
+
+    /**
+     * Resubmit reports left PENDING or RUNNING by an instance that stopped before generating them;
+     * the engine's conditional claim makes a duplicate submission harmless
+     */
+    private void requeueStale() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(requeueAfter);
+        int released = transactionTemplate.execute(status ->
+            reportRepository.releaseExpiredRuns(cutoff, Report.ReportStatus.RUNNING, Report.ReportStatus.PENDING));
+        if (released > 0) {
+            log.warn("Returned {} report(s) running since before {} to pending", released, cutoff);
+        }
+        List<Long> stale = reportRepository.findIdsByStatusBefore(Report.ReportStatus.PENDING,
+            cutoff, PageRequest.of(0, batchSize));
+        if (!stale.isEmpty()) {
+            log.info("Requeueing {} stale pending report(s)", stale.size());
+            stale.forEach(reportEngine::submit);
+        }
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Could not detect the database, falling back to compare-and-set leasing: {}", e.getMessage());
+            return false;
+        }
+    }
+}
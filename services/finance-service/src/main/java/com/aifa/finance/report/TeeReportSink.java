@@ -0,0 +1,33 @@
+package com.aifa.finance.report;
+
+/**
+ * Forwards everything to two sinks, so one generator pass feeds both the stored JSON and a file.
+ */
+class TeeReportSink implements ReportSink {
+
+    private final ReportSink first;
+    private final ReportSink second;
+
+    TeeReportSink(ReportSink first, ReportSink second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void summary(String name, Object value) {
+        first.summary(name, value);
+        second.summary(name, value);
+    }
+
+    @Override
+    public void columns(String... names) {
+        first.columns(names);
+        second.columns(names);
+    }
+
+    @Override
+    public void row(Object... values) {
+        first.row(values);
+        second.row(values);
+    }
+}
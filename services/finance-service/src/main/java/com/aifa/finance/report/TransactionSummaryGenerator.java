@@ -0,0 +1,35 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.repository.TransactionRepository;
+
+import java.util.stream.Stream;
+
+/**
+ * Totals for one transaction type plus every matching transaction, streamed from the database.
+ */
+abstract class TransactionSummaryGenerator implements ReportGenerator {
+
+    private final TransactionRepository transactionRepository;
+    private final String transactionType;
+
+    TransactionSummaryGenerator(TransactionRepository transactionRepository, String transactionType) {
+        this.transactionRepository = transactionRepository;
+        this.transactionType = transactionType;
+    }
+
+    @Override
+    public void generate(ReportContext context, ReportSink sink) {
+        Object[] totals = transactionRepository.summarizeByTypeBetween(
+            context.userId(), transactionType, context.startDate(), context.endDate()).get(0);
+        sink.summary("count", ((Number) totals[0]).longValue());
+        sink.summary("total", ReportValues.amount(totals[1]));
+        sink.summary("average", ReportValues.amount(totals[2]));
+        sink.summary("largest", ReportValues.amount(totals[3]));
+
+        sink.columns("date", "description", "merchant", "category", "amount");
+        try (Stream<Object[]> rows = transactionRepository.streamByTypeBetween(
+                context.userId(), transactionType, context.startDate(), context.endDate())) {
+            rows.forEach(row -> sink.row(row[0], row[1], row[2], row[3], ReportValues.amount(row[4])));
+        }
+    }
+}
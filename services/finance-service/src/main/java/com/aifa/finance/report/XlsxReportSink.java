@@ -0,0 +1,190 @@
+package com.aifa.finance.report;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal SpreadsheetML workbook written straight into the zip stream: a "Data" sheet with the rows
+ * and a "Summary" sheet with the summary figures. Strings are inline, so no shared-string table
+ * has to be held in memory; only the summary map is buffered until the end.
+ */
+public class XlsxReportSink extends FileReportSink {
+
+    /**
+     * Excel's row limit minus the header row
+     */
+    private static final int MAX_DATA_ROWS = 1_048_575;
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final Map<String, Object> summary = new LinkedHashMap<>();
+    private boolean sheetOpen;
+    private boolean closed;
+    private int rowIndex;
+
+    public XlsxReportSink(Path target) throws IOException {
+        super(target);
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(partFile()), 64 * 1024));
+        this.writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void summary(String name, Object value) {
+        summary.put(name, value);
+    }
+
+    @Override
+    public void columns(String... names) {
+        openDataSheet();
+        writeRow(names);
+    }
+
+    @Override
+    public void row(Object... values) {
+        openDataSheet();
+        if (rowIndex <= MAX_DATA_ROWS) {
+            writeRow(values);
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            openDataSheet();
+            endSheet();
+
+            rowIndex = 0;
+            startEntry("xl/worksheets/sheet2.xml");
+            writer.write(SHEET_HEADER);
+            for (Map.Entry<String, Object> entry : summary.entrySet()) {
+                writeRow(new Object[] {entry.getKey(), entry.getValue()});
+            }
+            endSheet();
+
+            writeEntry("[Content_Types].xml", CONTENT_TYPES);
+            writeEntry("_rels/.rels", ROOT_RELS);
+            writeEntry("xl/workbook.xml", WORKBOOK);
+            writeEntry("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void openDataSheet() {
+        if (sheetOpen) {
+            return;
+        }
+        sheetOpen = true;
+        try {
+            startEntry("xl/worksheets/sheet1.xml");
+            writer.write(SHEET_HEADER);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRow(Object[] values) {
+        try {
+            rowIndex++;
+            writer.write("<row r=\"" + rowIndex + "\">");
+            for (Object value : values) {
+                if (value == null) {
+                    writer.write("<c/>");
+                } else if (value instanceof Number number) {
+                    String text = number instanceof BigDecimal decimal ? decimal.toPlainString() : number.toString();
+                    writer.write("<c><v>" + text + "</v></c>");
+                } else {
+                    writer.write("<c t=\"inlineStr\"><is><t>");
+                    writer.write(xml(value.toString()));
+                    writer.write("</t></is></c>");
+                }
+            }
+            writer.write("</row>");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void startEntry(String name) throws IOException {
+        writer.flush();
+        zip.putNextEntry(new ZipEntry(name));
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        startEntry(name);
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private static String xml(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    // XML 1.0 forbids most control characters even when escaped
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static final String SHEET_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+        + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>";
+
+    private static final String CONTENT_TYPES = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+        + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+        + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+        + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+        + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+        + "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+        + "<Override PartName=\"/xl/worksheets/sheet2.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>"
+        + "</Types>";
+
+    private static final String ROOT_RELS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+        + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+        + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>"
+        + "</Relationships>";
+
+    private static final String WORKBOOK = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+        + "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" "
+        + "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>"
+        + "<sheet name=\"Data\" sheetId=\"1\" r:id=\"rId1\"/>"
+        + "<sheet name=\"Summary\" sheetId=\"2\" r:id=\"rId2\"/>"
+        + "</sheets></workbook>";
+
+    private static final String WORKBOOK_RELS = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+        + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+        + "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+        + "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet2.xml\"/>"
+        + "</Relationships>";
+}
@@ -0,0 +1,48 @@
+package com.aifa.finance.report;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Income, expenses and savings rate per calendar year, folded from the monthly aggregate.
+ */
+@Component
+@RequiredArgsConstructor
+public class YearlyComparisonGenerator implements ReportGenerator {
+
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public Report.ReportType type() {
+        return Report.ReportType.YEARLY_COMPARISON;
+    }
+
+    @Override
+    public void generate(ReportContext context, ReportSink sink) {
+        Map<Integer, BigDecimal[]> years = new TreeMap<>();
+        for (Object[] row : transactionRepository.sumByMonthBetween(context.userId(), context.startDate(), context.endDate())) {
+            BigDecimal[] totals = years.computeIfAbsent(((Number) row[0]).intValue(),
+                year -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+            totals[0] = totals[0].add(ReportValues.amount(row[2]));
+            totals[1] = totals[1].add(ReportValues.amount(row[3]));
+        }
+
+        BigDecimal previousExpenses = null;
+        sink.columns("year", "income", "expenses", "net", "savingsRate", "expenseChange");
+        for (Map.Entry<Integer, BigDecimal[]> entry : years.entrySet()) {
+            BigDecimal income = entry.getValue()[0];
+            BigDecimal expenses = entry.getValue()[1];
+            BigDecimal net = income.subtract(expenses);
+            sink.row(entry.getKey(), income, expenses, net, ReportValues.percent(net, income),
+                ReportValues.change(expenses, previousExpenses));
+            previousExpenses = expenses;
+        }
+        sink.summary("years", years.size());
+    }
+}
@@ -0,0 +1,37 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.AccountBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceCheckpointRepository extends JpaRepository<AccountBalanceCheckpoint, Long> {
+
+    Optional<AccountBalanceCheckpoint> findFirstByAccountIdAndAsOfBeforeOrderByAsOfDescSequenceDesc(Long accountId, LocalDateTime before);
+
+    /**
+     * Whether the account was ever journalled, deleted ones included; each gets a checkpoint when opened
+     */
+    boolean existsByAccountId(Long accountId);
+
+    /**
+     * Balances of all the user's accounts just before the given time, summed per side: [liability, sum].
+     * Each account contributes its latest earlier checkpoint plus the entries booked after it.
+     */
+    @Query(value = "WITH latest AS (" +
+                   "SELECT c.account_id, c.sequence, c.balance, c.liability FROM (" +
+                   "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.account_id ORDER BY c.as_of DESC, c.sequence DESC) AS rn " +
+                   "FROM account_balance_checkpoints c WHERE c.user_id = :userId AND c.as_of < :before) c WHERE c.rn = 1) " +
+                   "SELECT s.liability, SUM(s.amount) FROM (" +
+                   "SELECT l.liability, l.balance AS amount FROM latest l " +
+                   "UNION ALL " +
+                   "SELECT e.liability, e.amount FROM account_balance_entries e LEFT JOIN latest l ON l.account_id = e.account_id " +
+                   "WHERE e.user_id = :userId AND e.effective_at < :before AND e.sequence > COALESCE(l.sequence, 0)) s " +
+                   "GROUP BY s.liability", nativeQuery = true)
+    List<Object[]> sumOpeningSides(Long userId, LocalDateTime before);
+}
@@ -0,0 +1,27 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.AccountBalanceEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceEntryRepository extends JpaRepository<AccountBalanceEntry, Long> {
+
+    /**
+     * Entries booked after a checkpoint and before the given time, summed per side: [liability, sum]
+     */
+    @Query("SELECT e.liability, SUM(e.amount) FROM AccountBalanceEntry e " +
+           "WHERE e.accountId = :accountId AND e.sequence > :afterSequence AND e.effectiveAt < :before GROUP BY e.liability")
+    List<Object[]> sumAfterSequence(Long accountId, long afterSequence, LocalDateTime before);
+
+    /**
+     * Every entry of the user in the window in booking order: [effectiveAt, liability, amount]
+     */
+    @Query("SELECT e.effectiveAt, e.liability, e.amount FROM AccountBalanceEntry e " +
+           "WHERE e.user.id = :userId AND e.effectiveAt >= :from AND e.effectiveAt < :to ORDER BY e.effectiveAt, e.id")
+    List<Object[]> findChangesBetween(Long userId, LocalDateTime from, LocalDateTime to);
+}
@@ -1,7 +1,9 @@
 package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,6 +17,13 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     
     List<Account> findByUserId(Long userId);
 
+    /**
+     * Load the account locked for update, so its balance and journal sequence change one writer at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
     @Query("SELECT a FROM Account a WHERE a.user.id = :userId AND a.isActive = true ORDER BY a.isPrimary DESC, a.accountName ASC")
     List<Account> findActiveByUserId(@Param("userId") Long userId);
 
@@ -29,6 +38,12 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT COALESCE(SUM(a.currentBalance), 0) FROM Account a WHERE a.user.id = :userId AND a.accountType = :accountType AND a.isActive = true")
     Optional<BigDecimal> sumBalanceByUserIdAndAccountType(@Param("userId") Long userId, @Param("accountType") Account.AccountType accountType);
 
+    @Query("SELECT a.accountType, COALESCE(SUM(a.currentBalance), 0) FROM Account a WHERE a.user.id = :userId AND a.isActive = true GROUP BY a.accountType")
+    List<Object[]> sumActiveBalancesByType(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(a), MAX(a.updatedAt) FROM Account a WHERE a.user.id = :userId")
+    List<Object[]> findVersionStamp(@Param("userId") Long userId);
+
     Long countByUserId(Long userId);
 
     void deleteByUserId(Long userId);
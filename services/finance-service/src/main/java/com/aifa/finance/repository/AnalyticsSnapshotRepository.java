@@ -1,11 +1,14 @@
 package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.AnalyticsSnapshot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,5 +28,16 @@ public interface AnalyticsSnapshotRepository extends JpaRepository<AnalyticsSnap
     @Query("SELECT a FROM AnalyticsSnapshot a WHERE a.user.id = :userId ORDER BY a.snapshotDate DESC LIMIT 1")
     Optional<AnalyticsSnapshot> findLatestSnapshot(Long userId);
 
+    @Query("SELECT a.user.id, a.id FROM AnalyticsSnapshot a WHERE a.user.id IN :userIds AND a.snapshotDate = :snapshotDate")
+    List<Object[]> findIdsByUserIdsAndDate(Collection<Long> userIds, LocalDate snapshotDate);
+
+    @Query("SELECT a FROM AnalyticsSnapshot a WHERE a.user.id = :userId AND a.snapshotDate < :before ORDER BY a.snapshotDate ASC")
+    List<AnalyticsSnapshot> findByUserIdBefore(Long userId, LocalDate before);
+
+    @Query("SELECT DISTINCT a.user.id FROM AnalyticsSnapshot a WHERE a.snapshotDate < :before AND a.user.id > :afterUserId ORDER BY a.user.id")
+    List<Long> findUserIdsWithSnapshotsBefore(LocalDate before, Long afterUserId, Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM AnalyticsSnapshot a WHERE a.user.id = :userId AND a.snapshotDate < :cutoffDate")
     void deleteByUserIdAndSnapshotDateBefore(Long userId, LocalDate cutoffDate);
 }
@@ -0,0 +1,27 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.AnalyticsSnapshotRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalyticsSnapshotRollupRepository extends JpaRepository<AnalyticsSnapshotRollup, Long> {
+
+    @Query("SELECT r FROM AnalyticsSnapshotRollup r WHERE r.user.id = :userId AND r.snapshotDate BETWEEN :startDate AND :endDate ORDER BY r.snapshotDate ASC")
+    List<AnalyticsSnapshotRollup> findByUserIdAndDateRange(Long userId, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT r FROM AnalyticsSnapshotRollup r WHERE r.user.id = :userId AND r.resolution = :resolution AND r.snapshotDate < :before ORDER BY r.snapshotDate ASC")
+    List<AnalyticsSnapshotRollup> findByUserIdAndResolutionBefore(Long userId, AnalyticsSnapshotRollup.Resolution resolution, LocalDate before);
+
+    @Query("SELECT r FROM AnalyticsSnapshotRollup r WHERE r.user.id = :userId AND r.resolution = :resolution AND r.periodStart IN :periodStarts")
+    List<AnalyticsSnapshotRollup> findByUserIdAndResolutionAndPeriodStarts(Long userId, AnalyticsSnapshotRollup.Resolution resolution, Collection<LocalDate> periodStarts);
+
+    @Query("SELECT DISTINCT r.user.id FROM AnalyticsSnapshotRollup r WHERE r.resolution = :resolution AND r.snapshotDate < :before AND r.user.id > :afterUserId ORDER BY r.user.id")
+    List<Long> findUserIdsWithResolutionBefore(AnalyticsSnapshotRollup.Resolution resolution, LocalDate before, Long afterUserId, Pageable page);
+}
@@ -2,12 +2,24 @@ package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.BudgetAlert;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
     List<BudgetAlert> findByBudgetId(Long budgetId);
     List<BudgetAlert> findByBudgetIdOrderByTriggeredAtDesc(Long budgetId);
+
+    boolean existsByBudgetIdAndAlertTypeAndTriggeredAtAfter(Long budgetId, BudgetAlert.AlertType alertType,
+                                                            LocalDateTime after);
+
+    @Query("SELECT a FROM BudgetAlert a WHERE a.budget.id IN :budgetIds AND a.triggeredAt >= :since " +
+            "ORDER BY a.triggeredAt DESC")
+    List<BudgetAlert> findRecentByBudgetIds(@Param("budgetIds") Collection<Long> budgetIds,
+                                            @Param("since") LocalDateTime since);
 }
@@ -19,7 +19,28 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
     Optional<Budget> findByIdAndUserId(Long id, Long userId);
 
+    boolean existsByIdAndUserId(Long id, Long userId);
+
     @Query("SELECT b FROM Budget b WHERE b.user.id = :userId " +
             "AND b.startDate <= :date AND (b.endDate IS NULL OR b.endDate >= :date)")
     List<Budget> findActiveBudgetsByUserAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND LOWER(b.category) = LOWER(:category) " +
+            "AND b.startDate <= :date AND (b.endDate IS NULL OR b.endDate >= :date)")
+    List<Budget> findActiveBudgetsByUserAndCategory(@Param("userId") Long userId,
+                                                    @Param("category") String category,
+                                                    @Param("date") LocalDate date);
+
+    @Query("SELECT b FROM Budget b WHERE b.user.id = :userId " +
+            "AND b.startDate <= :end AND (b.endDate IS NULL OR b.endDate >= :start) ORDER BY b.category, b.name")
+    List<Budget> findOverlapping(@Param("userId") Long userId, @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT COUNT(b), MAX(b.updatedAt) FROM Budget b WHERE b.user.id = :userId")
+    List<Object[]> findVersionStamp(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(b.monthlyLimit), 0), COALESCE(SUM(b.spentAmount), 0), " +
+            "COALESCE(SUM(CASE WHEN b.spentAmount > b.monthlyLimit THEN 1 ELSE 0 END), 0) " +
+            "FROM Budget b WHERE b.user.id = :userId " +
+            "AND b.startDate <= :date AND (b.endDate IS NULL OR b.endDate >= :date)")
+    List<Object[]> summarizeActiveBudgets(@Param("userId") Long userId, @Param("date") LocalDate date);
 }
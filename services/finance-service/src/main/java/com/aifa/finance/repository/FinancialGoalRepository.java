@@ -34,4 +34,7 @@ public interface FinancialGoalRepository extends JpaRepository<FinancialGoal, Lo
 
     @Query("SELECT AVG(g.progressPercentage) FROM FinancialGoal g WHERE g.user.id = :userId AND g.status = 'IN_PROGRESS'")
     BigDecimal getAverageProgress(Long userId);
+
+    @Query("SELECT g.status, COUNT(g), COALESCE(SUM(g.currentAmount), 0), COALESCE(SUM(g.targetAmount), 0) FROM FinancialGoal g WHERE g.user.id = :userId GROUP BY g.status")
+    List<Object[]> summarizeByStatus(Long userId);
 }
@@ -2,11 +2,14 @@ package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.Investment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InvestmentRepository extends JpaRepository<Investment, Long> {
@@ -30,4 +33,29 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     Long countByUserId(Long userId);
 
     List<Investment> findByUserIdAndSymbol(Long userId, String symbol);
+
+    @Query("SELECT i.user.id FROM Investment i WHERE i.id = :id")
+    Optional<Long> findUserIdById(Long id);
+
+    /**
+     * Held symbols, sorted, with at least one holding never priced or last updated before the cutoff
+     */
+    @Query("SELECT i.symbol FROM Investment i GROUP BY i.symbol " +
+           "HAVING MIN(i.lastUpdated) < :cutoff OR COUNT(i.lastUpdated) < COUNT(i) ORDER BY i.symbol")
+    List<String> findSymbolsUpdatedBefore(LocalDateTime cutoff);
+
+    /**
+     * Revalue every holding of the given symbols at their paired prices in one statement, with the same rounding
+     * as {@link Investment#calculateMetrics()}. MERGE and UNNEST run unchanged on PostgreSQL and H2.
+     */
+    @Modifying
+    @Query(value = "MERGE INTO investments i " +
+                   "USING (SELECT * FROM UNNEST(:symbols, :prices) AS q(symbol, price)) p ON i.symbol = p.symbol " +
+                   "WHEN MATCHED THEN UPDATE SET current_price = p.price, " +
+                   "current_value = ROUND(p.price * i.quantity, 2), " +
+                   "gain_loss = ROUND(p.price * i.quantity - i.total_cost, 2), " +
+                   "gain_loss_percentage = CASE WHEN i.total_cost <> 0 " +
+                   "THEN ROUND((p.price * i.quantity - i.total_cost) / i.total_cost, 4) * 100 ELSE 0 END, " +
+                   "last_updated = :now, updated_at = :now", nativeQuery = true)
+    int revalueBySymbols(String[] symbols, BigDecimal[] prices, LocalDateTime now);
 }
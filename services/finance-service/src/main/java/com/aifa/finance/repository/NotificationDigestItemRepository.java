@@ -0,0 +1,25 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.NotificationDigestItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationDigestItemRepository extends JpaRepository<NotificationDigestItem, Long> {
+
+    @Query("SELECT DISTINCT i.user.id FROM NotificationDigestItem i WHERE i.user.id > :afterUserId ORDER BY i.user.id")
+    List<Long> findPendingUserIdsAfter(Long afterUserId, Pageable page);
+
+    @Query("SELECT i FROM NotificationDigestItem i WHERE i.user.id IN :userIds ORDER BY i.user.id, i.createdAt")
+    List<NotificationDigestItem> findByUserIds(Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM NotificationDigestItem i WHERE i.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
+}
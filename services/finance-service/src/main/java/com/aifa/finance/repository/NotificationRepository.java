@@ -1,11 +1,14 @@
 package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,5 +26,16 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     Long countUnreadByUserId(Long userId);
 
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsRead(Long userId, LocalDateTime readAt);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isSent = true, n.sentAt = :sentAt WHERE n.id IN :ids AND n.isSent = false")
+    int markSent(Collection<Long> ids, LocalDateTime sentAt);
+
+    @Query("SELECT n FROM Notification n WHERE n.isSent = false AND n.id > :afterId AND n.createdAt < :before ORDER BY n.id")
+    List<Notification> findUnsentAfter(Long afterId, LocalDateTime before, Pageable page);
+
     void deleteByUserIdAndCreatedAtBefore(Long userId, LocalDateTime cutoffDate);
 }
@@ -1,10 +1,14 @@
 package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.Portfolio;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -18,4 +22,77 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     Long countByUserId(Long userId);
 
     void deleteByUserIdAndId(Long userId, Long portfolioId);
+
+    @Query("SELECT DISTINCT p.user.id FROM Portfolio p WHERE p.user.id > :afterUserId ORDER BY p.user.id")
+    List<Long> findUserIdsAfter(Long afterUserId, Pageable page);
+
+    /**
+     * Lock, in id order, the portfolios of every user holding any of the symbols. Taken before reading investments,
+     * so a revaluation or reconciliation waiting here sees the holdings of the writer it waited for. Holding edits
+     * take their user's portfolios the same way through {@link #lockIdsForUser} before touching the investment row,
+     * so both always lock portfolios first and in the same order.
+     */
+    @Query(value = "SELECT id FROM portfolios WHERE user_id IN " +
+                   "(SELECT h.user_id FROM investments h WHERE h.symbol = ANY(:symbols)) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsForSymbols(String[] symbols);
+
+    @Query(value = "SELECT id FROM portfolios WHERE user_id = :userId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsForUser(Long userId);
+
+    @Query(value = "SELECT id FROM portfolios WHERE user_id = ANY(:userIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsForUsers(Long[] userIds);
+
+    /**
+     * Add each portfolio's change in value from revaluing the symbols' holdings at the paired prices.
+     * Must run before {@link InvestmentRepository#revalueBySymbols}, while the holdings still carry their old value.
+     */
+    @Modifying
+    @Query(value = "MERGE INTO portfolios p " +
+                   "USING (SELECT f.id, SUM(ROUND(q.price * i.quantity, 2) - COALESCE(i.current_value, 0)) AS delta " +
+                   "FROM UNNEST(:symbols, :prices) AS q(symbol, price) " +
+                   "JOIN investments i ON i.symbol = q.symbol " +
+                   "JOIN portfolios f ON f.user_id = i.user_id AND (f.account_id IS NULL OR f.account_id = i.account_id) " +
+                   "GROUP BY f.id) t ON p.id = t.id " +
+                   "WHEN MATCHED THEN UPDATE SET current_value = COALESCE(p.current_value, 0) + t.delta, " +
+                   "total_gain_loss = COALESCE(p.current_value, 0) + t.delta - COALESCE(p.total_invested, 0), " +
+                   "total_return_percentage = CASE WHEN COALESCE(p.total_invested, 0) <> 0 " +
+                   "THEN ROUND((COALESCE(p.current_value, 0) + t.delta - p.total_invested) / p.total_invested, 4) * 100 ELSE 0 END, " +
+                   "updated_at = :now", nativeQuery = true)
+    int applyRevaluationDeltas(String[] symbols, BigDecimal[] prices, LocalDateTime now);
+
+    /**
+     * Adjust every portfolio covering a holding by the change in its cost, value and count.
+     * A portfolio tied to an account covers that account's holdings; one without an account covers all of the user's.
+     */
+    @Modifying
+    @Query("UPDATE Portfolio p SET p.totalInvested = COALESCE(p.totalInvested, 0) + :investedDelta, " +
+           "p.currentValue = COALESCE(p.currentValue, 0) + :valueDelta, " +
+           "p.totalGainLoss = COALESCE(p.currentValue, 0) + :valueDelta - COALESCE(p.totalInvested, 0) - :investedDelta, " +
+           "p.totalReturnPercentage = CASE WHEN COALESCE(p.totalInvested, 0) + :investedDelta <> 0 " +
+           "THEN ROUND((COALESCE(p.currentValue, 0) + :valueDelta - COALESCE(p.totalInvested, 0) - :investedDelta) " +
+           "/ (COALESCE(p.totalInvested, 0) + :investedDelta), 4) * 100 ELSE 0 END, " +
+           "p.investmentCount = COALESCE(p.investmentCount, 0) + :countDelta, p.updatedAt = :now " +
+           "WHERE p.user.id = :userId AND (p.account IS NULL OR p.account.id = :accountId)")
+    int applyHoldingDelta(Long userId, Long accountId, BigDecimal investedDelta, BigDecimal valueDelta,
+                          int countDelta, LocalDateTime now);
+
+    /**
+     * Recompute the users' portfolio totals from their investments, writing only the portfolios that drifted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "MERGE INTO portfolios p " +
+                   "USING (SELECT f.id, COALESCE(SUM(i.total_cost), 0) AS invested, " +
+                   "COALESCE(SUM(i.current_value), 0) AS valued, COUNT(i.id) AS holdings " +
+                   "FROM portfolios f LEFT JOIN investments i ON i.user_id = f.user_id " +
+                   "AND (f.account_id IS NULL OR i.account_id = f.account_id) " +
+                   "WHERE f.user_id = ANY(:userIds) " +
+                   "GROUP BY f.id) t ON p.id = t.id " +
+                   "WHEN MATCHED AND (p.total_invested IS DISTINCT FROM t.invested OR p.current_value IS DISTINCT FROM t.valued " +
+                   "OR p.total_gain_loss IS DISTINCT FROM t.valued - t.invested OR p.investment_count IS DISTINCT FROM t.holdings) " +
+                   "THEN UPDATE SET total_invested = t.invested, current_value = t.valued, " +
+                   "total_gain_loss = t.valued - t.invested, " +
+                   "total_return_percentage = CASE WHEN t.invested <> 0 " +
+                   "THEN ROUND((t.valued - t.invested) / t.invested, 4) * 100 ELSE 0 END, " +
+                   "investment_count = t.holdings, updated_at = :now", nativeQuery = true)
+    int reconcileTotals(Long[] userIds, LocalDateTime now);
 }
@@ -1,12 +1,15 @@
 package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.Report;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
@@ -23,6 +26,55 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
 
     List<Report> findByUserIdAndIsScheduledTrue(Long userId);
 
+    /**
+     * Latest result for the same inputs; with a file format, only results that rendered that format qualify
+     */
+    @Query("SELECT r FROM Report r WHERE r.user.id = :userId AND r.reportType = :reportType AND r.startDate = :startDate " +
+           "AND r.endDate = :endDate AND r.dataVersion = :dataVersion AND r.status = :status " +
+           "AND (:fileFormat IS NULL OR (r.fileFormat = :fileFormat AND r.filePath IS NOT NULL)) " +
+           "ORDER BY r.completedAt DESC LIMIT 1")
+    Optional<Report> findCachedResult(Long userId, Report.ReportType reportType, LocalDateTime startDate,
+                                      LocalDateTime endDate, String dataVersion, Report.ReportStatus status,
+                                      String fileFormat);
+
+    boolean existsByFilePathAndIdNot(String filePath, Long id);
+
+    /**
+     * Due schedules locked for the caller's transaction; rows held by another instance are skipped, not waited on
+     */
+    @Query(value = "SELECT * FROM reports WHERE is_scheduled = TRUE AND next_generation <= :now " +
+                   "ORDER BY next_generation LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Report> lockDueSchedules(LocalDateTime now, int limit);
+
+    @Query("SELECT r FROM Report r WHERE r.isScheduled = true AND r.nextGeneration <= :now ORDER BY r.nextGeneration")
+    List<Report> findDueSchedules(LocalDateTime now, Pageable pageable);
+
+    /**
+     * Compare-and-set on next_generation: only the caller that sees 1 owns this run of the schedule
+     */
+    @Modifying
+    @Query("UPDATE Report r SET r.nextGeneration = :next WHERE r.id = :id AND r.nextGeneration = :expected")
+    int advanceNextGeneration(Long id, LocalDateTime expected, LocalDateTime next);
+
+    /**
+     * Claim a PENDING report for generation, stamping when the claim was taken; only the caller that sees 1 runs it
+     */
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :running, r.runningSince = :now WHERE r.id = :id AND r.status = :pending")
+    int claimForRun(Long id, LocalDateTime now, Report.ReportStatus pending, Report.ReportStatus running);
+
+    /**
+     * Return RUNNING reports claimed before the cutoff to PENDING, in one conditional transition, so they are
+     * generated again; rows claimed before claims were stamped count as expired
+     */
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :pending, r.runningSince = NULL " +
+           "WHERE r.status = :running AND (r.runningSince IS NULL OR r.runningSince < :before)")
+    int releaseExpiredRuns(LocalDateTime before, Report.ReportStatus running, Report.ReportStatus pending);
+
+    @Query("SELECT r.id FROM Report r WHERE r.status = :status AND r.generatedAt < :before ORDER BY r.generatedAt")
+    List<Long> findIdsByStatusBefore(Report.ReportStatus status, LocalDateTime before, Pageable pageable);
+
     @Query("SELECT COUNT(r) FROM Report r WHERE r.user.id = :userId")
     Long countByUserId(Long userId);
 
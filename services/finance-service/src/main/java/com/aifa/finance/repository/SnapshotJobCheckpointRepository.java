@@ -0,0 +1,37 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.SnapshotJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SnapshotJobCheckpointRepository extends JpaRepository<SnapshotJobCheckpoint, Long> {
+
+    List<SnapshotJobCheckpoint> findBySnapshotDateOrderByPartitionStart(LocalDate snapshotDate);
+
+    boolean existsBySnapshotDateAndStatusNot(LocalDate snapshotDate, SnapshotJobCheckpoint.Status status);
+
+    /**
+     * Lease an unfinished partition to a run, in one conditional transition, unless another run holds an
+     * unexpired lease on it; returns 1 when the run got it
+     */
+    @Modifying
+    @Query("UPDATE SnapshotJobCheckpoint c SET c.status = :inProgress, c.leaseOwner = :owner, c.leaseUntil = :until, c.updatedAt = :now " +
+           "WHERE c.id = :id AND c.status <> :completed AND (c.leaseUntil IS NULL OR c.leaseUntil < :now)")
+    int claim(Long id, String owner, LocalDateTime now, LocalDateTime until,
+              SnapshotJobCheckpoint.Status inProgress, SnapshotJobCheckpoint.Status completed);
+
+    /**
+     * Move the lease expiry, null to release it, if the run still holds the lease; 0 means another run took the
+     * partition over after the lease expired
+     */
+    @Modifying
+    @Query("UPDATE SnapshotJobCheckpoint c SET c.leaseUntil = :until WHERE c.id = :id AND c.leaseOwner = :owner")
+    int renewLease(Long id, String owner, LocalDateTime until);
+}
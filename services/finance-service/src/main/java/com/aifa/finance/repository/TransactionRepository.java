@@ -2,13 +2,111 @@ package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.Transaction;
 import com.aifa.finance.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     List<Transaction> findByUserOrderByTransactionDateDesc(User user);
     List<Transaction> findByUserAndTransactionDateBetween(User user, LocalDate start, LocalDate end);
     List<Transaction> findByUserAndCategory(User user, String category);
+
+    @Query("SELECT t.transactionDate, SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId " +
+            "AND LOWER(t.category) = :category AND UPPER(t.type) = 'EXPENSE' AND t.transactionDate >= :since " +
+            "GROUP BY t.transactionDate")
+    List<Object[]> sumExpensesByDaySince(@Param("userId") Long userId,
+                                         @Param("category") String category,
+                                         @Param("since") LocalDate since);
+
+    /**
+     * Cash-flow history for forecasting, oldest first: [date, type, amount, merchant or description]
+     */
+    @Query("SELECT t.transactionDate, UPPER(t.type), t.amount, COALESCE(t.merchant, t.description) FROM Transaction t " +
+            "WHERE t.user.id = :userId AND t.transactionDate BETWEEN :since AND :until ORDER BY t.transactionDate, t.id")
+    List<Object[]> findCashFlowHistory(@Param("userId") Long userId,
+                                       @Param("since") LocalDate since,
+                                       @Param("until") LocalDate until);
+
+    @Query("SELECT COUNT(t), MAX(t.updatedAt) FROM Transaction t WHERE t.user.id = :userId")
+    List<Object[]> findVersionStamp(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(t), COALESCE(SUM(t.amount), 0.0), COALESCE(AVG(t.amount), 0.0), COALESCE(MAX(t.amount), 0.0) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND UPPER(t.type) = :type AND t.transactionDate BETWEEN :start AND :end")
+    List<Object[]> summarizeByTypeBetween(@Param("userId") Long userId,
+                                          @Param("type") String type,
+                                          @Param("start") LocalDate start,
+                                          @Param("end") LocalDate end);
+
+    /**
+     * Row projection rather than entities, so streaming a large range does not grow the persistence context
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.transactionDate, t.description, t.merchant, t.category, t.amount FROM Transaction t " +
+            "WHERE t.user.id = :userId AND UPPER(t.type) = :type AND t.transactionDate BETWEEN :start AND :end " +
+            "ORDER BY t.transactionDate, t.id")
+    Stream<Object[]> streamByTypeBetween(@Param("userId") Long userId,
+                                         @Param("type") String type,
+                                         @Param("start") LocalDate start,
+                                         @Param("end") LocalDate end);
+
+    @Query("SELECT COALESCE(t.category, 'Uncategorized'), SUM(t.amount), COUNT(t) FROM Transaction t " +
+            "WHERE t.user.id = :userId AND UPPER(t.type) = :type AND t.transactionDate BETWEEN :start AND :end " +
+            "GROUP BY COALESCE(t.category, 'Uncategorized') ORDER BY SUM(t.amount) DESC")
+    List<Object[]> sumByCategoryBetween(@Param("userId") Long userId,
+                                        @Param("type") String type,
+                                        @Param("start") LocalDate start,
+                                        @Param("end") LocalDate end);
+
+    @Query("SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), " +
+            "COALESCE(SUM(CASE WHEN UPPER(t.type) = 'INCOME' THEN t.amount ELSE 0.0 END), 0.0), " +
+            "COALESCE(SUM(CASE WHEN UPPER(t.type) = 'EXPENSE' THEN t.amount ELSE 0.0 END), 0.0) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.transactionDate BETWEEN :start AND :end " +
+            "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate) " +
+            "ORDER BY YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<Object[]> sumByMonthBetween(@Param("userId") Long userId,
+                                     @Param("start") LocalDate start,
+                                     @Param("end") LocalDate end);
+
+    @Query("SELECT t.transactionDate, " +
+            "COALESCE(SUM(CASE WHEN UPPER(t.type) = 'INCOME' THEN t.amount ELSE 0.0 END), 0.0), " +
+            "COALESCE(SUM(CASE WHEN UPPER(t.type) = 'EXPENSE' THEN t.amount ELSE 0.0 END), 0.0) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.transactionDate BETWEEN :start AND :end " +
+            "GROUP BY t.transactionDate ORDER BY t.transactionDate")
+    List<Object[]> sumByDayBetween(@Param("userId") Long userId,
+                                   @Param("start") LocalDate start,
+                                   @Param("end") LocalDate end);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN UPPER(t.type) = 'INCOME' THEN t.amount ELSE 0.0 END), 0.0), " +
+            "COALESCE(SUM(CASE WHEN UPPER(t.type) = 'EXPENSE' THEN t.amount ELSE 0.0 END), 0.0), " +
+            "COUNT(t), COALESCE(AVG(t.amount), 0.0) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.transactionDate BETWEEN :start AND :end")
+    List<Object[]> summarizeBetween(@Param("userId") Long userId,
+                                    @Param("start") LocalDate start,
+                                    @Param("end") LocalDate end);
+
+    @Query("SELECT t.category, SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId " +
+            "AND UPPER(t.type) = 'EXPENSE' AND t.category IS NOT NULL AND t.transactionDate BETWEEN :start AND :end " +
+            "GROUP BY t.category ORDER BY SUM(t.amount) DESC LIMIT 1")
+    List<Object[]> findTopExpenseCategory(@Param("userId") Long userId,
+                                          @Param("start") LocalDate start,
+                                          @Param("end") LocalDate end);
+
+    @Query("SELECT COALESCE(t.category, 'Uncategorized'), YEAR(t.transactionDate), MONTH(t.transactionDate), SUM(t.amount) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND UPPER(t.type) = 'EXPENSE' " +
+            "GROUP BY COALESCE(t.category, 'Uncategorized'), YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<Object[]> sumExpensesByCategoryAndMonth(@Param("userId") Long userId);
+
+    @Query("SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), " +
+            "COALESCE(SUM(CASE WHEN UPPER(t.type) = 'INCOME' THEN t.amount ELSE 0.0 END), 0.0), " +
+            "COALESCE(SUM(CASE WHEN UPPER(t.type) = 'EXPENSE' THEN t.amount ELSE 0.0 END), 0.0) " +
+            "FROM Transaction t WHERE t.user.id = :userId " +
+            "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<Object[]> sumByMonth(@Param("userId") Long userId);
 }
@@ -0,0 +1,20 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.UserInsight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserInsightRepository extends JpaRepository<UserInsight, Long> {
+
+    @Query("SELECT i FROM UserInsight i WHERE i.user.id = :userId ORDER BY i.position")
+    List<UserInsight> findByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserInsight i WHERE i.user.id = :userId")
+    int deleteByUserId(Long userId);
+}
@@ -2,11 +2,17 @@ package com.aifa.finance.repository;
 
 import com.aifa.finance.model.UserPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserPreferencesRepository extends JpaRepository<UserPreferences, Long> {
     Optional<UserPreferences> findByUserId(Long userId);
+
+    @Query("SELECT p FROM UserPreferences p JOIN FETCH p.user WHERE p.user.id IN :userIds")
+    List<UserPreferences> findByUserIds(Collection<Long> userIds);
 }
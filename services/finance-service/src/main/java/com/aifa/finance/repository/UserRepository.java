@@ -1,11 +1,20 @@
 package com.aifa.finance.repository;
 
 import com.aifa.finance.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByKeycloakId(String keycloakId);
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT MIN(u.id), MAX(u.id) FROM User u")
+    List<Object[]> findIdRange();
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.id <= :maxId ORDER BY u.id")
+    List<Long> findIdsInRange(Long afterId, Long maxId, Pageable page);
 }
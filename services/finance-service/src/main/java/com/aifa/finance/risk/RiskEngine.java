@@ -0,0 +1,138 @@
+package com.aifa.finance.risk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Financial risk score from a user's balances, income, spending history and goals.
+ * Each factor is scored from 0 (no risk) to 1 and the overall score is their weighted sum; factors at or above
+ * the flag threshold are reported with mitigation strategies. Pure arithmetic over a few aggregates.
+ */
+public final class RiskEngine {
+
+    public static final double FLAG_THRESHOLD = 0.6;
+    // Score for a factor the data cannot speak to: neither flagged nor reassuring
+    private static final double UNKNOWN = 0.5;
+    private static final double EMERGENCY_FUND_MONTHS = 6;
+
+    /**
+     * @param monthlyIncomes  income per month over recent complete months, oldest first
+     * @param monthlyExpenses expenses per month over the same months
+     */
+    public record Inputs(double liquidBalance, double debtBalance, double scheduledMonthlyIncome,
+                         double[] monthlyIncomes, double[] monthlyExpenses,
+                         double goalRequiredMonthly, double goalPlannedMonthly) {}
+
+    public record Factor(String name, double score, double weight, String detail) {}
+
+    public record Result(double overallScore, List<Factor> factors, List<String> riskFactors,
+                         List<String> mitigationStrategies, double confidence) {}
+
+    private RiskEngine() {
+    }
+
+    public static Result assess(Inputs inputs) {
+        int months = inputs.monthlyExpenses().length;
+        double averageExpenses = mean(inputs.monthlyExpenses());
+        double averageIncome = mean(inputs.monthlyIncomes());
+        // Scheduled income sources are the steadier signal; observed income fills in when none are set up
+        double monthlyIncome = inputs.scheduledMonthlyIncome() > 0 ? inputs.scheduledMonthlyIncome() : averageIncome;
+
+        List<Factor> factors = new ArrayList<>(6);
+
+        if (averageExpenses > 0) {
+            double coverageMonths = inputs.liquidBalance() / averageExpenses;
+            factors.add(new Factor("liquidity", clamp(1 - coverageMonths / EMERGENCY_FUND_MONTHS), 0.25,
+                String.format("Liquid balances cover %.1f month(s) of expenses", coverageMonths)));
+        } else {
+            factors.add(new Factor("liquidity", UNKNOWN, 0.25, "No spending history to size an emergency fund against"));
+        }
+
+        double debtToIncome = monthlyIncome > 0 ? inputs.debtBalance() / (monthlyIncome * 12) : (inputs.debtBalance() > 0 ? 1 : 0);
+        factors.add(new Factor("debt", clamp(debtToIncome), 0.20,
+            String.format("Debt is %.0f%% of annual income", debtToIncome * 100)));
+
+        if (monthlyIncome > 0) {
+            double expenseRatio = averageExpenses / monthlyIncome;
+            factors.add(new Factor("cash_flow", clamp((expenseRatio - 0.5) / 0.5), 0.20,
+                String.format("Spending is %.0f%% of monthly income", expenseRatio * 100)));
+        } else {
+            factors.add(new Factor("cash_flow", averageExpenses > 0 ? 1 : UNKNOWN, 0.20, "No income recorded"));
+        }
+
+        if (monthlyIncome > 0) {
+            double incomeVariation = coefficientOfVariation(inputs.monthlyIncomes());
+            factors.add(new Factor("income_stability", clamp(incomeVariation), 0.15,
+                String.format("Monthly income varies by %.0f%%", incomeVariation * 100)));
+        } else {
+            factors.add(new Factor("income_stability", 0.8, 0.15, "No regular income recorded"));
+        }
+
+        double expenseVariation = coefficientOfVariation(inputs.monthlyExpenses());
+        factors.add(new Factor("expense_volatility", clamp(expenseVariation / 0.5), 0.10,
+            String.format("Monthly spending varies by %.0f%%", expenseVariation * 100)));
+
+        double fundingGap = inputs.goalRequiredMonthly() > 0
+            ? Math.max(0, inputs.goalRequiredMonthly() - inputs.goalPlannedMonthly()) / inputs.goalRequiredMonthly()
+            : 0;
+        factors.add(new Factor("goal_funding", clamp(fundingGap), 0.10, inputs.goalRequiredMonthly() > 0
+            ? String.format("Planned contributions cover %.0f%% of the $%.2f a month goals need", (1 - fundingGap) * 100, inputs.goalRequiredMonthly())
+            : "No open goals with a target date"));
+
+        double overall = 0;
+        List<String> riskFactors = new ArrayList<>();
+        List<String> strategies = new ArrayList<>();
+        for (Factor factor : factors) {
+            overall += factor.score() * factor.weight();
+            if (factor.score() >= FLAG_THRESHOLD) {
+                riskFactors.add(factor.detail());
+                strategies.addAll(strategies(factor.name()));
+            }
+        }
+
+        // More history and real balances and income make the ratios more trustworthy
+        double confidence = 0.4 + 0.3 * Math.min(1.0, months / 12.0)
+            + (inputs.liquidBalance() != 0 || inputs.debtBalance() != 0 ? 0.15 : 0)
+            + (monthlyIncome > 0 ? 0.15 : 0);
+        return new Result(overall, factors, riskFactors, strategies, confidence);
+    }
+
+    private static List<String> strategies(String factor) {
+        return switch (factor) {
+            case "liquidity" -> List.of("Build 3-6 months of expenses in an emergency fund", "Automate monthly transfers to savings");
+            case "debt" -> List.of("Pay down the highest-interest debt first", "Avoid taking on new debt until the ratio improves");
+            case "cash_flow" -> List.of("Create category budgets for the largest expenses", "Review recurring subscriptions and bills");
+            case "income_stability" -> List.of("Keep a larger cash buffer while income is irregular", "Develop an additional income stream");
+            case "expense_volatility" -> List.of("Set aside a monthly amount for irregular expenses");
+            case "goal_funding" -> List.of("Raise goal contributions or move target dates out");
+            default -> List.of();
+        };
+    }
+
+    private static double mean(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double coefficientOfVariation(double[] values) {
+        double mean = mean(values);
+        if (values.length < 2 || mean <= 0) {
+            return 0;
+        }
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(squares / values.length) / mean;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+}
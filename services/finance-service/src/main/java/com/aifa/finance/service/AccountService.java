@@ -3,16 +3,22 @@ package com.aifa.finance.service;
 import com.aifa.finance.domain.Account;
 import com.aifa.finance.domain.User;
 import com.aifa.finance.dto.AccountRequest;
+import com.aifa.finance.dto.AccountBalanceResponse;
 import com.aifa.finance.dto.AccountResponse;
+import com.aifa.finance.dto.NetWorthPointResponse;
+import com.aifa.finance.event.UserDataChangedEvent;
 import com.aifa.finance.exception.ResourceNotFoundException;
 import com.aifa.finance.repository.AccountRepository;
 import com.aifa.finance.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -22,6 +28,8 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final BalanceJournalService balanceJournalService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AccountResponse createAccount(Long userId, AccountRequest request) {
@@ -51,6 +59,8 @@ public class AccountService {
             .build();
 
         Account saved = accountRepository.save(account);
+        balanceJournalService.recordOpened(saved);
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId));
         return toResponse(saved);
     }
 
@@ -92,7 +102,7 @@ public class AccountService {
 
     @Transactional
     public AccountResponse updateAccount(Long accountId, AccountRequest request) {
-        Account account = accountRepository.findById(accountId)
+        Account account = accountRepository.findByIdForUpdate(accountId)
             .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
 
         if (request.isPrimary() && !account.getIsPrimary()) {
@@ -104,6 +114,8 @@ public class AccountService {
             });
         }
 
+        BigDecimal previousBalance = account.getCurrentBalance();
+        Account.AccountType previousType = account.getAccountType();
         account.setAccountName(request.accountName());
         account.setInstitutionName(request.institutionName());
         account.setAccountType(Account.AccountType.valueOf(request.accountType()));
@@ -112,16 +124,29 @@ public class AccountService {
         account.setCurrency(request.currency());
         account.setAccountColor(request.accountColor());
         account.setIsPrimary(request.isPrimary());
+        balanceJournalService.recordChanged(account, previousBalance, previousType);
+        eventPublisher.publishEvent(new UserDataChangedEvent(account.getUser().getId()));
 
         return toResponse(accountRepository.save(account));
     }
 
     @Transactional
     public void deleteAccount(Long accountId) {
-        if (!accountRepository.existsById(accountId)) {
-            throw new ResourceNotFoundException("Account not found");
-        }
-        accountRepository.deleteById(accountId);
+        Account account = accountRepository.findByIdForUpdate(accountId)
+            .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        balanceJournalService.recordClosed(account);
+        accountRepository.delete(account);
+        eventPublisher.publishEvent(new UserDataChangedEvent(account.getUser().getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public AccountBalanceResponse getBalanceAt(Long accountId, LocalDateTime at) {
+        return new AccountBalanceResponse(accountId, at, balanceJournalService.balanceAt(accountId, at));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NetWorthPointResponse> getNetWorthHistory(Long userId, LocalDate startDate, LocalDate endDate) {
+        return balanceJournalService.netWorthSeries(userId, startDate, endDate);
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,170 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.AnalyticsSnapshot;
+import com.aifa.finance.domain.AnalyticsSnapshotRollup;
+import com.aifa.finance.repository.AnalyticsSnapshotRepository;
+import com.aifa.finance.repository.AnalyticsSnapshotRollupRepository;
+import com.aifa.finance.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Compacts analytics history.
+ * Daily snapshots older than the daily retention are folded into one WEEKLY rollup per full week and purged;
+ * weekly rollups older than the weekly retention are folded into one MONTHLY rollup per full month.
+ * A rollup keeps the last sample of its period, since every snapshot metric is a point-in-time value.
+ */
+@Service
+@Slf4j
+public class AnalyticsRollupService {
+
+    private final AnalyticsSnapshotRepository snapshotRepository;
+    private final AnalyticsSnapshotRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.rollup.daily-retention-days:90}")
+    private int dailyRetentionDays;
+
+    @Value("${analytics.rollup.weekly-retention-days:730}")
+    private int weeklyRetentionDays;
+
+    @Value("${analytics.rollup.partition-size:500}")
+    private int partitionSize;
+
+    public AnalyticsRollupService(AnalyticsSnapshotRepository snapshotRepository,
+                                  AnalyticsSnapshotRollupRepository rollupRepository,
+                                  UserRepository userRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.snapshotRepository = snapshotRepository;
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${analytics.rollup.cron:0 0 4 * * *}")
+    public void compact() {
+        LocalDate today = LocalDate.now();
+        // Cut-offs fall on period boundaries so only complete weeks and months are compacted
+        LocalDate weeklyCutoff = today.minusDays(dailyRetentionDays).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate monthlyCutoff = today.minusDays(weeklyRetentionDays).withDayOfMonth(1);
+
+        int weekly = forEachUser(after -> snapshotRepository.findUserIdsWithSnapshotsBefore(
+            weeklyCutoff, after, PageRequest.of(0, partitionSize)), userId -> compactDailies(userId, weeklyCutoff));
+        int monthly = forEachUser(after -> rollupRepository.findUserIdsWithResolutionBefore(
+            AnalyticsSnapshotRollup.Resolution.WEEKLY, monthlyCutoff, after, PageRequest.of(0, partitionSize)),
+            userId -> compactWeeklies(userId, monthlyCutoff));
+
+        if (weekly + monthly > 0) {
+            log.info("Analytics compaction: {} user(s) rolled up to weekly, {} to monthly", weekly, monthly);
+        }
+    }
+
+    /**
+     * Walk user ids in keyset pages and compact each user in its own transaction
+     */
+    private int forEachUser(LongFunction<List<Long>> page, LongConsumer compactor) {
+        long afterUserId = 0;
+        int compacted = 0;
+        List<Long> userIds;
+        while (!(userIds = page.apply(afterUserId)).isEmpty()) {
+            for (Long userId : userIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> compactor.accept(userId));
+                    compacted++;
+                } catch (RuntimeException e) {
+                    log.warn("Analytics compaction for user {} failed: {}", userId, e.getMessage());
+                }
+            }
+            afterUserId = userIds.get(userIds.size() - 1);
+        }
+        return compacted;
+    }
+
+    private void compactDailies(long userId, LocalDate cutoff) {
+        Map<LocalDate, AnalyticsSnapshot> lastOfWeek = new TreeMap<>();
+        for (AnalyticsSnapshot snapshot : snapshotRepository.findByUserIdBefore(userId, cutoff)) {
+            lastOfWeek.merge(weekStart(snapshot.getSnapshotDate()), snapshot, AnalyticsRollupService::later);
+        }
+        if (lastOfWeek.isEmpty()) {
+            return;
+        }
+
+        Map<LocalDate, AnalyticsSnapshotRollup> existing = rollupRepository
+            .findByUserIdAndResolutionAndPeriodStarts(userId, AnalyticsSnapshotRollup.Resolution.WEEKLY, lastOfWeek.keySet())
+            .stream()
+            .collect(Collectors.toMap(AnalyticsSnapshotRollup::getPeriodStart, Function.identity()));
+
+        List<AnalyticsSnapshotRollup> rollups = new ArrayList<>(lastOfWeek.size());
+        lastOfWeek.forEach((weekStart, snapshot) -> {
+            AnalyticsSnapshotRollup rollup = existing.get(weekStart);
+            if (rollup == null) {
+                rollup = AnalyticsSnapshotRollup.builder()
+                    .user(userRepository.getReferenceById(userId))
+                    .resolution(AnalyticsSnapshotRollup.Resolution.WEEKLY)
+                    .periodStart(weekStart)
+                    .build();
+            } else if (rollup.getSnapshotDate().isAfter(snapshot.getSnapshotDate())) {
+                return;
+            }
+            rollup.copyMetricsFrom(snapshot);
+            rollups.add(rollup);
+        });
+        rollupRepository.saveAll(rollups);
+        snapshotRepository.deleteByUserIdAndSnapshotDateBefore(userId, cutoff);
+    }
+
+    private void compactWeeklies(long userId, LocalDate cutoff) {
+        Map<LocalDate, List<AnalyticsSnapshotRollup>> byMonth = rollupRepository
+            .findByUserIdAndResolutionBefore(userId, AnalyticsSnapshotRollup.Resolution.WEEKLY, cutoff)
+            .stream()
+            .collect(Collectors.groupingBy(rollup -> rollup.getSnapshotDate().withDayOfMonth(1), TreeMap::new, Collectors.toList()));
+        if (byMonth.isEmpty()) {
+            return;
+        }
+        rollupRepository.findByUserIdAndResolutionAndPeriodStarts(userId, AnalyticsSnapshotRollup.Resolution.MONTHLY, byMonth.keySet())
+            .forEach(monthly -> byMonth.get(monthly.getPeriodStart()).add(monthly));
+
+        // The latest sample of the month is relabelled in place; every other candidate is dropped
+        Map<LocalDate, AnalyticsSnapshotRollup> latestByMonth = new TreeMap<>();
+        List<AnalyticsSnapshotRollup> obsolete = new ArrayList<>();
+        byMonth.forEach((monthStart, candidates) -> {
+            AnalyticsSnapshotRollup latest = candidates.stream()
+                .max(Comparator.comparing(AnalyticsSnapshotRollup::getSnapshotDate))
+                .orElseThrow();
+            latestByMonth.put(monthStart, latest);
+            candidates.stream().filter(candidate -> candidate != latest).forEach(obsolete::add);
+        });
+        // Delete before relabelling so the update never collides with the MONTHLY row it replaces
+        rollupRepository.deleteAllInBatch(obsolete);
+        latestByMonth.forEach((monthStart, latest) -> {
+            latest.setResolution(AnalyticsSnapshotRollup.Resolution.MONTHLY);
+            latest.setPeriodStart(monthStart);
+        });
+    }
+
+    static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static AnalyticsSnapshot later(AnalyticsSnapshot a, AnalyticsSnapshot b) {
+        return a.getSnapshotDate().isAfter(b.getSnapshotDate()) ? a : b;
+    }
+}
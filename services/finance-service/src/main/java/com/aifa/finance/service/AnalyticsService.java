@@ -1,17 +1,24 @@
 package com.aifa.finance.service;
 
 import com.aifa.finance.domain.AnalyticsSnapshot;
+import com.aifa.finance.domain.AnalyticsSnapshotRollup;
 import com.aifa.finance.domain.User;
 import com.aifa.finance.dto.AnalyticsSnapshotResponse;
 import com.aifa.finance.exception.ResourceNotFoundException;
 import com.aifa.finance.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,47 +27,79 @@ public class AnalyticsService {
 
     private final AnalyticsSnapshotRepository analyticsSnapshotRepository;
     private final UserRepository userRepository;
+    private final AnalyticsSnapshotRollupRepository rollupRepository;
+    private final SnapshotAggregator snapshotAggregator;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    @Value("${analytics.history.default-max-points:400}")
+    private int defaultMaxPoints;
+
+    /**
+     * Compute today's snapshot and upsert it. The aggregates run before the write transaction opens,
+     * so no connection is held while they execute.
+     */
     public AnalyticsSnapshotResponse generateDailySnapshot(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        LocalDate today = LocalDate.now();
-
-        // Create simple snapshot with placeholder data
-        AnalyticsSnapshot snapshot = analyticsSnapshotRepository
-            .findByUserIdAndSnapshotDate(userId, today)
-            .orElse(AnalyticsSnapshot.builder()
-                .user(user)
-                .snapshotDate(today)
-                .totalExpenses(BigDecimal.ZERO)
-                .totalIncome(BigDecimal.ZERO)
-                .netSavings(BigDecimal.ZERO)
-                .savingsRate(BigDecimal.ZERO)
-                .totalAssets(BigDecimal.ZERO)
-                .totalLiabilities(BigDecimal.ZERO)
-                .netWorth(BigDecimal.ZERO)
-                .liquidAssets(BigDecimal.ZERO)
-                .budgetUtilization(BigDecimal.ZERO)
-                .overBudgetCount(0)
-                .transactionCount(0)
-                .averageTransaction(BigDecimal.ZERO)
-                .activeGoalsCount(0)
-                .completedGoalsCount(0)
-                .totalGoalProgress(BigDecimal.ZERO)
-                .build());
-
-        snapshot = analyticsSnapshotRepository.save(snapshot);
-        return toResponse(snapshot);
+        AnalyticsSnapshot snapshot = computeSnapshot(user, LocalDate.now());
+        return transactionTemplate.execute(status -> toResponse(saveSnapshot(snapshot)));
+    }
+
+    public AnalyticsSnapshot computeSnapshot(User user, LocalDate date) {
+        AnalyticsSnapshot snapshot = AnalyticsSnapshot.builder()
+            .user(user)
+            .snapshotDate(date)
+            .build();
+        snapshotAggregator.populate(snapshot, user.getId(), date);
+        return snapshot;
+    }
+
+    /**
+     * Insert the snapshot, or overwrite the one already stored for that user and date
+     */
+    @Transactional
+    public AnalyticsSnapshot saveSnapshot(AnalyticsSnapshot snapshot) {
+        analyticsSnapshotRepository.findByUserIdAndSnapshotDate(snapshot.getUser().getId(), snapshot.getSnapshotDate())
+            .ifPresent(existing -> snapshot.setId(existing.getId()));
+        return analyticsSnapshotRepository.save(snapshot);
     }
 
+    /**
+     * History at the finest resolution that fits in maxPoints. The resolution is chosen from the range first and
+     * only its table is read, except where that table has no rows yet: a daily history reaching past the daily
+     * retention is completed from the rollups before the first daily, and a weekly or monthly history is completed
+     * from the dailies not yet compacted after the last rollup. Either remainder is bounded by the retention.
+     */
     @Transactional(readOnly = true)
-    public List<AnalyticsSnapshotResponse> getSnapshotHistory(Long userId, LocalDate startDate, LocalDate endDate) {
-        return analyticsSnapshotRepository.findByUserIdAndDateRange(userId, startDate, endDate)
-            .stream()
-            .map(this::toResponse)
-            .collect(Collectors.toList());
+    public List<AnalyticsSnapshotResponse> getSnapshotHistory(Long userId, LocalDate startDate, LocalDate endDate, Integer maxPoints) {
+        HistoryResolution resolution = HistoryResolution.choose(startDate, endDate,
+            maxPoints != null && maxPoints > 0 ? maxPoints : defaultMaxPoints);
+
+        // Keep the latest sample per bucket, whichever table it came from
+        TreeMap<LocalDate, AnalyticsSnapshotResponse> points = new TreeMap<>();
+        BinaryOperator<AnalyticsSnapshotResponse> latest = (a, b) -> a.snapshotDate().isAfter(b.snapshotDate()) ? a : b;
+        Consumer<AnalyticsSnapshotResponse> add = point -> points.merge(resolution.bucket(point.snapshotDate()), point, latest);
+        if (resolution == HistoryResolution.DAILY) {
+            List<AnalyticsSnapshot> dailies = analyticsSnapshotRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+            LocalDate firstDaily = dailies.isEmpty() ? endDate.plusDays(1) : dailies.get(0).getSnapshotDate();
+            if (firstDaily.isAfter(startDate)) {
+                rollupRepository.findByUserIdAndDateRange(userId, startDate, firstDaily.minusDays(1)).stream()
+                    .map(this::toResponse)
+                    .forEach(add);
+            }
+            dailies.stream().map(this::toResponse).forEach(add);
+        } else {
+            List<AnalyticsSnapshotRollup> rollups = rollupRepository.findByUserIdAndDateRange(userId, startDate, endDate);
+            LocalDate lastRollup = rollups.isEmpty() ? startDate.minusDays(1) : rollups.get(rollups.size() - 1).getSnapshotDate();
+            rollups.stream().map(this::toResponse).forEach(add);
+            if (lastRollup.isBefore(endDate)) {
+                analyticsSnapshotRepository.findByUserIdAndDateRange(userId, lastRollup.plusDays(1), endDate).stream()
+                    .map(this::toResponse)
+                    .forEach(add);
+            }
+        }
+        return new ArrayList<>(points.values());
     }
 
     @Transactional(readOnly = true)
@@ -98,7 +137,56 @@ public class AnalyticsService {
             snapshot.getAverageTransaction(),
             snapshot.getActiveGoalsCount(),
             snapshot.getCompletedGoalsCount(),
-            snapshot.getTotalGoalProgress()
+            snapshot.getTotalGoalProgress(),
+            "DAILY"
+        );
+    }
+
+    private AnalyticsSnapshotResponse toResponse(AnalyticsSnapshotRollup rollup) {
+        return new AnalyticsSnapshotResponse(
+            rollup.getId(),
+            rollup.getSnapshotDate(),
+            rollup.getTotalExpenses(),
+            rollup.getTotalIncome(),
+            rollup.getNetSavings(),
+            rollup.getSavingsRate(),
+            rollup.getTotalAssets(),
+            rollup.getTotalLiabilities(),
+            rollup.getNetWorth(),
+            rollup.getLiquidAssets(),
+            rollup.getBudgetUtilization(),
+            rollup.getOverBudgetCount(),
+            rollup.getTopCategory(),
+            rollup.getTopCategoryAmount(),
+            rollup.getTransactionCount(),
+            rollup.getAverageTransaction(),
+            rollup.getActiveGoalsCount(),
+            rollup.getCompletedGoalsCount(),
+            rollup.getTotalGoalProgress(),
+            rollup.getResolution().name()
         );
     }
+
+    private enum HistoryResolution {
+        DAILY,
+        WEEKLY,
+        MONTHLY;
+
+        static HistoryResolution choose(LocalDate start, LocalDate end, int maxPoints) {
+            long days = ChronoUnit.DAYS.between(start, end) + 1;
+            if (days <= maxPoints) {
+                return DAILY;
+            }
+            long weeks = ChronoUnit.WEEKS.between(AnalyticsRollupService.weekStart(start), AnalyticsRollupService.weekStart(end)) + 1;
+            return weeks <= maxPoints ? WEEKLY : MONTHLY;
+        }
+
+        LocalDate bucket(LocalDate date) {
+            return switch (this) {
+                case DAILY -> date;
+                case WEEKLY -> AnalyticsRollupService.weekStart(date);
+                case MONTHLY -> date.withDayOfMonth(1);
+            };
+        }
+    }
 }
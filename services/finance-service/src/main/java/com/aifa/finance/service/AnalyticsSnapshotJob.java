@@ -0,0 +1,306 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.AnalyticsSnapshot;
+import com.aifa.finance.domain.SnapshotJobCheckpoint;
+import com.aifa.finance.repository.AnalyticsSnapshotRepository;
+import com.aifa.finance.repository.SnapshotJobCheckpointRepository;
+import com.aifa.finance.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly analytics snapshot for every user.
+ * The user id space is split into fixed-width partitions recorded in snapshot_job_checkpoints; a bounded pool
+ * of workers claims partitions and commits one chunk of snapshots at a time together with its checkpoint.
+ * A run that is interrupted or overruns its window resumes from the checkpoints on the next start.
+ * Workers lease a partition through a conditional update of its checkpoint row before processing it, and each
+ * chunk commit renews the lease only while the run still holds it, so runs on several instances, or an overlapping
+ * nightly and resumed run, split the partitions between them instead of processing any twice. A partition whose
+ * run stopped without releasing it is taken over once its lease expires.
+ * There is one worker per query permit of {@link SnapshotAggregator}, and every read and write of the job goes
+ * through those permits, so the job never holds more connections than the pool spares for it.
+ */
+@Service
+@Slf4j
+public class AnalyticsSnapshotJob {
+
+    private final UserRepository userRepository;
+    private final AnalyticsSnapshotRepository analyticsSnapshotRepository;
+    private final SnapshotJobCheckpointRepository checkpointRepository;
+    private final AnalyticsService analyticsService;
+    private final SnapshotAggregator snapshotAggregator;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter succeeded;
+    private final Counter failed;
+
+    @Value("${analytics.snapshot.job.partition-size:10000}")
+    private long partitionSize;
+
+    @Value("${analytics.snapshot.job.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${analytics.snapshot.job.window:PT4H}")
+    private Duration window;
+
+    @Value("${analytics.snapshot.job.lease:PT10M}")
+    private Duration lease;
+
+    public AnalyticsSnapshotJob(UserRepository userRepository,
+                                AnalyticsSnapshotRepository analyticsSnapshotRepository,
+                                SnapshotJobCheckpointRepository checkpointRepository,
+                                AnalyticsService analyticsService,
+                                SnapshotAggregator snapshotAggregator,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.analyticsSnapshotRepository = analyticsSnapshotRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.analyticsService = analyticsService;
+        this.snapshotAggregator = snapshotAggregator;
+        this.transactionTemplate = transactionTemplate;
+        this.succeeded = meterRegistry.counter("analytics.snapshot.job.users", "outcome", "success");
+        this.failed = meterRegistry.counter("analytics.snapshot.job.users", "outcome", "failure");
+    }
+
+    /**
+     * Snapshot the day that just ended
+     */
+    @Scheduled(cron = "${analytics.snapshot.job.cron:0 30 1 * * *}")
+    public void runNightly() {
+        run(LocalDate.now().minusDays(1));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        LocalDate date = LocalDate.now().minusDays(1);
+        if (snapshotAggregator.withPermit(() ->
+                checkpointRepository.existsBySnapshotDateAndStatusNot(date, SnapshotJobCheckpoint.Status.COMPLETED))) {
+            log.info("Resuming interrupted snapshot job for {}", date);
+            Thread.ofVirtual().name("snapshot-job-resume").start(() -> run(date));
+        }
+    }
+
+    public void run(LocalDate date) {
+        // Identifies this run's leases, so two runs in one instance are kept apart as well
+        String owner = UUID.randomUUID().toString();
+        Queue<SnapshotJobCheckpoint> pending = new ConcurrentLinkedQueue<>(snapshotAggregator.withPermit(() -> {
+            try {
+                return planPartitions(date);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created the plan first
+                return planPartitions(date);
+            }
+        }));
+        if (pending.isEmpty()) {
+            return;
+        }
+        Progress progress = new Progress(System.nanoTime() + window.toNanos());
+        int workers = snapshotAggregator.maxConcurrentQueries();
+        log.info("Snapshot job for {} started: {} partition(s), {} worker(s)", date, pending.size(), workers);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("snapshot-job-", 0).factory())) {
+            for (int i = 0; i < workers; i++) {
+                pool.submit(() -> {
+                    SnapshotJobCheckpoint checkpoint;
+                    while (!progress.overdue() && (checkpoint = pending.poll()) != null) {
+                        try {
+                            SnapshotJobCheckpoint claimed = claim(checkpoint, owner);
+                            if (claimed != null) {
+                                processPartition(claimed, owner, date, progress);
+                            }
+                        } catch (RuntimeException e) {
+                            log.error("Snapshot partition {}..{} aborted, it resumes from its checkpoint on the next run",
+                                checkpoint.getPartitionStart(), checkpoint.getPartitionEnd(), e);
+                        }
+                    }
+                });
+            }
+        }
+
+        if (progress.overdue()) {
+            log.warn("Snapshot job for {} ran past its {} window: {}; remaining partitions resume on next start",
+                date, window, progress);
+        } else {
+            log.info("Snapshot job for {} finished: {}", date, progress);
+        }
+    }
+
+    /**
+     * Lease the partition to this run and reload its checkpoint, or null when another run holds or finished it
+     */
+    private SnapshotJobCheckpoint claim(SnapshotJobCheckpoint checkpoint, String owner) {
+        return snapshotAggregator.withPermit(() -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (checkpointRepository.claim(checkpoint.getId(), owner, now, now.plus(lease),
+                    SnapshotJobCheckpoint.Status.IN_PROGRESS, SnapshotJobCheckpoint.Status.COMPLETED) == 0) {
+                log.debug("Snapshot partition {}..{} skipped: held by another run or done",
+                    checkpoint.getPartitionStart(), checkpoint.getPartitionEnd());
+                return null;
+            }
+            // Another run may have advanced it before its lease expired
+            return checkpointRepository.findById(checkpoint.getId()).orElse(null);
+        }));
+    }
+
+    /**
+     * Partitions still to do for the date, creating the plan on the first run
+     */
+    private List<SnapshotJobCheckpoint> planPartitions(LocalDate date) {
+        return transactionTemplate.execute(status -> {
+            List<SnapshotJobCheckpoint> existing = checkpointRepository.findBySnapshotDateOrderByPartitionStart(date);
+            if (existing.isEmpty()) {
+                Object[] range = userRepository.findIdRange().get(0);
+                if (range[0] == null) {
+                    return List.of();
+                }
+                long minId = ((Number) range[0]).longValue();
+                long maxId = ((Number) range[1]).longValue();
+                for (long start = minId; start <= maxId; start += partitionSize) {
+                    existing.add(SnapshotJobCheckpoint.builder()
+                        .snapshotDate(date)
+                        .partitionStart(start)
+                        .partitionEnd(Math.min(start + partitionSize - 1, maxId))
+                        .status(SnapshotJobCheckpoint.Status.PENDING)
+                        .processedCount(0)
+                        .failedCount(0)
+                        .build());
+                }
+                existing = checkpointRepository.saveAll(existing);
+            }
+            return existing.stream()
+                .filter(checkpoint -> checkpoint.getStatus() != SnapshotJobCheckpoint.Status.COMPLETED)
+                .collect(Collectors.toCollection(ArrayList::new));
+        });
+    }
+
+    private void processPartition(SnapshotJobCheckpoint checkpoint, String owner, LocalDate date, Progress progress) {
+        long afterId = checkpoint.getLastUserId() != null ? checkpoint.getLastUserId() : checkpoint.getPartitionStart() - 1;
+
+        while (!progress.overdue()) {
+            long after = afterId;
+            long partitionEnd = checkpoint.getPartitionEnd();
+            List<Long> userIds = snapshotAggregator.withPermit(() ->
+                userRepository.findIdsInRange(after, partitionEnd, PageRequest.of(0, chunkSize)));
+            if (userIds.isEmpty()) {
+                checkpoint.setStatus(SnapshotJobCheckpoint.Status.COMPLETED);
+                if (release(checkpoint, owner, date)) {
+                    log.info("Snapshot partition {}..{} done; {}", checkpoint.getPartitionStart(), checkpoint.getPartitionEnd(), progress);
+                }
+                return;
+            }
+
+            List<AnalyticsSnapshot> computed = new ArrayList<>(userIds.size());
+            int chunkFailures = 0;
+            for (Long userId : userIds) {
+                try {
+                    computed.add(analyticsService.computeSnapshot(userRepository.getReferenceById(userId), date));
+                } catch (RuntimeException e) {
+                    chunkFailures++;
+                    log.warn("Snapshot for user {} on {} failed: {}", userId, date, e.getMessage());
+                }
+            }
+
+            afterId = userIds.get(userIds.size() - 1);
+            checkpoint.setLastUserId(afterId);
+            checkpoint.setProcessedCount(checkpoint.getProcessedCount() + computed.size());
+            checkpoint.setFailedCount(checkpoint.getFailedCount() + chunkFailures);
+            checkpoint.setLeaseUntil(LocalDateTime.now().plus(lease));
+            SnapshotJobCheckpoint current = checkpoint;
+            checkpoint = snapshotAggregator.withPermit(() -> transactionTemplate.execute(status -> saveChunk(computed, date, current, owner)));
+            if (checkpoint == null) {
+                log.warn("Snapshot partition {}..{} was taken over by another run after its lease expired",
+                    current.getPartitionStart(), current.getPartitionEnd());
+                return;
+            }
+
+            succeeded.increment(computed.size());
+            failed.increment(chunkFailures);
+            progress.record(computed.size(), chunkFailures);
+        }
+        // Out of time: hand the partition back so the next start resumes it without waiting for the lease
+        release(checkpoint, owner, date);
+    }
+
+    /**
+     * Save the checkpoint and release its lease; false when another run had already taken the partition over
+     */
+    private boolean release(SnapshotJobCheckpoint checkpoint, String owner, LocalDate date) {
+        checkpoint.setLeaseOwner(null);
+        checkpoint.setLeaseUntil(null);
+        return snapshotAggregator.withPermit(() -> transactionTemplate.execute(status -> saveChunk(List.of(), date, checkpoint, owner))) != null;
+    }
+
+    /**
+     * Upsert a chunk of snapshots and advance the checkpoint in the same transaction, provided the run still
+     * holds the partition's lease; otherwise nothing is written and null is returned
+     */
+    private SnapshotJobCheckpoint saveChunk(List<AnalyticsSnapshot> snapshots, LocalDate date, SnapshotJobCheckpoint checkpoint,
+                                            String owner) {
+        // Also locks the checkpoint row, so the lease cannot change hands before this transaction commits
+        if (checkpointRepository.renewLease(checkpoint.getId(), owner, checkpoint.getLeaseUntil()) == 0) {
+            return null;
+        }
+        if (!snapshots.isEmpty()) {
+            List<Long> userIds = snapshots.stream().map(snapshot -> snapshot.getUser().getId()).toList();
+            Map<Long, Long> existingIds = analyticsSnapshotRepository.findIdsByUserIdsAndDate(userIds, date).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+            for (AnalyticsSnapshot snapshot : snapshots) {
+                Long userId = snapshot.getUser().getId();
+                snapshot.setUser(userRepository.getReferenceById(userId));
+                snapshot.setId(existingIds.get(userId));
+            }
+            analyticsSnapshotRepository.saveAll(snapshots);
+        }
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private static final class Progress {
+        private final long startedAt = System.nanoTime();
+        private final long deadline;
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Progress(long deadline) {
+            this.deadline = deadline;
+        }
+
+        void record(int succeeded, int failed) {
+            processed.add(succeeded);
+            failures.add(failed);
+        }
+
+        boolean overdue() {
+            return System.nanoTime() - deadline > 0;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = Math.max(1e-3, (System.nanoTime() - startedAt) / 1e9);
+            return String.format("%d user(s) in %.0fs (%.1f users/sec), %d failed",
+                processed.sum(), seconds, processed.sum() / seconds, failures.sum());
+        }
+    }
+}
@@ -50,6 +50,8 @@ public class AuthService {
                             .budgetAlerts(true)
                             .goalMilestoneNotifications(true)
                             .investmentUpdates(true)
+                            .notificationDigest(true)
+                            .digestIntervalMinutes(60)
                             .build();
                     userPreferencesRepository.save(preferences);
 
@@ -0,0 +1,212 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.Account;
+import com.aifa.finance.domain.AccountBalanceCheckpoint;
+import com.aifa.finance.domain.AccountBalanceEntry;
+import com.aifa.finance.dto.NetWorthPointResponse;
+import com.aifa.finance.exception.BadRequestException;
+import com.aifa.finance.exception.ResourceNotFoundException;
+import com.aifa.finance.repository.AccountBalanceCheckpointRepository;
+import com.aifa.finance.repository.AccountBalanceEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Balance history of accounts.
+ * Every balance change is appended as a delta, and every N-th entry also writes a checkpoint with the
+ * resulting balance. A balance at any instant is the nearest earlier checkpoint (an index seek) plus fewer
+ * than N deltas; a net-worth series sums the opening balances once and then folds the window's entries in order.
+ * Balances are split into asset and liability sides, so net worth is assets minus liabilities at every point.
+ */
+@Service
+@Slf4j
+public class BalanceJournalService {
+
+    private final AccountBalanceEntryRepository entryRepository;
+    private final AccountBalanceCheckpointRepository checkpointRepository;
+
+    @Value("${account.journal.checkpoint-interval:32}")
+    private int checkpointInterval;
+
+    @Value("${account.journal.max-series-days:3660}")
+    private int maxSeriesDays;
+
+    public BalanceJournalService(AccountBalanceEntryRepository entryRepository,
+                                 AccountBalanceCheckpointRepository checkpointRepository) {
+        this.entryRepository = entryRepository;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    /**
+     * Journal a newly created account; the account must already have its id
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOpened(Account account) {
+        append(account, AccountBalanceEntry.EntryType.OPEN, balanceOf(account), account.isLiability(), balanceOf(account), true);
+    }
+
+    /**
+     * Journal an update; call after the new balance and type are set on the account, which must have been loaded
+     * with {@code AccountRepository.findByIdForUpdate} so concurrent updates take sequence numbers in turn
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Account account, BigDecimal previousBalance, Account.AccountType previousType) {
+        BigDecimal balance = balanceOf(account);
+        boolean wasLiability = previousType == Account.AccountType.CREDIT_CARD || previousType == Account.AccountType.LOAN;
+        if (wasLiability != account.isLiability()) {
+            append(account, AccountBalanceEntry.EntryType.TYPE_CHANGE, previousBalance.negate(), wasLiability, BigDecimal.ZERO, false);
+            append(account, AccountBalanceEntry.EntryType.TYPE_CHANGE, balance, account.isLiability(), balance, false);
+        } else if (balance.compareTo(previousBalance) != 0) {
+            append(account, AccountBalanceEntry.EntryType.ADJUSTMENT, balance.subtract(previousBalance), account.isLiability(), balance, false);
+        }
+    }
+
+    /**
+     * Journal a deleted account down to zero; checkpointed so the history stays cheap to read.
+     * The account must be locked as for {@link #recordChanged}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordClosed(Account account) {
+        append(account, AccountBalanceEntry.EntryType.CLOSE, balanceOf(account).negate(), account.isLiability(), BigDecimal.ZERO, true);
+    }
+
+    /**
+     * Balance of one account at the given instant
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(Long accountId, LocalDateTime at) {
+        if (!checkpointRepository.existsByAccountId(accountId)) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+        Sides sides = sidesAt(accountId, exclusive(at));
+        return sides.assets.add(sides.liabilities);
+    }
+
+    /**
+     * Assets and liabilities of the user at the end of the given day
+     */
+    @Transactional(readOnly = true)
+    public NetWorthPointResponse netWorthAt(Long userId, LocalDate date) {
+        Sides sides = openingSides(userId, date.plusDays(1).atStartOfDay());
+        return sides.toPoint(date);
+    }
+
+    /**
+     * One point per day from start to end, each as of the end of that day
+     */
+    @Transactional(readOnly = true)
+    public List<NetWorthPointResponse> netWorthSeries(Long userId, LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new BadRequestException("End date must not be before start date");
+        }
+        if (start.plusDays(maxSeriesDays).isBefore(end)) {
+            throw new BadRequestException("Net worth series is limited to " + maxSeriesDays + " days");
+        }
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime to = end.plusDays(1).atStartOfDay();
+        Sides running = openingSides(userId, from);
+
+        List<NetWorthPointResponse> points = new ArrayList<>();
+        LocalDate day = start;
+        for (Object[] change : entryRepository.findChangesBetween(userId, from, to)) {
+            LocalDate changeDay = ((LocalDateTime) change[0]).toLocalDate();
+            while (day.isBefore(changeDay)) {
+                points.add(running.toPoint(day));
+                day = day.plusDays(1);
+            }
+            running.add((Boolean) change[1], (BigDecimal) change[2]);
+        }
+        while (!day.isAfter(end)) {
+            points.add(running.toPoint(day));
+            day = day.plusDays(1);
+        }
+        return points;
+    }
+
+    private Sides openingSides(Long userId, LocalDateTime before) {
+        Sides total = new Sides();
+        for (Object[] row : checkpointRepository.sumOpeningSides(userId, before)) {
+            total.add((Boolean) row[0], (BigDecimal) row[1]);
+        }
+        return total;
+    }
+
+    private Sides sidesAt(Long accountId, LocalDateTime before) {
+        Sides sides = new Sides();
+        long afterSequence = 0;
+        AccountBalanceCheckpoint checkpoint = checkpointRepository
+            .findFirstByAccountIdAndAsOfBeforeOrderByAsOfDescSequenceDesc(accountId, before)
+            .orElse(null);
+        if (checkpoint != null) {
+            sides.add(checkpoint.getLiability(), checkpoint.getBalance());
+            afterSequence = checkpoint.getSequence();
+        }
+        for (Object[] row : entryRepository.sumAfterSequence(accountId, afterSequence, before)) {
+            sides.add((Boolean) row[0], (BigDecimal) row[1]);
+        }
+        return sides;
+    }
+
+    private void append(Account account, AccountBalanceEntry.EntryType type, BigDecimal amount, boolean liability,
+                        BigDecimal balanceAfter, boolean forceCheckpoint) {
+        long sequence = (account.getBalanceSequence() != null ? account.getBalanceSequence() : 0L) + 1;
+        account.setBalanceSequence(sequence);
+        LocalDateTime now = LocalDateTime.now();
+        entryRepository.save(AccountBalanceEntry.builder()
+            .user(account.getUser())
+            .accountId(account.getId())
+            .sequence(sequence)
+            .entryType(type)
+            .amount(amount)
+            .liability(liability)
+            .effectiveAt(now)
+            .build());
+        if (forceCheckpoint || sequence % checkpointInterval == 0) {
+            checkpointRepository.save(AccountBalanceCheckpoint.builder()
+                .user(account.getUser())
+                .accountId(account.getId())
+                .sequence(sequence)
+                .balance(balanceAfter)
+                .liability(account.isLiability())
+                .asOf(now)
+                .build());
+        }
+    }
+
+    private static BigDecimal balanceOf(Account account) {
+        return account.getCurrentBalance() != null ? account.getCurrentBalance() : BigDecimal.ZERO;
+    }
+
+    /**
+     * Entries at exactly the requested instant count as already booked
+     */
+    private static LocalDateTime exclusive(LocalDateTime at) {
+        return at.plusNanos(1000);
+    }
+
+    private static final class Sides {
+        private BigDecimal assets = BigDecimal.ZERO;
+        private BigDecimal liabilities = BigDecimal.ZERO;
+
+        void add(Boolean liability, BigDecimal amount) {
+            if (Boolean.TRUE.equals(liability)) {
+                liabilities = liabilities.add(amount);
+            } else {
+                assets = assets.add(amount);
+            }
+        }
+
+        NetWorthPointResponse toPoint(LocalDate date) {
+            return new NetWorthPointResponse(date, assets, liabilities, assets.subtract(liabilities));
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.Budget;
+import com.aifa.finance.event.TransactionChangedEvent;
+import com.aifa.finance.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run-rate forecasting for budgets.
+ * Keeps a rolling daily-spend series per (user, category), seeded once from an aggregate query
+ * and then updated incrementally on every expense write. Series unread for the idle expiry are dropped, the least
+ * recently read go first when the map reaches its maximum size, and a deleted budget drops its series.
+ * No crossing is predicted until the category has spend history of at least the minimum observed days.
+ */
+@Service
+@Slf4j
+public class BudgetForecastService {
+
+    private final TransactionRepository transactionRepository;
+    private final int windowDays;
+    private final int maxSeries;
+    private final int minObservedDays;
+    private final long idleExpiryMillis;
+    private final ConcurrentMap<SeriesKey, CachedSeries> seriesByKey = new ConcurrentHashMap<>();
+
+    public BudgetForecastService(TransactionRepository transactionRepository,
+                                 @Value("${budget.forecast.window-days:30}") int windowDays,
+                                 @Value("${budget.forecast.max-series:50000}") int maxSeries,
+                                 @Value("${budget.forecast.min-observed-days:7}") int minObservedDays,
+                                 @Value("${budget.forecast.idle-expiry:PT6H}") Duration idleExpiry) {
+        this.transactionRepository = transactionRepository;
+        this.windowDays = windowDays;
+        this.maxSeries = maxSeries;
+        this.minObservedDays = minObservedDays;
+        this.idleExpiryMillis = idleExpiry.toMillis();
+    }
+
+    /**
+     * Add an expense to its series. Series that have not been seeded yet are left alone:
+     * their first read seeds from the database, which already contains this transaction.
+     */
+    public void record(TransactionChangedEvent event) {
+        if (!event.isExpense() || event.category() == null || event.transactionDate() == null) {
+            return;
+        }
+        CachedSeries cached = seriesByKey.get(new SeriesKey(event.userId(), event.category()));
+        if (cached != null) {
+            cached.series().add(event.transactionDate(), event.amount());
+        }
+    }
+
+    /**
+     * Drop the series behind a deleted budget; a later budget on the same category seeds it again
+     */
+    public void evict(Long userId, String category) {
+        if (category != null) {
+            seriesByKey.remove(new SeriesKey(userId, category));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${budget.forecast.sweep:PT10M}", initialDelayString = "${budget.forecast.sweep:PT10M}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleExpiryMillis;
+        seriesByKey.values().removeIf(cached -> cached.lastRead().get() < cutoff);
+    }
+
+    /**
+     * Forecast the budget to the end of its current period from the category's daily spend velocity
+     */
+    public BudgetForecast forecast(Budget budget, LocalDate today) {
+        BigDecimal spent = budget.getSpentAmount() != null ? budget.getSpentAmount() : BigDecimal.ZERO;
+        LocalDate periodEnd = periodEnd(budget, today);
+        if (today.isBefore(budget.getStartDate()) || today.isAfter(periodEnd)) {
+            return new BudgetForecast(spent, null, 0.0);
+        }
+
+        DailySpendSeries series = series(budget.getUser().getId(), budget.getCategory());
+        double velocity = series.dailyVelocity(today);
+        long remainingDays = ChronoUnit.DAYS.between(today, periodEnd);
+        BigDecimal projected = spent.add(BigDecimal.valueOf(velocity * remainingDays))
+                .setScale(2, RoundingMode.HALF_UP);
+
+        LocalDate crossing = null;
+        BigDecimal headroom = budget.getMonthlyLimit().subtract(spent);
+        if (velocity > 0 && headroom.signum() > 0 && series.observedDays(today) >= minObservedDays) {
+            long daysToCross = (long) Math.ceil(headroom.doubleValue() / velocity);
+            if (daysToCross <= remainingDays) {
+                crossing = today.plusDays(daysToCross);
+            }
+        }
+        return new BudgetForecast(projected, crossing, velocity);
+    }
+
+    /**
+     * Budgets carry a monthly limit, so the forecast horizon is the current month clipped to the budget's end date
+     */
+    LocalDate periodEnd(Budget budget, LocalDate today) {
+        LocalDate monthEnd = YearMonth.from(today).atEndOfMonth();
+        return budget.getEndDate() != null && budget.getEndDate().isBefore(monthEnd) ? budget.getEndDate() : monthEnd;
+    }
+
+    private DailySpendSeries series(Long userId, String category) {
+        SeriesKey key = new SeriesKey(userId, category);
+        CachedSeries cached = seriesByKey.get(key);
+        if (cached == null) {
+            if (seriesByKey.size() >= maxSeries) {
+                evictLeastRecentlyRead();
+            }
+            cached = seriesByKey.computeIfAbsent(key, k -> new CachedSeries(seed(k), new AtomicLong()));
+        }
+        cached.lastRead().set(System.currentTimeMillis());
+        return cached.series();
+    }
+
+    /**
+     * Make room by dropping the least recently read tenth of the series
+     */
+    private void evictLeastRecentlyRead() {
+        seriesByKey.entrySet().stream()
+            .sorted((a, b) -> Long.compare(a.getValue().lastRead().get(), b.getValue().lastRead().get()))
+            .limit(Math.max(1, maxSeries / 10))
+            .map(Map.Entry::getKey)
+            .toList()
+            .forEach(seriesByKey::remove);
+    }
+
+    private DailySpendSeries seed(SeriesKey key) {
+        DailySpendSeries series = new DailySpendSeries(windowDays);
+        LocalDate since = LocalDate.now().minusDays(windowDays - 1L);
+        for (Object[] row : transactionRepository.sumExpensesByDaySince(key.userId(), key.category(), since)) {
+            series.add((LocalDate) row[0], ((Number) row[1]).doubleValue());
+        }
+        log.debug("Seeded spend series for user {} category {}", key.userId(), key.category());
+        return series;
+    }
+
+    private record CachedSeries(DailySpendSeries series, AtomicLong lastRead) {}
+
+    public record BudgetForecast(BigDecimal projectedSpend, LocalDate predictedExceedDate, double dailyVelocity) {}
+
+    private record SeriesKey(Long userId, String category) {
+        SeriesKey {
+            category = category.toLowerCase(Locale.ROOT);
+        }
+    }
+}
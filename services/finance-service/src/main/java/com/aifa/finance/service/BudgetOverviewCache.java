@@ -0,0 +1,85 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.dto.BudgetOverviewResponse;
+import com.aifa.finance.event.TransactionChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of the budget overview response.
+ * Entries are evicted once budget, alert and transaction changes commit, so a load starting after the
+ * eviction reads the committed state; a generation counter per user keeps a load that raced with an eviction
+ * from publishing stale data.
+ */
+@Component
+public class BudgetOverviewCache {
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public BudgetOverviewCache(@Value("${budget.overview.cache-ttl:PT5M}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public BudgetOverviewResponse get(Long userId, Supplier<BudgetOverviewResponse> loader) {
+        long now = System.currentTimeMillis();
+        Entry cached = entries.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.response();
+        }
+
+        long generation = generation(userId).get();
+        BudgetOverviewResponse response = loader.get();
+        if (generation(userId).get() == generation) {
+            entries.put(userId, new Entry(response, now + ttlMillis));
+        }
+        return response;
+    }
+
+    /**
+     * Evict the user's entry once the surrounding transaction commits, or now when there is none
+     */
+    public void evictAfterCommit(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.userId() != null) {
+            evict(event.userId());
+        }
+    }
+
+    private void evict(Long userId) {
+        generation(userId).incrementAndGet();
+        entries.remove(userId);
+    }
+
+    private AtomicLong generation(Long userId) {
+        return generations.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+
+    private record Entry(BudgetOverviewResponse response, long expiresAt) {}
+}
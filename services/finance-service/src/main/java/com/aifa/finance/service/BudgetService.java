@@ -6,17 +6,26 @@ import com.aifa.finance.domain.User;
 import com.aifa.finance.dto.BudgetRequest;
 import com.aifa.finance.dto.BudgetResponse;
 import com.aifa.finance.dto.BudgetAlertResponse;
+import com.aifa.finance.dto.BudgetOverviewResponse;
+import com.aifa.finance.event.BudgetAlertRaisedEvent;
+import com.aifa.finance.event.TransactionChangedEvent;
+import com.aifa.finance.event.UserDataChangedEvent;
 import com.aifa.finance.repository.BudgetRepository;
 import com.aifa.finance.repository.BudgetAlertRepository;
 import com.aifa.finance.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +35,12 @@ public class BudgetService {
     private final BudgetRepository budgetRepository;
     private final BudgetAlertRepository budgetAlertRepository;
     private final UserRepository userRepository;
+    private final BudgetOverviewCache budgetOverviewCache;
+    private final BudgetForecastService budgetForecastService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int RECENT_ALERT_DAYS = 30;
+    private static final int RECENT_ALERT_LIMIT = 5;
 
     /**
      * Create a new budget
@@ -46,6 +61,8 @@ public class BudgetService {
                 .build();
 
         Budget savedBudget = budgetRepository.save(budget);
+        budgetOverviewCache.evictAfterCommit(userId);
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId));
         return toBudgetResponse(savedBudget);
     }
 
@@ -91,6 +108,8 @@ public class BudgetService {
         if (request.getAlertThreshold() != null) budget.setAlertThreshold(request.getAlertThreshold());
 
         Budget updated = budgetRepository.save(budget);
+        budgetOverviewCache.evictAfterCommit(userId);
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId));
         return toBudgetResponse(updated);
     }
 
@@ -101,6 +120,9 @@ public class BudgetService {
         Budget budget = budgetRepository.findByIdAndUserId(budgetId, userId)
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
         budgetRepository.delete(budget);
+        budgetOverviewCache.evictAfterCommit(userId);
+        budgetForecastService.evict(userId, budget.getCategory());
+        eventPublisher.publishEvent(new UserDataChangedEvent(userId));
     }
 
     /**
@@ -109,12 +131,60 @@ public class BudgetService {
     public void updateSpentAmount(Long budgetId, BigDecimal amount) {
         Budget budget = budgetRepository.findById(budgetId)
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
+        applySpend(budget, amount);
+    }
 
+    /**
+     * Apply a new expense to every active budget in its category
+     */
+    @EventListener
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        budgetForecastService.record(event);
+        if (!event.isExpense() || event.category() == null || event.transactionDate() == null) {
+            return;
+        }
+
+        BigDecimal amount = BigDecimal.valueOf(event.amount());
+        budgetRepository.findActiveBudgetsByUserAndCategory(event.userId(), event.category(), event.transactionDate())
+                .forEach(budget -> applySpend(budget, amount));
+    }
+
+    private void applySpend(Budget budget, BigDecimal amount) {
         BigDecimal previousAmount = budget.getSpentAmount();
         budget.setSpentAmount(previousAmount.add(amount));
 
+        checkForecastAlert(budget);
         checkAndCreateAlerts(budget, previousAmount);
         budgetRepository.save(budget);
+        budgetOverviewCache.evictAfterCommit(budget.getUser().getId());
+    }
+
+    /**
+     * Raise a proactive alert when the run-rate predicts the limit will be crossed this period,
+     * before spending reaches the warning threshold. At most one per budget per period.
+     */
+    private void checkForecastAlert(Budget budget) {
+        int threshold = budget.getAlertThreshold() != null ? budget.getAlertThreshold() : 80;
+        if (budget.getPercentageSpent() >= threshold) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        BudgetForecastService.BudgetForecast forecast = budgetForecastService.forecast(budget, today);
+        if (forecast.predictedExceedDate() == null) {
+            return;
+        }
+
+        LocalDate monthStart = YearMonth.from(today).atDay(1);
+        LocalDate periodStart = budget.getStartDate().isAfter(monthStart) ? budget.getStartDate() : monthStart;
+        if (budgetAlertRepository.existsByBudgetIdAndAlertTypeAndTriggeredAtAfter(
+                budget.getId(), BudgetAlert.AlertType.FORECAST_EXCEEDED, periodStart.atStartOfDay())) {
+            return;
+        }
+
+        int projectedPercentage = (int) Math.round(forecast.projectedSpend().doubleValue() /
+                budget.getMonthlyLimit().doubleValue() * 100);
+        createAlert(budget, BudgetAlert.AlertType.FORECAST_EXCEEDED, projectedPercentage);
     }
 
     /**
@@ -154,20 +224,76 @@ public class BudgetService {
                 .percentage(percentage)
                 .build();
         budgetAlertRepository.save(alert);
+        eventPublisher.publishEvent(new BudgetAlertRaisedEvent(
+                budget.getUser().getId(), budget.getId(), budget.getName(), budget.getCategory(),
+                type.name(), percentage));
     }
 
     /**
      * Get alerts for a budget
      */
     public List<BudgetAlertResponse> getBudgetAlerts(Long budgetId, Long userId) {
-        Budget budget = budgetRepository.findByIdAndUserId(budgetId, userId)
-                .orElseThrow(() -> new RuntimeException("Budget not found"));
+        if (!budgetRepository.existsByIdAndUserId(budgetId, userId)) {
+            throw new RuntimeException("Budget not found");
+        }
 
         return budgetAlertRepository.findByBudgetIdOrderByTriggeredAtDesc(budgetId).stream()
                 .map(this::toBudgetAlertResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get every budget for a user with its recent alerts and month-end projection.
+     * Built from one budget query plus one batched alert query, and cached per user.
+     */
+    @Transactional(readOnly = true)
+    public BudgetOverviewResponse getBudgetOverview(Long userId) {
+        return budgetOverviewCache.get(userId, () -> buildBudgetOverview(userId));
+    }
+
+    private BudgetOverviewResponse buildBudgetOverview(Long userId) {
+        List<Budget> budgets = budgetRepository.findByUserId(userId);
+        LocalDate today = LocalDate.now();
+
+        Map<Long, List<BudgetAlertResponse>> alertsByBudget = budgets.isEmpty()
+                ? Map.of()
+                : budgetAlertRepository.findRecentByBudgetIds(
+                        budgets.stream().map(Budget::getId).toList(),
+                        today.minusDays(RECENT_ALERT_DAYS).atStartOfDay()).stream()
+                    .map(this::toBudgetAlertResponse)
+                    .collect(Collectors.groupingBy(BudgetAlertResponse::getBudgetId));
+
+        List<BudgetOverviewResponse.BudgetSummary> summaries = new ArrayList<>(budgets.size());
+        BigDecimal totalLimit = BigDecimal.ZERO;
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        BigDecimal totalProjected = BigDecimal.ZERO;
+
+        for (Budget budget : budgets) {
+            BudgetResponse response = toBudgetResponse(budget);
+            BigDecimal projected = response.getProjectedSpend();
+            List<BudgetAlertResponse> alerts = alertsByBudget.getOrDefault(budget.getId(), List.of());
+
+            summaries.add(BudgetOverviewResponse.BudgetSummary.builder()
+                    .budget(response)
+                    .percentageSpent(budget.getPercentageSpent())
+                    .projectedMonthEndSpend(projected)
+                    .recentAlerts(alerts.size() > RECENT_ALERT_LIMIT ? alerts.subList(0, RECENT_ALERT_LIMIT) : alerts)
+                    .build());
+
+            totalLimit = totalLimit.add(budget.getMonthlyLimit());
+            totalSpent = totalSpent.add(budget.getSpentAmount());
+            totalProjected = totalProjected.add(projected);
+        }
+
+        return BudgetOverviewResponse.builder()
+                .budgets(summaries)
+                .totalLimit(totalLimit)
+                .totalSpent(totalSpent)
+                .totalProjectedSpend(totalProjected)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
     /**
      * Get budget status (summary)
      */
@@ -177,6 +303,7 @@ public class BudgetService {
 
     // Helper methods
     private BudgetResponse toBudgetResponse(Budget budget) {
+        BudgetForecastService.BudgetForecast forecast = budgetForecastService.forecast(budget, LocalDate.now());
         return BudgetResponse.builder()
                 .id(budget.getId())
                 .name(budget.getName())
@@ -187,6 +314,8 @@ public class BudgetService {
                 .startDate(budget.getStartDate())
                 .endDate(budget.getEndDate())
                 .alertThreshold(budget.getAlertThreshold())
+                .projectedSpend(forecast.projectedSpend())
+                .predictedExceedDate(forecast.predictedExceedDate())
                 .createdAt(budget.getCreatedAt())
                 .updatedAt(budget.getUpdatedAt())
                 .build();
@@ -0,0 +1,154 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.Account;
+import com.aifa.finance.domain.IncomeSource;
+import com.aifa.finance.dto.CashFlowForecastResponse;
+import com.aifa.finance.forecast.Cadence;
+import com.aifa.finance.forecast.CashFlowEvent;
+import com.aifa.finance.forecast.CashFlowProjector;
+import com.aifa.finance.forecast.ProjectedDay;
+import com.aifa.finance.forecast.Projection;
+import com.aifa.finance.forecast.RecurringFlow;
+import com.aifa.finance.repository.AccountRepository;
+import com.aifa.finance.repository.IncomeSourceRepository;
+import com.aifa.finance.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cash-flow forecast computed in-process from the user's liquid balance, transaction history and income sources.
+ */
+@Service
+public class CashFlowForecastService {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final IncomeSourceRepository incomeSourceRepository;
+    private final Timer timer;
+
+    @Value("${forecast.cashflow.history-days:365}")
+    private int historyDays;
+
+    @Value("${forecast.cashflow.max-months:24}")
+    private int maxMonths;
+
+    public CashFlowForecastService(TransactionRepository transactionRepository,
+                                   AccountRepository accountRepository,
+                                   IncomeSourceRepository incomeSourceRepository,
+                                   MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.incomeSourceRepository = incomeSourceRepository;
+        this.timer = Timer.builder("forecast.cashflow.duration")
+            .description("Time to compute one cash-flow forecast, queries included")
+            .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public CashFlowForecastResponse forecast(Long userId, int requestedMonths) {
+        LocalDate today = LocalDate.now();
+        return forecast(userId, requestedMonths, TransactionWindow.load(transactionRepository, userId, historyStart(today), today));
+    }
+
+    /**
+     * Forecast from an already loaded window; one that does not reach back to {@link #historyStart} is loaded again
+     */
+    @Transactional(readOnly = true)
+    public CashFlowForecastResponse forecast(Long userId, int requestedMonths, TransactionWindow window) {
+        int monthsAhead = Math.max(1, Math.min(maxMonths, requestedMonths));
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        LocalDate since = historyStart(today);
+        if (!window.covers(since, today)) {
+            window = TransactionWindow.load(transactionRepository, userId, since, today);
+        }
+
+        double openingBalance = 0;
+        for (Object[] row : accountRepository.sumActiveBalancesByType(userId)) {
+            Account.AccountType type = (Account.AccountType) row[0];
+            if (type == Account.AccountType.CHECKING || type == Account.AccountType.SAVINGS) {
+                openingBalance += ((Number) row[1]).doubleValue();
+            }
+        }
+
+        List<CashFlowEvent> history = new ArrayList<>();
+        for (TransactionWindow.Row row : window.rows()) {
+            if (!row.date().isBefore(since) && !row.date().isAfter(today)) {
+                history.add(new CashFlowEvent(row.date(), "INCOME".equals(row.type()) ? row.amount() : -row.amount(), row.label()));
+            }
+        }
+
+        List<RecurringFlow> scheduled = incomeSourceRepository.findCurrentlyActiveByUserId(userId).stream()
+            .map(source -> toFlow(source, today))
+            .toList();
+
+        int horizonDays = (int) ChronoUnit.DAYS.between(today, today.plusMonths(monthsAhead));
+        Projection projection = CashFlowProjector.project(openingBalance, history, scheduled, today, historyDays, horizonDays);
+        CashFlowForecastResponse response = toResponse(projection, history, monthsAhead);
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    /**
+     * First day of the transaction history a forecast made today learns from
+     */
+    public LocalDate historyStart(LocalDate today) {
+        return today.minusDays(historyDays - 1L);
+    }
+
+    /**
+     * Income source as a recurring inflow due on its next expected date after today
+     */
+    private static RecurringFlow toFlow(IncomeSource source, LocalDate today) {
+        Cadence cadence = Cadence.valueOf(source.getFrequency().name());
+        LocalDate next = source.getNextExpected() != null ? source.getNextExpected()
+            : source.getLastReceived() != null ? cadence.next(source.getLastReceived())
+            : source.getStartDate();
+        while (!next.isAfter(today)) {
+            next = cadence.next(next);
+        }
+        return new RecurringFlow(source.getSourceName(), source.getAmount().doubleValue(), cadence, next, source.getEndDate(), 0.0);
+    }
+
+    private static CashFlowForecastResponse toResponse(Projection projection, List<CashFlowEvent> history, int monthsAhead) {
+        List<CashFlowForecastResponse.CashFlowPrediction> predictions = new ArrayList<>(projection.days().size());
+        for (ProjectedDay day : projection.days()) {
+            predictions.add(CashFlowForecastResponse.CashFlowPrediction.builder()
+                .date(day.date().toString())
+                .predictedBalance(BigDecimal.valueOf(day.expected()))
+                .lowerBound(BigDecimal.valueOf(day.lower()))
+                .upperBound(BigDecimal.valueOf(day.upper()))
+                .confidence(day.confidence())
+                .riskLevel(day.riskLevel())
+                .factors(day.factors())
+                .build());
+        }
+        return CashFlowForecastResponse.builder()
+            .forecastId("local_" + UUID.randomUUID())
+            .timestamp(Instant.now().toString())
+            .predictions(predictions)
+            .metadata(CashFlowForecastResponse.ForecastMetadata.builder()
+                .modelAccuracy(projection.accuracy())
+                .predictionHorizon(monthsAhead)
+                .dataPointsUsed(projection.dataPoints())
+                .lastTransactionDate(history.isEmpty() ? null : history.get(history.size() - 1).date().toString())
+                .recurringFlows(projection.recurringFlows().stream()
+                    .map(flow -> String.format("%s %+.2f %s", flow.label(), flow.amount(), flow.cadence()))
+                    .toList())
+                .build())
+            .confidence(projection.confidence())
+            .build();
+    }
+}
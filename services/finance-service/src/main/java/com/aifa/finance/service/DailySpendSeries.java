@@ -0,0 +1,88 @@
+package com.aifa.finance.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Rolling window of daily spend totals kept in a ring buffer.
+ * The window total is maintained on every add, so reading the daily velocity never rescans history.
+ */
+class DailySpendSeries {
+
+    private final int windowDays;
+    private final long[] days;
+    private final double[] amounts;
+    private long latestDay = Long.MIN_VALUE;
+    private long firstDay = Long.MAX_VALUE;
+    private double windowTotal;
+
+    DailySpendSeries(int windowDays) {
+        this.windowDays = windowDays;
+        this.days = new long[windowDays];
+        this.amounts = new double[windowDays];
+        Arrays.fill(days, Long.MIN_VALUE);
+    }
+
+    synchronized void add(LocalDate date, double amount) {
+        long day = date.toEpochDay();
+        advanceTo(day);
+        if (day <= latestDay - windowDays) {
+            return;
+        }
+
+        int slot = slot(day);
+        if (days[slot] != day) {
+            days[slot] = day;
+            amounts[slot] = 0.0;
+        }
+        amounts[slot] += amount;
+        windowTotal += amount;
+        firstDay = Math.min(firstDay, day);
+    }
+
+    /**
+     * Average spend per day over the whole window ending at the given date. Days before the first spend count as
+     * zero, so a single purchase is spread over the window rather than taken as the daily rate.
+     */
+    synchronized double dailyVelocity(LocalDate asOf) {
+        advanceTo(asOf.toEpochDay());
+        return windowTotal / windowDays;
+    }
+
+    /**
+     * Days from the first recorded spend to the given date, inclusive, at most the window
+     */
+    synchronized int observedDays(LocalDate asOf) {
+        long day = asOf.toEpochDay();
+        advanceTo(day);
+        if (firstDay == Long.MAX_VALUE || firstDay > day) {
+            return 0;
+        }
+        return (int) Math.min(windowDays, day - firstDay + 1);
+    }
+
+    private void advanceTo(long day) {
+        if (latestDay == Long.MIN_VALUE) {
+            latestDay = day;
+            return;
+        }
+        if (day <= latestDay) {
+            return;
+        }
+
+        long steps = Math.min(day - latestDay, windowDays);
+        for (long d = day - steps + 1; d <= day; d++) {
+            int slot = slot(d);
+            if (days[slot] != Long.MIN_VALUE && days[slot] <= day - windowDays) {
+                windowTotal -= amounts[slot];
+                amounts[slot] = 0.0;
+                days[slot] = Long.MIN_VALUE;
+            }
+        }
+        latestDay = day;
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) windowDays);
+    }
+}
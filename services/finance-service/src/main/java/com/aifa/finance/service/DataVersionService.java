@@ -0,0 +1,44 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.repository.AccountRepository;
+import com.aifa.finance.repository.BudgetRepository;
+import com.aifa.finance.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Fingerprint of a user's financial data.
+ * Built from the row count and latest update time of transactions, accounts and budgets, so any insert,
+ * update or delete yields a new version. Read from the database, so every instance agrees on it.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final BudgetRepository budgetRepository;
+
+    public String currentVersion(Long userId) {
+        String stamp = stamp(transactionRepository.findVersionStamp(userId))
+            + "|" + stamp(accountRepository.findVersionStamp(userId))
+            + "|" + stamp(budgetRepository.findVersionStamp(userId));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(stamp.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String stamp(List<Object[]> rows) {
+        Object[] row = rows.get(0);
+        return row[0] + "@" + row[1];
+    }
+}
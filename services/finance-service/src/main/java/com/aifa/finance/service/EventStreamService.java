@@ -0,0 +1,250 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.event.BudgetAlertRaisedEvent;
+import com.aifa.finance.event.NotificationCreatedEvent;
+import com.aifa.finance.event.TransactionChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-Sent Events fan-out per user.
+ * Idle connections hold no thread (servlet async); sends run on virtual threads, and a single
+ * scheduler writes heartbeats. Each user keeps a short replay buffer, retained for a while after the
+ * last connection closes, so a reconnecting client can resume from its Last-Event-ID.
+ */
+@Service
+@Slf4j
+public class EventStreamService {
+
+    private final ConcurrentMap<Long, UserStream> streams = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("sse-heartbeat").factory());
+    // Seeded from the clock so ids keep increasing across restarts and stale Last-Event-IDs are detected
+    private final AtomicLong eventIds = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final long timeoutMillis;
+    private final long retentionMillis;
+    private final int replayBufferSize;
+
+    public EventStreamService(@Value("${stream.sse.timeout:PT30M}") Duration timeout,
+                              @Value("${stream.sse.heartbeat:PT25S}") Duration heartbeatInterval,
+                              @Value("${stream.sse.retention:PT5M}") Duration retention,
+                              @Value("${stream.sse.replay-buffer:100}") int replayBufferSize) {
+        this.timeoutMillis = timeout.toMillis();
+        this.retentionMillis = retention.toMillis();
+        this.replayBufferSize = replayBufferSize;
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        streams.values().forEach(stream -> stream.connections.forEach(c -> c.emitter.complete()));
+        sender.shutdown();
+    }
+
+    /**
+     * Open a stream for a user, replaying anything buffered after the given event id
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        boolean[] created = new boolean[1];
+        SseEmitter emitter = newEmitter();
+        Connection connection = new Connection(emitter, lastEventId != null ? lastEventId : eventIds.get());
+        // Joined under the map's lock for this user, which the heartbeat also takes before dropping an expired stream
+        UserStream stream = streams.compute(userId, (id, existing) -> {
+            UserStream joined = existing;
+            if (joined == null) {
+                created[0] = true;
+                joined = new UserStream();
+            }
+            joined.connections.add(connection);
+            return joined;
+        });
+
+        emitter.onCompletion(() -> remove(stream, connection));
+        emitter.onTimeout(() -> remove(stream, connection));
+        emitter.onError(e -> remove(stream, connection));
+
+        // Events after lastEventId may be gone: tell the client to refetch instead of silently skipping them
+        boolean gap = lastEventId != null && (created[0] || stream.hasDroppedAfter(lastEventId));
+        sender.execute(() -> {
+            if (gap) {
+                sendControl(stream, connection, "resync");
+            }
+            flush(stream, connection);
+        });
+        return emitter;
+    }
+
+    public void publish(Long userId, String eventName, Object data) {
+        UserStream stream = streams.get(userId);
+        if (stream == null) {
+            return;
+        }
+        stream.append(new StreamEvent(eventIds.incrementAndGet(), eventName, data), replayBufferSize);
+        for (Connection connection : stream.connections) {
+            sender.execute(() -> flush(stream, connection));
+        }
+    }
+
+    public int connectionCount() {
+        return streams.values().stream().mapToInt(stream -> stream.connections.size()).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        publish(event.notification().userId(), "notification", event.notification());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBudgetAlert(BudgetAlertRaisedEvent event) {
+        publish(event.userId(), "budget-alert", event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        if (event.transactionDate() == null) {
+            return;
+        }
+        double income = event.isExpense() ? 0.0 : event.amount();
+        double expenses = event.isExpense() ? event.amount() : 0.0;
+        publish(event.userId(), "summary-delta", new SummaryDelta(
+            YearMonth.from(event.transactionDate()).toString(), income, expenses, event.transactionId()));
+    }
+
+    /**
+     * Send every buffered event the connection has not seen yet, in id order
+     */
+    private void flush(UserStream stream, Connection connection) {
+        connection.lock.lock();
+        try {
+            for (StreamEvent event : stream.eventsAfter(connection.lastSentId)) {
+                connection.emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.name())
+                    .data(event.data()));
+                connection.lastSentId = event.id();
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(stream, connection);
+        } finally {
+            connection.lock.unlock();
+        }
+    }
+
+    private void sendControl(UserStream stream, Connection connection, String name) {
+        connection.lock.lock();
+        try {
+            connection.emitter.send(SseEmitter.event().name(name).data(""));
+        } catch (IOException | IllegalStateException e) {
+            remove(stream, connection);
+        } finally {
+            connection.lock.unlock();
+        }
+    }
+
+    private void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        for (Long userId : streams.keySet()) {
+            streams.computeIfPresent(userId, (id, stream) -> stream.isExpired(now, retentionMillis) ? null : stream);
+        }
+        streams.forEach((userId, stream) -> {
+            for (Connection connection : stream.connections) {
+                sender.execute(() -> {
+                    if (!connection.lock.tryLock()) {
+                        return;
+                    }
+                    try {
+                        connection.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        remove(stream, connection);
+                    } finally {
+                        connection.lock.unlock();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Emitter for a new connection; tests substitute one that records what is sent
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void remove(UserStream stream, Connection connection) {
+        if (stream.connections.remove(connection)) {
+            stream.lastActiveAt = System.currentTimeMillis();
+        }
+    }
+
+    public record SummaryDelta(String period, double incomeDelta, double expenseDelta, Long transactionId) {}
+
+    private record StreamEvent(long id, String name, Object data) {}
+
+    private static final class Connection {
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long lastSentId;
+
+        private Connection(SseEmitter emitter, long lastSentId) {
+            this.emitter = emitter;
+            this.lastSentId = lastSentId;
+        }
+    }
+
+    private static final class UserStream {
+        private final CopyOnWriteArrayList<Connection> connections = new CopyOnWriteArrayList<>();
+        private final ArrayDeque<StreamEvent> buffer = new ArrayDeque<>();
+        private long droppedUpTo;
+        private volatile long lastActiveAt = System.currentTimeMillis();
+
+        synchronized void append(StreamEvent event, int capacity) {
+            buffer.addLast(event);
+            while (buffer.size() > capacity) {
+                droppedUpTo = buffer.removeFirst().id();
+            }
+        }
+
+        synchronized List<StreamEvent> eventsAfter(long id) {
+            List<StreamEvent> pending = new ArrayList<>();
+            for (StreamEvent event : buffer) {
+                if (event.id() > id) {
+                    pending.add(event);
+                }
+            }
+            return pending;
+        }
+
+        synchronized boolean hasDroppedAfter(long id) {
+            return droppedUpTo > id;
+        }
+
+        boolean isExpired(long now, long retentionMillis) {
+            return connections.isEmpty() && now - lastActiveAt > retentionMillis;
+        }
+    }
+}
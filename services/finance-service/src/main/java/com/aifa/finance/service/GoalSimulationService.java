@@ -0,0 +1,188 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.FinancialGoal;
+import com.aifa.finance.dto.GoalPredictionResponse;
+import com.aifa.finance.dto.GoalSimulationResponse;
+import com.aifa.finance.forecast.GoalSimulation;
+import com.aifa.finance.forecast.GoalSimulator;
+import com.aifa.finance.repository.FinancialGoalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Goal-achievement probabilities from the in-process Monte Carlo {@link GoalSimulator}.
+ * Seeds derive from the inputs, so the same goal yields the same figures on every dashboard refresh.
+ * Simulation is CPU-bound, so it runs on a dedicated pool of platform threads sized to the cores rather than on
+ * the common fork-join pool; when the pool's queue is full the requesting thread runs the chunk itself.
+ */
+@Service
+public class GoalSimulationService {
+
+    private static final int CURVE_STEP_MONTHS = 3;
+
+    private final FinancialGoalRepository financialGoalRepository;
+    private final Timer timer;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${goal.simulation.paths:20000}")
+    private int paths;
+
+    @Value("${goal.simulation.horizon-months:480}")
+    private int horizonMonths;
+
+    @Value("${goal.simulation.volatility:0.15}")
+    private double volatility;
+
+    @Value("${goal.simulation.expected-return-rate:0.07}")
+    private double defaultExpectedReturnRate;
+
+    public GoalSimulationService(FinancialGoalRepository financialGoalRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${goal.simulation.workers:0}") int workers,
+                                 @Value("${goal.simulation.queue-capacity:256}") int queueCapacity) {
+        this.financialGoalRepository = financialGoalRepository;
+        this.timer = Timer.builder("goal.simulation.duration")
+            .description("Time to simulate one goal")
+            .register(meterRegistry);
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("goal-simulation-", 0).daemon().factory(),
+            // Unlike CallerRunsPolicy this also runs chunks after shutdown, so a simulation never waits on a dropped one
+            (chunk, pool) -> chunk.run());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Simulate every open goal of a user
+     */
+    @Transactional(readOnly = true)
+    public List<GoalSimulationResponse> simulateGoals(Long userId) {
+        LocalDate today = LocalDate.now();
+        return financialGoalRepository.findByUserIdOrderByTargetDateAsc(userId).stream()
+            .filter(goal -> goal.getStatus() != FinancialGoal.GoalStatus.COMPLETED
+                && goal.getStatus() != FinancialGoal.GoalStatus.CANCELLED)
+            .map(goal -> simulateGoal(goal, today))
+            .toList();
+    }
+
+    /**
+     * Prediction for ad-hoc inputs, in the shape the AI service used to return
+     */
+    public GoalPredictionResponse predict(double currentSavings, double monthlyContribution,
+                                          double targetAmount, double expectedReturnRate) {
+        GoalSimulation simulation = run(currentSavings, monthlyContribution, targetAmount, expectedReturnRate);
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> forecast = new LinkedHashMap<>();
+        forecast.put("paths", simulation.paths());
+        forecast.put("horizonMonths", simulation.horizonMonths());
+        forecast.put("probabilityWithin1Year", simulation.probabilityWithin(12));
+        forecast.put("probabilityWithin5Years", simulation.probabilityWithin(60));
+        forecast.put("probabilityWithinHorizon", simulation.probabilityWithin(simulation.horizonMonths()));
+        forecast.put("p10CompletionDate", completionDate(simulation, 0.10, today));
+        forecast.put("p50CompletionDate", completionDate(simulation, 0.50, today));
+        forecast.put("p90CompletionDate", completionDate(simulation, 0.90, today));
+        forecast.put("successCurve", successCurve(simulation, today, simulation.horizonMonths()));
+
+        Integer medianMonths = simulation.monthsToReach(0.50);
+        GoalPredictionResponse.InsightResponse insight = GoalPredictionResponse.InsightResponse.builder()
+            .type("goal_projection")
+            .severity(medianMonths == null ? "high" : medianMonths > 120 ? "medium" : "low")
+            .category("savings")
+            .message(medianMonths == null
+                ? "At the current contribution the target is unlikely to be reached within " + simulation.horizonMonths() / 12 + " years."
+                : "Half of simulated outcomes reach the target within " + medianMonths + " months.")
+            .currentAmount(currentSavings)
+            .targetAmount(targetAmount)
+            .build();
+
+        return GoalPredictionResponse.builder()
+            .forecastId("sim_" + UUID.randomUUID())
+            .timestamp(Instant.now().toString())
+            .forecast(forecast)
+            .insights(List.of(insight))
+            .confidence(confidence(simulation))
+            .build();
+    }
+
+    public GoalPredictionResponse predict(FinancialGoal goal) {
+        return predict(amount(goal.getCurrentAmount()), amount(goal.getMonthlyContribution()),
+            amount(goal.getTargetAmount()), defaultExpectedReturnRate);
+    }
+
+    private GoalSimulationResponse simulateGoal(FinancialGoal goal, LocalDate today) {
+        GoalSimulation simulation = run(amount(goal.getCurrentAmount()), amount(goal.getMonthlyContribution()),
+            amount(goal.getTargetAmount()), defaultExpectedReturnRate);
+        int monthsToTarget = (int) Math.max(0, ChronoUnit.MONTHS.between(today, goal.getTargetDate()));
+        Integer p90 = simulation.monthsToReach(0.90);
+        int curveMonths = Math.min(simulation.horizonMonths(), Math.max(monthsToTarget, p90 != null ? p90 : 0));
+
+        return new GoalSimulationResponse(
+            goal.getId(),
+            goal.getGoalName(),
+            goal.getTargetAmount(),
+            goal.getCurrentAmount(),
+            goal.getMonthlyContribution(),
+            goal.getTargetDate(),
+            simulation.probabilityWithin(monthsToTarget),
+            completionDate(simulation, 0.10, today),
+            completionDate(simulation, 0.50, today),
+            completionDate(simulation, 0.90, today),
+            successCurve(simulation, today, curveMonths),
+            simulation.paths()
+        );
+    }
+
+    private GoalSimulation run(double currentSavings, double monthlyContribution, double targetAmount, double expectedReturnRate) {
+        long seed = Objects.hash(currentSavings, monthlyContribution, targetAmount, expectedReturnRate, volatility);
+        return timer.record(() -> GoalSimulator.simulate(currentSavings, monthlyContribution, targetAmount,
+            expectedReturnRate, volatility, horizonMonths, paths, seed, executor));
+    }
+
+    private static List<GoalSimulationResponse.SuccessPoint> successCurve(GoalSimulation simulation, LocalDate today, int months) {
+        List<GoalSimulationResponse.SuccessPoint> curve = new ArrayList<>(months / CURVE_STEP_MONTHS + 2);
+        for (int m = CURVE_STEP_MONTHS; m < months; m += CURVE_STEP_MONTHS) {
+            curve.add(new GoalSimulationResponse.SuccessPoint(today.plusMonths(m), simulation.probabilityWithin(m)));
+        }
+        curve.add(new GoalSimulationResponse.SuccessPoint(today.plusMonths(months), simulation.probabilityWithin(months)));
+        return curve;
+    }
+
+    private static LocalDate completionDate(GoalSimulation simulation, double percentile, LocalDate today) {
+        Integer months = simulation.monthsToReach(percentile);
+        return months != null ? today.plusMonths(months) : null;
+    }
+
+    /**
+     * One minus the 95% sampling half-width of the estimate at the median, so more paths mean more confidence
+     */
+    private static double confidence(GoalSimulation simulation) {
+        return 1 - 1.96 * Math.sqrt(0.25 / simulation.paths());
+    }
+
+    private static double amount(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.ai.AiResponseCache;
+import com.aifa.finance.domain.FinancialGoal;
+import com.aifa.finance.dto.CashFlowForecastResponse;
+import com.aifa.finance.dto.DashboardInsightsResponse;
+import com.aifa.finance.dto.GoalPredictionResponse;
+import com.aifa.finance.dto.RiskAssessmentResponse;
+import com.aifa.finance.insight.InsightRefresher;
+import com.aifa.finance.repository.FinancialGoalRepository;
+import com.aifa.finance.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Spending insights, risk assessment and simulated goal predictions.
+ * The dashboard loads the user's transaction window once, shares it with the cash-flow forecast and the risk
+ * assessment, and runs every analysis concurrently on virtual threads. It answers at a shared deadline with
+ * whatever has finished; late parts are listed as pending. Late AI enrichment calls keep running and land in
+ * {@link AiResponseCache}, so the next refresh usually has them.
+ */
+@Service
+@Slf4j
+public class InsightsService {
+
+    private final AuthService authService;
+    private final CashFlowForecastService cashFlowForecastService;
+    private final FinancialGoalRepository financialGoalRepository;
+    private final TransactionRepository transactionRepository;
+    private final GoalSimulationService goalSimulationService;
+    private final RiskAssessmentService riskAssessmentService;
+    private final InsightRefresher insightRefresher;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${insights.dashboard.deadline:PT2S}")
+    private Duration dashboardDeadline;
+
+    public InsightsService(AuthService authService,
+                           CashFlowForecastService cashFlowForecastService,
+                           FinancialGoalRepository financialGoalRepository,
+                           TransactionRepository transactionRepository,
+                           GoalSimulationService goalSimulationService,
+                           RiskAssessmentService riskAssessmentService,
+                           InsightRefresher insightRefresher) {
+        this.authService = authService;
+        this.cashFlowForecastService = cashFlowForecastService;
+        this.financialGoalRepository = financialGoalRepository;
+        this.transactionRepository = transactionRepository;
+        this.goalSimulationService = goalSimulationService;
+        this.riskAssessmentService = riskAssessmentService;
+        this.insightRefresher = insightRefresher;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The user's precomputed insight set, covering their full history
+     */
+    public List<Map<String, String>> spendingInsights(Jwt jwt) {
+        return spendingInsights(authService.getOrCreateUser(jwt).getId());
+    }
+
+    public CompletableFuture<RiskAssessmentResponse> riskAssessment(Jwt jwt) {
+        return riskAssessmentService.assess(authService.getOrCreateUser(jwt).getId(), jwt);
+    }
+
+    public GoalPredictionResponse goalPrediction(double currentSavings,
+                                                 double monthlyContribution,
+                                                 double targetAmount,
+                                                 double expectedReturnRate) {
+        return goalSimulationService.predict(currentSavings, monthlyContribution, targetAmount, expectedReturnRate);
+    }
+
+    /**
+     * Every dashboard insight at once, bounded by the dashboard deadline.
+     * The goal prediction covers the user's nearest upcoming goal and is left out when there is none.
+     */
+    public DashboardInsightsResponse dashboard(Jwt jwt, int monthsAhead) {
+        long started = System.nanoTime();
+        Long userId = authService.getOrCreateUser(jwt).getId();
+        LocalDate today = LocalDate.now();
+        LocalDate cashFlowSince = cashFlowForecastService.historyStart(today);
+        LocalDate riskSince = riskAssessmentService.historyStart(today);
+        LocalDate since = cashFlowSince.isBefore(riskSince) ? cashFlowSince : riskSince;
+        TransactionWindow window = TransactionWindow.load(transactionRepository, userId, since, today);
+
+        Map<String, CompletableFuture<?>> parts = new LinkedHashMap<>();
+        CompletableFuture<List<Map<String, String>>> insights = CompletableFuture.supplyAsync(
+            () -> spendingInsights(userId), executor);
+        CompletableFuture<CashFlowForecastResponse> cashFlow = CompletableFuture.supplyAsync(
+            () -> cashFlowForecastService.forecast(userId, monthsAhead, window), executor);
+        CompletableFuture<RiskAssessmentResponse> risk = CompletableFuture
+            .supplyAsync(() -> riskAssessmentService.assess(userId, jwt, window), executor)
+            .thenCompose(assessment -> assessment);
+        CompletableFuture<Optional<GoalPredictionResponse>> goal = CompletableFuture.supplyAsync(
+            () -> nearestGoal(userId).map(goalSimulationService::predict), executor);
+        parts.put("insights", insights);
+        parts.put("cashFlowForecast", cashFlow);
+        parts.put("riskAssessment", risk);
+        parts.put("goalPrediction", goal);
+
+        try {
+            long remaining = dashboardDeadline.toNanos() - (System.nanoTime() - started);
+            CompletableFuture.allOf(parts.values().toArray(CompletableFuture[]::new)).get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Answer with whatever finished; each part is inspected below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<String> pending = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        parts.forEach((name, part) -> {
+            if (!part.isDone()) {
+                pending.add(name);
+            } else if (part.isCompletedExceptionally()) {
+                failed.add(name);
+                log.warn("Dashboard part {} for user {} failed: {}", name, userId, part.exceptionNow().getMessage());
+            }
+        });
+        // Nothing is interrupted: late parts run to completion and their results are dropped, while late AI calls
+        // land in the cache for the next refresh. The window is loaded up front, so what runs late is mostly local work.
+
+        return new DashboardInsightsResponse(
+            completed(insights),
+            completed(cashFlow),
+            completed(risk),
+            Optional.ofNullable(completed(goal)).flatMap(prediction -> prediction).orElse(null),
+            pending,
+            failed,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)
+        );
+    }
+
+    private List<Map<String, String>> spendingInsights(Long userId) {
+        return insightRefresher.insights(userId).stream()
+            .map(insight -> Map.of("type", insight.type(), "message", insight.message()))
+            .toList();
+    }
+
+    private Optional<FinancialGoal> nearestGoal(Long userId) {
+        return financialGoalRepository.findUpcomingGoals(userId, LocalDate.now()).stream()
+            .filter(goal -> goal.getStatus() != FinancialGoal.GoalStatus.COMPLETED
+                && goal.getStatus() != FinancialGoal.GoalStatus.CANCELLED)
+            .findFirst();
+    }
+
+    private static <T> T completed(CompletableFuture<T> part) {
+        return part.isDone() && !part.isCompletedExceptionally() ? part.join() : null;
+    }
+}
@@ -12,8 +12,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,11 +24,13 @@ public class InvestmentService {
 
     private final InvestmentRepository investmentRepository;
     private final UserRepository userRepository;
+    private final PortfolioService portfolioService;
 
     @Transactional
     public InvestmentResponse createInvestment(Long userId, InvestmentRequest request) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        portfolioService.lockForHoldingChange(userId);
 
         Investment investment = Investment.builder()
             .user(user)
@@ -48,6 +52,8 @@ public class InvestmentService {
             .build();
 
         investment = investmentRepository.save(investment);
+        portfolioService.applyHoldingChange(userId, accountId(investment),
+            stored(investment.getTotalCost()), stored(investment.getCurrentValue()), 1);
         return toResponse(investment);
     }
 
@@ -84,8 +90,10 @@ public class InvestmentService {
 
     @Transactional
     public InvestmentResponse updateInvestment(Long id, InvestmentRequest request) {
-        Investment investment = investmentRepository.findById(id)
+        Investment investment = findWithPortfoliosLocked(id)
             .orElseThrow(() -> new ResourceNotFoundException("Investment not found"));
+        BigDecimal oldCost = stored(investment.getTotalCost());
+        BigDecimal oldValue = stored(investment.getCurrentValue());
 
         investment.setSymbol(request.symbol());
         investment.setName(request.name());
@@ -97,14 +105,21 @@ public class InvestmentService {
         investment.setCurrency(request.currency() != null ? request.currency() : "USD");
         investment.setNotes(request.notes());
         investment.setLastUpdated(LocalDateTime.now());
+        investment.calculateMetrics();
 
         investment = investmentRepository.save(investment);
+        portfolioService.applyHoldingChange(investment.getUser().getId(), accountId(investment),
+            stored(investment.getTotalCost()).subtract(oldCost), stored(investment.getCurrentValue()).subtract(oldValue), 0);
         return toResponse(investment);
     }
 
     @Transactional
     public void deleteInvestment(Long id) {
-        investmentRepository.deleteById(id);
+        findWithPortfoliosLocked(id).ifPresent(investment -> {
+            investmentRepository.delete(investment);
+            portfolioService.applyHoldingChange(investment.getUser().getId(), accountId(investment),
+                stored(investment.getTotalCost()).negate(), stored(investment.getCurrentValue()).negate(), -1);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -127,17 +142,41 @@ public class InvestmentService {
 
     @Transactional
     public InvestmentResponse updatePrice(Long id, BigDecimal newPrice) {
-        Investment investment = investmentRepository.findById(id)
+        Investment investment = findWithPortfoliosLocked(id)
             .orElseThrow(() -> new ResourceNotFoundException("Investment not found"));
+        BigDecimal oldValue = stored(investment.getCurrentValue());
 
         investment.setCurrentPrice(newPrice);
         investment.setLastUpdated(LocalDateTime.now());
         investment.calculateMetrics();
 
         investment = investmentRepository.save(investment);
+        portfolioService.applyHoldingChange(investment.getUser().getId(), accountId(investment),
+            BigDecimal.ZERO, stored(investment.getCurrentValue()).subtract(oldValue), 0);
         return toResponse(investment);
     }
 
+    /**
+     * Load an investment after locking its owner's portfolios, the order price batches lock in, so an edit and a
+     * batch never wait on each other's rows; the row is read under the locks, so its value is the one to adjust from
+     */
+    private Optional<Investment> findWithPortfoliosLocked(Long id) {
+        Optional<Long> userId = investmentRepository.findUserIdById(id);
+        userId.ifPresent(portfolioService::lockForHoldingChange);
+        return userId.flatMap(owner -> investmentRepository.findById(id));
+    }
+
+    private static Long accountId(Investment investment) {
+        return investment.getAccount() != null ? investment.getAccount().getId() : null;
+    }
+
+    /**
+     * An amount as the 2-decimal columns store it, which portfolio totals are sums of
+     */
+    private static BigDecimal stored(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+
     private InvestmentResponse toResponse(Investment investment) {
         return new InvestmentResponse(
             investment.getId(),
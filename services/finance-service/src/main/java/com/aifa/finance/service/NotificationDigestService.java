@@ -0,0 +1,154 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.Notification;
+import com.aifa.finance.domain.NotificationDigestItem;
+import com.aifa.finance.domain.User;
+import com.aifa.finance.model.UserPreferences;
+import com.aifa.finance.repository.NotificationDigestItemRepository;
+import com.aifa.finance.repository.UserPreferencesRepository;
+import com.aifa.finance.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Folds held-back low-priority notifications into one digest per user.
+ * Users with pending items are walked in id-ordered partitions, each digested in its own transaction,
+ * once their oldest item is older than the interval from their preferences.
+ */
+@Service
+@Slf4j
+public class NotificationDigestService {
+
+    private final NotificationDigestItemRepository digestItemRepository;
+    private final UserPreferencesRepository userPreferencesRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notification.digest.partition-size:200}")
+    private int partitionSize;
+
+    @Value("${notification.digest.top-items:5}")
+    private int topItems;
+
+    @Value("${notification.digest.default-interval:PT1H}")
+    private Duration defaultInterval;
+
+    public NotificationDigestService(NotificationDigestItemRepository digestItemRepository,
+                                     UserPreferencesRepository userPreferencesRepository,
+                                     UserRepository userRepository,
+                                     NotificationService notificationService,
+                                     PlatformTransactionManager transactionManager) {
+        this.digestItemRepository = digestItemRepository;
+        this.userPreferencesRepository = userPreferencesRepository;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.digest.poll:PT5M}", initialDelayString = "${notification.digest.poll:PT5M}")
+    public void buildDueDigests() {
+        LocalDateTime now = LocalDateTime.now();
+        long afterUserId = 0;
+        int digests = 0;
+        while (true) {
+            List<Long> userIds = digestItemRepository.findPendingUserIdsAfter(afterUserId, PageRequest.of(0, partitionSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            afterUserId = userIds.get(userIds.size() - 1);
+            try {
+                Integer created = transactionTemplate.execute(status -> digestPartition(userIds, now));
+                digests += created != null ? created : 0;
+            } catch (RuntimeException e) {
+                log.warn("Digest partition for users {}..{} failed, will retry next run: {}",
+                    userIds.get(0), afterUserId, e.getMessage());
+            }
+        }
+        if (digests > 0) {
+            log.info("Built {} notification digest(s)", digests);
+        }
+    }
+
+    private int digestPartition(List<Long> userIds, LocalDateTime now) {
+        Map<Long, UserPreferences> preferences = userPreferencesRepository.findByUserIds(userIds).stream()
+            .collect(Collectors.toMap(p -> p.getUser().getId(), Function.identity()));
+        Map<Long, List<NotificationDigestItem>> pendingByUser = digestItemRepository.findByUserIds(userIds).stream()
+            .collect(Collectors.groupingBy(item -> item.getUser().getId(), LinkedHashMap::new, Collectors.toList()));
+
+        int created = 0;
+        for (Map.Entry<Long, List<NotificationDigestItem>> entry : pendingByUser.entrySet()) {
+            Long userId = entry.getKey();
+            List<NotificationDigestItem> pending = entry.getValue();
+            UserPreferences userPreferences = preferences.get(userId);
+
+            // Users who switched digests off get whatever is still pending right away
+            boolean digestEnabled = userPreferences == null || !Boolean.FALSE.equals(userPreferences.getNotificationDigest());
+            if (digestEnabled && pending.get(0).getCreatedAt().plus(interval(userPreferences)).isAfter(now)) {
+                continue;
+            }
+
+            List<Long> ids = pending.stream().map(NotificationDigestItem::getId).toList();
+            if (digestItemRepository.deleteByIds(ids) != ids.size()) {
+                throw new IllegalStateException("Digest items for user " + userId + " were claimed concurrently");
+            }
+            notificationService.deliver(buildDigest(userRepository.getReferenceById(userId), pending));
+            created++;
+        }
+        return created;
+    }
+
+    private Duration interval(UserPreferences preferences) {
+        return preferences != null && preferences.getDigestIntervalMinutes() != null
+            ? Duration.ofMinutes(preferences.getDigestIntervalMinutes())
+            : defaultInterval;
+    }
+
+    private Notification buildDigest(User user, List<NotificationDigestItem> pending) {
+        Map<Notification.NotificationType, Long> counts = pending.stream()
+            .collect(Collectors.groupingBy(NotificationDigestItem::getNotificationType,
+                () -> new EnumMap<>(Notification.NotificationType.class), Collectors.counting()));
+
+        StringBuilder message = new StringBuilder(counts.entrySet().stream()
+            .map(e -> e.getValue() + " " + label(e.getKey(), e.getValue()))
+            .collect(Collectors.joining(", ")));
+        int shown = Math.min(topItems, pending.size());
+        for (int i = pending.size() - 1; i >= pending.size() - shown; i--) {
+            message.append("\n- ").append(pending.get(i).getTitle());
+        }
+        if (pending.size() > shown) {
+            message.append("\n...and ").append(pending.size() - shown).append(" more");
+        }
+
+        return Notification.builder()
+            .user(user)
+            .notificationType(Notification.NotificationType.DIGEST)
+            .title(pending.size() == 1 ? "1 update" : pending.size() + " updates")
+            .message(message.toString())
+            .priority(Notification.NotificationPriority.NORMAL)
+            .referenceType("DIGEST")
+            .isRead(false)
+            .isSent(false)
+            .build();
+    }
+
+    private static String label(Notification.NotificationType type, long count) {
+        String label = type.name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        return count == 1 ? label : label + "s";
+    }
+}
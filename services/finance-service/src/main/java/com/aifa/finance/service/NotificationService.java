@@ -1,47 +1,101 @@
 package com.aifa.finance.service;
 
 import com.aifa.finance.domain.Notification;
+import com.aifa.finance.domain.NotificationDigestItem;
 import com.aifa.finance.domain.User;
 import com.aifa.finance.dto.NotificationRequest;
 import com.aifa.finance.dto.NotificationResponse;
+import com.aifa.finance.event.NotificationCreatedEvent;
 import com.aifa.finance.exception.ResourceNotFoundException;
+import com.aifa.finance.notification.NotificationMessage;
+import com.aifa.finance.repository.NotificationDigestItemRepository;
 import com.aifa.finance.repository.NotificationRepository;
+import com.aifa.finance.repository.UserPreferencesRepository;
 import com.aifa.finance.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    // Chatty, low-value types that are folded into the user's digest unless marked urgent
+    private static final Set<Notification.NotificationType> DIGESTIBLE_TYPES = EnumSet.of(
+        Notification.NotificationType.BUDGET_ALERT,
+        Notification.NotificationType.EXPENSE_ALERT,
+        Notification.NotificationType.TRANSACTION_ALERT
+    );
+
     private final NotificationRepository notificationRepository;
+    private final NotificationDigestItemRepository digestItemRepository;
+    private final UserPreferencesRepository userPreferencesRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadNotificationCounter unreadCounter;
 
     @Transactional
     public NotificationResponse createNotification(Long userId, NotificationRequest request) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        Notification.NotificationType type = Notification.NotificationType.valueOf(request.notificationType());
+        Notification.NotificationPriority priority = Notification.NotificationPriority.valueOf(request.priority());
+
+        if (isDigestible(userId, type, priority)) {
+            NotificationDigestItem item = digestItemRepository.save(NotificationDigestItem.builder()
+                .user(user)
+                .notificationType(type)
+                .title(request.title())
+                .message(request.message())
+                .referenceId(request.referenceId())
+                .referenceType(request.referenceType())
+                .build());
+            return toPendingResponse(item, priority, request.actionUrl());
+        }
+
         Notification notification = Notification.builder()
             .user(user)
-            .notificationType(Notification.NotificationType.valueOf(request.notificationType()))
+            .notificationType(type)
             .title(request.title())
             .message(request.message())
-            .priority(Notification.NotificationPriority.valueOf(request.priority()))
+            .priority(priority)
             .referenceId(request.referenceId())
             .referenceType(request.referenceType())
             .actionUrl(request.actionUrl())
             .isRead(false)
             .isSent(false)
             .build();
+        return toResponse(deliver(notification));
+    }
 
+    /**
+     * Persist a notification and hand it to delivery once the transaction commits
+     */
+    @Transactional
+    public Notification deliver(Notification notification) {
         notification = notificationRepository.save(notification);
-        return toResponse(notification);
+        unreadCounter.adjustAfterCommit(notification.getUser().getId(), 1);
+        eventPublisher.publishEvent(new NotificationCreatedEvent(NotificationMessage.from(notification)));
+        return notification;
+    }
+
+    private boolean isDigestible(Long userId, Notification.NotificationType type, Notification.NotificationPriority priority) {
+        if (!DIGESTIBLE_TYPES.contains(type)
+                || priority == Notification.NotificationPriority.HIGH
+                || priority == Notification.NotificationPriority.CRITICAL) {
+            return false;
+        }
+        return userPreferencesRepository.findByUserId(userId)
+            .map(preferences -> !Boolean.FALSE.equals(preferences.getNotificationDigest()))
+            .orElse(true);
     }
 
     @Transactional(readOnly = true)
@@ -62,7 +116,7 @@ public class NotificationService {
 
     @Transactional(readOnly = true)
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countUnreadByUserId(userId);
+        return unreadCounter.get(userId, () -> notificationRepository.countUnreadByUserId(userId));
     }
 
     @Transactional
@@ -70,27 +124,30 @@ public class NotificationService {
         Notification notification = notificationRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
 
-        notification.setIsRead(true);
-        notification.setReadAt(LocalDateTime.now());
-        notification = notificationRepository.save(notification);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            notification.setIsRead(true);
+            notification.setReadAt(LocalDateTime.now());
+            notification = notificationRepository.save(notification);
+            unreadCounter.adjustAfterCommit(notification.getUser().getId(), -1);
+        }
         return toResponse(notification);
     }
 
     @Transactional
-    public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = notificationRepository
-            .findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-
-        for (Notification notification : unreadNotifications) {
-            notification.setIsRead(true);
-            notification.setReadAt(LocalDateTime.now());
-        }
-        notificationRepository.saveAll(unreadNotifications);
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+        unreadCounter.adjustAfterCommit(userId, -updated);
+        return updated;
     }
 
     @Transactional
     public void deleteNotification(Long id) {
-        notificationRepository.deleteById(id);
+        notificationRepository.findById(id).ifPresent(notification -> {
+            notificationRepository.delete(notification);
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unreadCounter.adjustAfterCommit(notification.getUser().getId(), -1);
+            }
+        });
     }
 
     private NotificationResponse toResponse(Notification notification) {
@@ -110,4 +167,24 @@ public class NotificationService {
             notification.getSentAt()
         );
     }
+
+    private NotificationResponse toPendingResponse(NotificationDigestItem item,
+                                                   Notification.NotificationPriority priority,
+                                                   String actionUrl) {
+        return new NotificationResponse(
+            null,
+            item.getNotificationType().name(),
+            item.getTitle(),
+            item.getMessage(),
+            false,
+            false,
+            priority.name(),
+            item.getReferenceId(),
+            item.getReferenceType(),
+            actionUrl,
+            item.getCreatedAt(),
+            null,
+            null
+        );
+    }
 }
@@ -0,0 +1,80 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.repository.PortfolioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Nightly recomputation of portfolio totals from investments, correcting drift in the delta-maintained aggregates.
+ * Users are taken in keyset pages; each page locks its portfolios, recomputes them in one statement and writes
+ * only the rows whose totals differ, so the count of corrected portfolios is a direct measure of drift.
+ */
+@Component
+@Slf4j
+public class PortfolioReconciliationJob {
+
+    private final PortfolioRepository portfolioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter correctedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${portfolio.reconcile.page-size:500}")
+    private int pageSize;
+
+    public PortfolioReconciliationJob(PortfolioRepository portfolioRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.portfolioRepository = portfolioRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.correctedCounter = Counter.builder("portfolio.reconcile.corrected")
+            .description("Portfolios whose stored totals differed from their investments")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${portfolio.reconcile.cron:0 15 3 * * *}")
+    public void reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Portfolio reconciliation skipped: a run is already in progress");
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            long afterUserId = 0;
+            int users = 0;
+            int corrected = 0;
+            while (true) {
+                List<Long> userIds = portfolioRepository.findUserIdsAfter(afterUserId, PageRequest.of(0, pageSize));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                afterUserId = userIds.get(userIds.size() - 1);
+                Long[] page = userIds.toArray(Long[]::new);
+                corrected += transactionTemplate.execute(status -> {
+                    portfolioRepository.lockIdsForUsers(page);
+                    return portfolioRepository.reconcileTotals(page, LocalDateTime.now());
+                });
+                users += userIds.size();
+            }
+            correctedCounter.increment(corrected);
+            if (corrected > 0) {
+                log.warn("Portfolio reconciliation corrected {} portfolio(s) across {} user(s) in {} ms",
+                    corrected, users, System.currentTimeMillis() - started);
+            } else {
+                log.info("Portfolio reconciliation checked {} user(s), no drift, {} ms", users, System.currentTimeMillis() - started);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -46,7 +46,11 @@ public class PortfolioService {
             .build();
 
         portfolio = portfolioRepository.save(portfolio);
-        return toResponse(portfolio);
+        // Start from the user's current holdings; deltas keep the totals current from here on
+        portfolioRepository.reconcileTotals(new Long[] {userId}, LocalDateTime.now());
+        return portfolioRepository.findById(portfolio.getId())
+            .map(this::toResponse)
+            .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found"));
     }
 
     @Transactional(readOnly = true)
@@ -95,6 +99,25 @@ public class PortfolioService {
         return toResponse(portfolio);
     }
 
+    /**
+     * Lock the user's portfolios in id order, as price batches do, ahead of changing one of their holdings
+     */
+    @Transactional
+    public void lockForHoldingChange(Long userId) {
+        portfolioRepository.lockIdsForUser(userId);
+    }
+
+    /**
+     * Adjust the totals of every portfolio covering a holding by the change in its cost, value and count
+     */
+    @Transactional
+    public void applyHoldingChange(Long userId, Long accountId, BigDecimal investedDelta, BigDecimal valueDelta, int countDelta) {
+        if (investedDelta.signum() == 0 && valueDelta.signum() == 0 && countDelta == 0) {
+            return;
+        }
+        portfolioRepository.applyHoldingDelta(userId, accountId, investedDelta, valueDelta, countDelta, LocalDateTime.now());
+    }
+
     private PortfolioResponse toResponse(Portfolio portfolio) {
         return new PortfolioResponse(
             portfolio.getId(),
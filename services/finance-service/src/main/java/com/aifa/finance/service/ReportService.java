@@ -4,14 +4,26 @@ import com.aifa.finance.domain.Report;
 import com.aifa.finance.domain.User;
 import com.aifa.finance.dto.ReportRequest;
 import com.aifa.finance.dto.ReportResponse;
+import com.aifa.finance.event.ReportRequestedEvent;
+import com.aifa.finance.exception.BadRequestException;
 import com.aifa.finance.exception.ResourceNotFoundException;
+import com.aifa.finance.report.ReportEngine;
+import com.aifa.finance.report.ReportFile;
+import com.aifa.finance.report.ReportFileStore;
+import com.aifa.finance.report.ScheduledReportExecutor;
 import com.aifa.finance.repository.ReportRepository;
 import com.aifa.finance.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,16 +35,38 @@ public class ReportService {
     private final ReportRepository reportRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final DataVersionService dataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReportFileStore fileStore;
+    private final ReportEngine reportEngine;
 
+    /**
+     * Create a report and queue it for generation.
+     * A completed report of the same type and range computed from the same data version is reused,
+     * in which case the new report is returned already COMPLETED; otherwise it is returned PENDING.
+     * Types without a generator are rejected before anything is saved.
+     */
     @Transactional
     public ReportResponse generateReport(Long userId, ReportRequest request) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        Report.ReportType reportType = Report.ReportType.valueOf(request.reportType());
+        Report.ReportType reportType = parseType(request.reportType());
 
-        // Placeholder report data
-        String reportData = "{}";
+        // Resolve an open range now so the cache key and the generated data describe the same period
+        LocalDateTime startDate = request.startDate() != null
+            ? request.startDate()
+            : LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        LocalDateTime endDate = request.endDate() != null
+            ? request.endDate()
+            : LocalDate.now().plusDays(1).atStartOfDay().minusSeconds(1);
+
+        String dataVersion = dataVersionService.currentVersion(userId);
+        String fileFormat = fileStore.renders(request.fileFormat()) ? request.fileFormat() : null;
+        Report cached = reportRepository.findCachedResult(userId, reportType, startDate, endDate,
+                dataVersion, Report.ReportStatus.COMPLETED, fileFormat)
+            .filter(hit -> hit.getFilePath() == null || Files.exists(fileStore.resolve(hit.getFilePath())))
+            .orElse(null);
 
         LocalDateTime nextGen = null;
         if (Boolean.TRUE.equals(request.isScheduled()) && request.scheduleFrequency() != null) {
@@ -44,26 +78,44 @@ public class ReportService {
             .reportType(reportType)
             .reportName(request.reportName())
             .description(request.description())
-            .startDate(request.startDate())
-            .endDate(request.endDate())
-            .reportData(reportData)
+            .startDate(startDate)
+            .endDate(endDate)
             .fileFormat(request.fileFormat())
             .isScheduled(request.isScheduled() != null ? request.isScheduled() : false)
             .scheduleFrequency(request.scheduleFrequency())
             .nextGeneration(nextGen)
             .build();
 
+        if (cached != null) {
+            report.setReportData(cached.getReportData());
+            report.setFilePath(fileFormat != null ? cached.getFilePath() : null);
+            report.setDataVersion(dataVersion);
+            report.setStatus(Report.ReportStatus.COMPLETED);
+            report.setCompletedAt(LocalDateTime.now());
+            return toResponse(reportRepository.save(report));
+        }
+
+        report.setStatus(Report.ReportStatus.PENDING);
         report = reportRepository.save(report);
+        eventPublisher.publishEvent(new ReportRequestedEvent(report.getId()));
         return toResponse(report);
     }
 
+    private Report.ReportType parseType(String name) {
+        Report.ReportType type;
+        try {
+            type = Report.ReportType.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Unknown report type: " + name);
+        }
+        if (!reportEngine.supports(type)) {
+            throw new BadRequestException("Report type " + type + " is not supported");
+        }
+        return type;
+    }
+
     private LocalDateTime calculateNextGeneration(String frequency) {
-        return switch (frequency) {
-            case "DAILY" -> LocalDateTime.now().plusDays(1);
-            case "WEEKLY" -> LocalDateTime.now().plusWeeks(1);
-            case "MONTHLY" -> LocalDateTime.now().plusMonths(1);
-            default -> null;
-        };
+        return ScheduledReportExecutor.advance(frequency, LocalDateTime.now());
     }
 
     @Transactional(readOnly = true)
@@ -81,9 +133,40 @@ public class ReportService {
             .orElseThrow(() -> new ResourceNotFoundException("Report not found"));
     }
 
+    @Transactional(readOnly = true)
+    public ReportFile getReportFile(Long reportId) {
+        Report report = reportRepository.findById(reportId)
+            .orElseThrow(() -> new ResourceNotFoundException("Report not found"));
+        if (report.getFilePath() == null) {
+            throw new ResourceNotFoundException("Report has no file");
+        }
+        Path path = fileStore.resolve(report.getFilePath());
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Report file is no longer available");
+        }
+        String fileName = path.getFileName().toString();
+        String extension = fileName.substring(fileName.lastIndexOf('.'));
+        return new ReportFile(path, "report-" + reportId + extension, ReportFileStore.contentType(fileName));
+    }
+
     @Transactional
     public void deleteReport(Long reportId) {
-        reportRepository.deleteById(reportId);
+        Report report = reportRepository.findById(reportId).orElse(null);
+        if (report == null) {
+            return;
+        }
+        reportRepository.delete(report);
+
+        // Cached results share files, so a file goes only with the last report pointing at it
+        String filePath = report.getFilePath();
+        if (filePath != null && !reportRepository.existsByFilePathAndIdNot(filePath, reportId)) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fileStore.delete(filePath);
+                }
+            });
+        }
     }
 
     private ReportResponse toResponse(Report report) {
@@ -100,7 +183,10 @@ public class ReportService {
             report.getGeneratedAt(),
             report.getIsScheduled(),
             report.getScheduleFrequency(),
-            report.getNextGeneration()
+            report.getNextGeneration(),
+            report.getStatus() != null ? report.getStatus().name() : null,
+            report.getErrorMessage(),
+            report.getCompletedAt()
         );
     }
 }
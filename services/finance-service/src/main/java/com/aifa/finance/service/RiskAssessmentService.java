@@ -0,0 +1,240 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.ai.AiResponseCache;
+import com.aifa.finance.ai.TransactionBatch;
+import com.aifa.finance.domain.Account;
+import com.aifa.finance.domain.FinancialGoal;
+import com.aifa.finance.dto.RiskAssessmentResponse;
+import com.aifa.finance.repository.AccountRepository;
+import com.aifa.finance.repository.FinancialGoalRepository;
+import com.aifa.finance.repository.IncomeSourceRepository;
+import com.aifa.finance.repository.TransactionRepository;
+import com.aifa.finance.risk.RiskEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Risk assessment computed locally by {@link RiskEngine} from account balances, income sources, monthly
+ * income and spending, and goal funding. When enabled, the AI service is asked for extra insights with
+ * the real profile; its answer is merged in if it arrives within the enrichment timeout and ignored otherwise.
+ */
+@Service
+@Slf4j
+public class RiskAssessmentService {
+
+    private static final int HISTORY_MONTHS = 12;
+    private static final int ENRICHMENT_TRANSACTIONS = 100;
+
+    private final AccountRepository accountRepository;
+    private final IncomeSourceRepository incomeSourceRepository;
+    private final TransactionRepository transactionRepository;
+    private final FinancialGoalRepository financialGoalRepository;
+    private final TransactionService transactionService;
+    private final AiResponseCache aiResponseCache;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Timer timer;
+
+    @Value("${risk.ai-enrichment.enabled:false}")
+    private boolean enrichmentEnabled;
+
+    @Value("${risk.ai-enrichment.timeout:PT1S}")
+    private Duration enrichmentTimeout;
+
+    public RiskAssessmentService(AccountRepository accountRepository,
+                                 IncomeSourceRepository incomeSourceRepository,
+                                 TransactionRepository transactionRepository,
+                                 FinancialGoalRepository financialGoalRepository,
+                                 TransactionService transactionService,
+                                 AiResponseCache aiResponseCache,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.incomeSourceRepository = incomeSourceRepository;
+        this.transactionRepository = transactionRepository;
+        this.financialGoalRepository = financialGoalRepository;
+        this.transactionService = transactionService;
+        this.aiResponseCache = aiResponseCache;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.timer = Timer.builder("risk.assessment.duration")
+            .description("Time to compute one local risk assessment, queries included")
+            .register(meterRegistry);
+    }
+
+    public CompletableFuture<RiskAssessmentResponse> assess(Long userId, Jwt jwt) {
+        return assess(userId, jwt, null);
+    }
+
+    /**
+     * Assess with the monthly history taken from an already loaded window; without one, or with one that does
+     * not reach back to {@link #historyStart}, the monthly totals are queried
+     */
+    public CompletableFuture<RiskAssessmentResponse> assess(Long userId, Jwt jwt, TransactionWindow window) {
+        long started = System.nanoTime();
+        RiskEngine.Inputs inputs = readOnlyTemplate.execute(status -> loadInputs(userId, window));
+        RiskEngine.Result result = RiskEngine.assess(inputs);
+        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        RiskAssessmentResponse response = toResponse(result);
+        if (!enrichmentEnabled) {
+            return CompletableFuture.completedFuture(response);
+        }
+
+        Map<String, Object> userProfile = Map.of(
+            "debt_to_income_ratio", factorScore(result, "debt"),
+            "monthly_income", inputs.scheduledMonthlyIncome(),
+            "has_emergency_fund", factorScore(result, "liquidity") < RiskEngine.FLAG_THRESHOLD
+        );
+        TransactionBatch transactions = new TransactionBatch(transactionService.listTransactions(jwt, ENRICHMENT_TRANSACTIONS));
+        return aiResponseCache.post(userId, "/ai/predict/risk", Map.of("userProfile", userProfile, "transactions", transactions))
+            .thenApply(ai -> enrich(response, ai))
+            .completeOnTimeout(response, enrichmentTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .exceptionally(e -> {
+                log.debug("Risk enrichment for user {} skipped: {}", userId, e.getMessage());
+                return response;
+            });
+    }
+
+    /**
+     * First day of the complete months the assessment looks back over
+     */
+    public LocalDate historyStart(LocalDate today) {
+        return YearMonth.from(today).minusMonths(HISTORY_MONTHS).atDay(1);
+    }
+
+    private RiskEngine.Inputs loadInputs(Long userId, TransactionWindow window) {
+        double liquid = 0;
+        double debt = 0;
+        for (Object[] row : accountRepository.sumActiveBalancesByType(userId)) {
+            Account.AccountType type = (Account.AccountType) row[0];
+            double balance = ((Number) row[1]).doubleValue();
+            if (type == Account.AccountType.CHECKING || type == Account.AccountType.SAVINGS) {
+                liquid += balance;
+            } else if (type == Account.AccountType.LOAN || type == Account.AccountType.CREDIT_CARD) {
+                debt += balance;
+            }
+        }
+        double scheduledIncome = incomeSourceRepository.sumMonthlyIncomeByUserId(userId).orElse(BigDecimal.ZERO).doubleValue();
+
+        // Complete months only, starting no earlier than the first month with data
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        YearMonth firstMonth = lastMonth.minusMonths(HISTORY_MONTHS - 1);
+        List<Object[]> rows = window != null && window.covers(firstMonth.atDay(1), lastMonth.atEndOfMonth())
+            ? window.sumByMonth(firstMonth.atDay(1), lastMonth.atEndOfMonth())
+            : transactionRepository.sumByMonthBetween(userId, firstMonth.atDay(1), lastMonth.atEndOfMonth());
+        if (!rows.isEmpty()) {
+            YearMonth firstWithData = YearMonth.of(((Number) rows.get(0)[0]).intValue(), ((Number) rows.get(0)[1]).intValue());
+            firstMonth = firstWithData.isAfter(firstMonth) ? firstWithData : firstMonth;
+        }
+        int months = rows.isEmpty() ? 0 : (int) firstMonth.until(lastMonth, ChronoUnit.MONTHS) + 1;
+        double[] incomes = new double[months];
+        double[] expenses = new double[months];
+        for (Object[] row : rows) {
+            int index = (int) firstMonth.until(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()), ChronoUnit.MONTHS);
+            incomes[index] = ((Number) row[2]).doubleValue();
+            expenses[index] = ((Number) row[3]).doubleValue();
+        }
+
+        double required = 0;
+        double planned = 0;
+        LocalDate today = LocalDate.now();
+        for (FinancialGoal goal : financialGoalRepository.findUpcomingGoals(userId, today)) {
+            if (goal.getStatus() == FinancialGoal.GoalStatus.COMPLETED || goal.getStatus() == FinancialGoal.GoalStatus.CANCELLED) {
+                continue;
+            }
+            double remaining = amount(goal.getTargetAmount()) - amount(goal.getCurrentAmount());
+            if (remaining > 0) {
+                required += remaining / Math.max(1, ChronoUnit.MONTHS.between(today, goal.getTargetDate()));
+                planned += amount(goal.getMonthlyContribution());
+            }
+        }
+        return new RiskEngine.Inputs(liquid, debt, scheduledIncome, incomes, expenses, required, planned);
+    }
+
+    private static RiskAssessmentResponse toResponse(RiskEngine.Result result) {
+        List<RiskAssessmentResponse.InsightResponse> insights = new ArrayList<>();
+        for (RiskEngine.Factor factor : result.factors()) {
+            insights.add(RiskAssessmentResponse.InsightResponse.builder()
+                .type("risk_factor")
+                .severity(factor.score() >= RiskEngine.FLAG_THRESHOLD ? "warning" : "info")
+                .category(factor.name())
+                .message(factor.detail())
+                .currentAmount(factor.score())
+                .build());
+        }
+        return RiskAssessmentResponse.builder()
+            .assessmentId("risk_" + UUID.randomUUID())
+            .timestamp(Instant.now().toString())
+            .riskAssessment(RiskAssessmentResponse.RiskAssessment.builder()
+                .overallRiskScore(result.overallScore())
+                .riskFactors(result.riskFactors())
+                .mitigationStrategies(result.mitigationStrategies())
+                .confidenceLevel(result.confidence())
+                .build())
+            .insights(insights)
+            .confidence(result.confidence())
+            .build();
+    }
+
+    /**
+     * Append the AI service's insights to the local assessment; the local score stays authoritative
+     */
+    @SuppressWarnings("unchecked")
+    private static RiskAssessmentResponse enrich(RiskAssessmentResponse response, Map<String, Object> ai) {
+        Object aiInsights = ai.get("insights");
+        if (!(aiInsights instanceof List<?> list)) {
+            return response;
+        }
+        List<RiskAssessmentResponse.InsightResponse> merged = new ArrayList<>(response.getInsights());
+        for (Object item : list) {
+            if (item instanceof Map<?, ?> insight) {
+                Map<String, Object> fields = (Map<String, Object>) insight;
+                merged.add(RiskAssessmentResponse.InsightResponse.builder()
+                    .type((String) fields.get("type"))
+                    .severity((String) fields.get("severity"))
+                    .category((String) fields.get("category"))
+                    .message((String) fields.get("message"))
+                    .currentAmount(fields.get("current_amount") instanceof Number n ? n.doubleValue() : null)
+                    .build());
+            }
+        }
+        return RiskAssessmentResponse.builder()
+            .assessmentId(response.getAssessmentId())
+            .timestamp(response.getTimestamp())
+            .riskAssessment(response.getRiskAssessment())
+            .insights(merged)
+            .confidence(response.getConfidence())
+            .build();
+    }
+
+    private static double factorScore(RiskEngine.Result result, String name) {
+        return result.factors().stream()
+            .filter(factor -> factor.name().equals(name))
+            .mapToDouble(RiskEngine.Factor::score)
+            .findFirst()
+            .orElse(0);
+    }
+
+    private static double amount(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+}
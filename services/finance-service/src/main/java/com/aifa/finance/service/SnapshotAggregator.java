@@ -0,0 +1,268 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.Account;
+import com.aifa.finance.domain.AnalyticsSnapshot;
+import com.aifa.finance.domain.FinancialGoal;
+import com.aifa.finance.dto.NetWorthPointResponse;
+import com.aifa.finance.repository.AccountRepository;
+import com.aifa.finance.repository.BudgetRepository;
+import com.aifa.finance.repository.FinancialGoalRepository;
+import com.aifa.finance.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Computes the metrics of an analytics snapshot.
+ * Each metric group comes from one aggregate query; the groups run concurrently on virtual threads
+ * and must all complete within the configured deadline. A shared permit pool, sized to the connection pool
+ * minus headroom for request traffic, caps how many of these queries run at once; bulk snapshotting runs its
+ * own reads and writes through {@link #withPermit} so it cannot exhaust the connection pool either.
+ */
+@Component
+public class SnapshotAggregator {
+
+    private static final Set<Account.AccountType> LIABILITY_TYPES =
+        EnumSet.of(Account.AccountType.CREDIT_CARD, Account.AccountType.LOAN);
+    private static final Set<Account.AccountType> LIQUID_TYPES =
+        EnumSet.of(Account.AccountType.CHECKING, Account.AccountType.SAVINGS);
+    private static final Set<FinancialGoal.GoalStatus> ACTIVE_GOAL_STATUSES =
+        EnumSet.of(FinancialGoal.GoalStatus.NOT_STARTED, FinancialGoal.GoalStatus.IN_PROGRESS, FinancialGoal.GoalStatus.PAUSED);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    // Percentage columns are NUMERIC(5, 2)
+    private static final BigDecimal MAX_PERCENTAGE = new BigDecimal("999.99");
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final BudgetRepository budgetRepository;
+    private final FinancialGoalRepository goalRepository;
+    private final BalanceJournalService balanceJournalService;
+    private final MeterRegistry meterRegistry;
+    private final Duration deadline;
+    private final int maxConcurrentQueries;
+    private final Semaphore queryPermits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SnapshotAggregator(TransactionRepository transactionRepository,
+                              AccountRepository accountRepository,
+                              BudgetRepository budgetRepository,
+                              FinancialGoalRepository goalRepository,
+                              BalanceJournalService balanceJournalService,
+                              MeterRegistry meterRegistry,
+                              @Value("${analytics.snapshot.deadline:PT10S}") Duration deadline,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                              @Value("${analytics.snapshot.connection-headroom:4}") int connectionHeadroom) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.budgetRepository = budgetRepository;
+        this.goalRepository = goalRepository;
+        this.balanceJournalService = balanceJournalService;
+        this.meterRegistry = meterRegistry;
+        this.deadline = deadline;
+        this.maxConcurrentQueries = Math.max(1, connectionPoolSize - connectionHeadroom);
+        this.queryPermits = new Semaphore(maxConcurrentQueries, true);
+    }
+
+    /**
+     * Database work that may run at once under the permits; callers size their own concurrency from it
+     */
+    public int maxConcurrentQueries() {
+        return maxConcurrentQueries;
+    }
+
+    /**
+     * Run one unit of database work, holding a permit for its duration. Callers must not already hold one.
+     */
+    public <T> T withPermit(Supplier<T> work) {
+        try {
+            queryPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a database permit", e);
+        }
+        try {
+            return work.get();
+        } finally {
+            queryPermits.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Fill every metric of the snapshot as of the given date; cash-flow figures cover the month to date
+     */
+    public void populate(AnalyticsSnapshot snapshot, Long userId, LocalDate date) {
+        long started = System.nanoTime();
+        String outcome = "error";
+        LocalDate monthStart = date.withDayOfMonth(1);
+
+        Future<List<Object[]>> cashFlow = submit(() -> transactionRepository.summarizeBetween(userId, monthStart, date));
+        Future<List<Object[]>> topCategory = submit(() -> transactionRepository.findTopExpenseCategory(userId, monthStart, date));
+        Future<List<Object[]>> balances = submit(() -> accountRepository.sumActiveBalancesByType(userId));
+        Future<List<Object[]>> budgets = submit(() -> budgetRepository.summarizeActiveBudgets(userId, date));
+        Future<List<Object[]>> goals = submit(() -> goalRepository.summarizeByStatus(userId));
+        // Current balances only describe today; earlier days read assets and liabilities from the balance journal
+        Future<NetWorthPointResponse> pastBalances = date.isBefore(LocalDate.now())
+            ? submit(() -> balanceJournalService.netWorthAt(userId, date))
+            : null;
+        List<Future<?>> all = new ArrayList<>(List.of(cashFlow, topCategory, balances, budgets, goals));
+        if (pastBalances != null) {
+            all.add(pastBalances);
+        }
+
+        long deadlineNanos = started + deadline.toNanos();
+        try {
+            applyCashFlow(snapshot, await(cashFlow, deadlineNanos).get(0));
+            applyTopCategory(snapshot, await(topCategory, deadlineNanos));
+            applyBalances(snapshot, await(balances, deadlineNanos));
+            if (pastBalances != null) {
+                applyPastBalances(snapshot, await(pastBalances, deadlineNanos));
+            }
+            applyBudgets(snapshot, await(budgets, deadlineNanos).get(0));
+            applyGoals(snapshot, await(goals, deadlineNanos));
+            outcome = "success";
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            throw new IllegalStateException("Analytics snapshot for user " + userId + " exceeded " + deadline);
+        } finally {
+            all.forEach(future -> future.cancel(true));
+            Timer.builder("analytics.snapshot.duration")
+                .description("Time to compute one analytics snapshot")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> Future<T> submit(Supplier<T> query) {
+        return executor.submit(() -> withPermit(query));
+    }
+
+    private static <T> T await(Future<T> future, long deadlineNanos) throws TimeoutException {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing analytics snapshot", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void applyCashFlow(AnalyticsSnapshot snapshot, Object[] row) {
+        BigDecimal income = amount(row[0]);
+        BigDecimal expenses = amount(row[1]);
+        BigDecimal net = income.subtract(expenses);
+        snapshot.setTotalIncome(income);
+        snapshot.setTotalExpenses(expenses);
+        snapshot.setNetSavings(net);
+        snapshot.setSavingsRate(percentage(net, income));
+        snapshot.setTransactionCount(((Number) row[2]).intValue());
+        snapshot.setAverageTransaction(amount(row[3]));
+    }
+
+    private void applyTopCategory(AnalyticsSnapshot snapshot, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            snapshot.setTopCategory(null);
+            snapshot.setTopCategoryAmount(BigDecimal.ZERO);
+            return;
+        }
+        snapshot.setTopCategory((String) rows.get(0)[0]);
+        snapshot.setTopCategoryAmount(amount(rows.get(0)[1]));
+    }
+
+    private void applyBalances(AnalyticsSnapshot snapshot, List<Object[]> rows) {
+        BigDecimal assets = BigDecimal.ZERO;
+        BigDecimal liabilities = BigDecimal.ZERO;
+        BigDecimal liquid = BigDecimal.ZERO;
+        for (Object[] row : rows) {
+            Account.AccountType type = (Account.AccountType) row[0];
+            BigDecimal balance = amount(row[1]);
+            if (LIABILITY_TYPES.contains(type)) {
+                liabilities = liabilities.add(balance);
+            } else {
+                assets = assets.add(balance);
+            }
+            if (LIQUID_TYPES.contains(type)) {
+                liquid = liquid.add(balance);
+            }
+        }
+        snapshot.setTotalAssets(assets);
+        snapshot.setTotalLiabilities(liabilities);
+        snapshot.setNetWorth(assets.subtract(liabilities));
+        snapshot.setLiquidAssets(liquid);
+    }
+
+    private void applyPastBalances(AnalyticsSnapshot snapshot, NetWorthPointResponse point) {
+        snapshot.setTotalAssets(point.totalAssets());
+        snapshot.setTotalLiabilities(point.totalLiabilities());
+        snapshot.setNetWorth(point.netWorth());
+    }
+
+    private void applyBudgets(AnalyticsSnapshot snapshot, Object[] row) {
+        snapshot.setBudgetUtilization(percentage(amount(row[1]), amount(row[0])));
+        snapshot.setOverBudgetCount(((Number) row[2]).intValue());
+    }
+
+    private void applyGoals(AnalyticsSnapshot snapshot, List<Object[]> rows) {
+        int active = 0;
+        int completed = 0;
+        BigDecimal saved = BigDecimal.ZERO;
+        BigDecimal target = BigDecimal.ZERO;
+        for (Object[] row : rows) {
+            FinancialGoal.GoalStatus status = (FinancialGoal.GoalStatus) row[0];
+            int count = ((Number) row[1]).intValue();
+            if (ACTIVE_GOAL_STATUSES.contains(status)) {
+                active += count;
+            } else if (status == FinancialGoal.GoalStatus.COMPLETED) {
+                completed += count;
+            }
+            if (status != FinancialGoal.GoalStatus.CANCELLED) {
+                saved = saved.add(amount(row[2]));
+                target = target.add(amount(row[3]));
+            }
+        }
+        snapshot.setActiveGoalsCount(active);
+        snapshot.setCompletedGoalsCount(completed);
+        snapshot.setTotalGoalProgress(percentage(saved, target));
+    }
+
+    private static BigDecimal amount(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        BigDecimal decimal = value instanceof BigDecimal bd ? bd : BigDecimal.valueOf(((Number) value).doubleValue());
+        return decimal.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percentage(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() <= 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        BigDecimal value = part.multiply(HUNDRED).divide(whole, 2, RoundingMode.HALF_UP);
+        return value.max(MAX_PERCENTAGE.negate()).min(MAX_PERCENTAGE);
+    }
+}
@@ -7,9 +7,11 @@ import com.aifa.finance.dto.TransactionResponse;
 import com.aifa.finance.dto.FinancialSummaryResponse;
 import com.aifa.finance.domain.Transaction;
 import com.aifa.finance.domain.User;
+import com.aifa.finance.event.TransactionChangedEvent;
 import com.aifa.finance.repository.TransactionRepository;
 import com.aifa.finance.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
@@ -28,6 +30,7 @@ public class TransactionService {
 
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<TransactionDto> listTransactions(Jwt jwt, int limit) {
         User user = ensureUser(jwt);
@@ -52,11 +55,14 @@ public class TransactionService {
         Transaction transaction = new Transaction();
         transaction.setUser(user);
         transaction.setType(request.getType());
-        transaction.setAmount(request.getAmount());
+        transaction.setAmount(request.getAmount() != null ? request.getAmount().doubleValue() : null);
         transaction.setDescription(request.getDescription());
-        transaction.setTransactionDate(request.getTransactionDate());
+        transaction.setCategory(request.getCategory());
+        transaction.setMerchant(request.getMerchant());
+        transaction.setTransactionDate(request.getDate() != null ? request.getDate().toLocalDate() : LocalDate.now());
         
         Transaction saved = transactionRepository.save(transaction);
+        eventPublisher.publishEvent(TransactionChangedEvent.of(saved));
         return toResponse(saved);
     }
 
@@ -0,0 +1,57 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.repository.TransactionRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A user's transactions between two dates, oldest first, loaded once so several analyses of the same
+ * request can share them instead of each querying its own slice.
+ */
+public record TransactionWindow(LocalDate since, LocalDate until, List<Row> rows) {
+
+    public static TransactionWindow load(TransactionRepository transactionRepository, Long userId, LocalDate since, LocalDate until) {
+        List<Row> rows = new ArrayList<>();
+        for (Object[] row : transactionRepository.findCashFlowHistory(userId, since, until)) {
+            rows.add(new Row((LocalDate) row[0], (String) row[1],
+                row[2] != null ? ((Number) row[2]).doubleValue() : 0.0, (String) row[3]));
+        }
+        return new TransactionWindow(since, until, List.copyOf(rows));
+    }
+
+    public boolean covers(LocalDate from, LocalDate to) {
+        return !since.isAfter(from) && !until.isBefore(to);
+    }
+
+    /**
+     * Income and expense totals per month with data in the range, oldest first, shaped like
+     * {@link TransactionRepository#sumByMonthBetween}: [year, month, income, expenses]
+     */
+    public List<Object[]> sumByMonth(LocalDate from, LocalDate to) {
+        Map<YearMonth, double[]> totals = new TreeMap<>();
+        for (Row row : rows) {
+            if (row.date().isBefore(from) || row.date().isAfter(to)) {
+                continue;
+            }
+            double[] month = totals.computeIfAbsent(YearMonth.from(row.date()), m -> new double[2]);
+            if ("INCOME".equals(row.type())) {
+                month[0] += row.amount();
+            } else if ("EXPENSE".equals(row.type())) {
+                month[1] += row.amount();
+            }
+        }
+        List<Object[]> result = new ArrayList<>(totals.size());
+        totals.forEach((month, sums) -> result.add(new Object[] {month.getYear(), month.getMonthValue(), sums[0], sums[1]}));
+        return result;
+    }
+
+    /**
+     * One transaction: type upper-cased, label is the merchant or else the description
+     */
+    public record Row(LocalDate date, String type, double amount, String label) {}
+}
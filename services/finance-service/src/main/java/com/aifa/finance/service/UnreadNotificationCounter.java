@@ -0,0 +1,67 @@
+package com.aifa.finance.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory unread notification count per user.
+ * Loaded once from a COUNT query, then adjusted after each committed create, read or delete.
+ * Counters are reloaded after the resync interval to bound drift from concurrent cold loads.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final long resyncMillis;
+
+    public UnreadNotificationCounter(@Value("${notification.unread-count.resync:PT10M}") Duration resync) {
+        this.resyncMillis = resync.toMillis();
+    }
+
+    public long get(Long userId, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        Counter existing = counters.get(userId);
+        if (existing != null && now - existing.loadedAt() < resyncMillis) {
+            return existing.count().get();
+        }
+        // Counted outside the map so the query never holds a bin lock; a concurrent load that installed first wins
+        Counter loaded = new Counter(new AtomicLong(loader.getAsLong()), now);
+        Counter installed = existing == null
+            ? counters.putIfAbsent(userId, loaded)
+            : (counters.replace(userId, existing, loaded) ? null : counters.get(userId));
+        return (installed != null ? installed : loaded).count().get();
+    }
+
+    /**
+     * Apply a delta once the surrounding transaction commits; counters not yet loaded are left to their first read
+     */
+    public void adjustAfterCommit(Long userId, long delta) {
+        afterCommit(() -> counters.computeIfPresent(userId, (id, counter) -> {
+            counter.count().updateAndGet(value -> Math.max(0, value + delta));
+            return counter;
+        }));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Counter(AtomicLong count, long loadedAt) {}
+}
@@ -0,0 +1,21 @@
+-- V12__Add_Notification_Digests.sql
+ALTER TABLE user_preferences ADD COLUMN notification_digest BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE user_preferences ADD COLUMN digest_interval_minutes INTEGER NOT NULL DEFAULT 60;
+
+ALTER TABLE notifications DROP CONSTRAINT IF EXISTS notifications_notification_type_check;
+ALTER TABLE notifications ADD CONSTRAINT notifications_notification_type_check
+    CHECK (notification_type IN ('BUDGET_ALERT', 'EXPENSE_ALERT', 'GOAL_MILESTONE', 'INCOME_RECEIVED', 'BILL_DUE', 'INVESTMENT_UPDATE', 'ACCOUNT_UPDATE', 'TRANSACTION_ALERT', 'SAVINGS_REMINDER', 'SYSTEM_MESSAGE', 'DIGEST'));
+
+CREATE TABLE IF NOT EXISTS notification_digest_items (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    notification_type VARCHAR(50) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    reference_id BIGINT,
+    reference_type VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_notification_digest_items_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_notification_digest_items_user ON notification_digest_items(user_id, created_at);
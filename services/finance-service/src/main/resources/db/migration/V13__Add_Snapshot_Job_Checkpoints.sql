@@ -0,0 +1,16 @@
+-- V13__Add_Snapshot_Job_Checkpoints.sql
+CREATE TABLE IF NOT EXISTS snapshot_job_checkpoints (
+    id BIGSERIAL PRIMARY KEY,
+    snapshot_date DATE NOT NULL,
+    partition_start BIGINT NOT NULL,
+    partition_end BIGINT NOT NULL,
+    last_user_id BIGINT,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    processed_count INTEGER NOT NULL DEFAULT 0,
+    failed_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (snapshot_date, partition_start),
+    CHECK (status IN ('PENDING', 'IN_PROGRESS', 'COMPLETED'))
+);
+
+CREATE INDEX idx_snapshot_job_checkpoints_date ON snapshot_job_checkpoints(snapshot_date, status);
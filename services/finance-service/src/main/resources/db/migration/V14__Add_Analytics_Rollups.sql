@@ -0,0 +1,30 @@
+-- V14__Add_Analytics_Rollups.sql
+CREATE TABLE IF NOT EXISTS analytics_snapshot_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    resolution VARCHAR(20) NOT NULL,
+    period_start DATE NOT NULL,
+    snapshot_date DATE NOT NULL,
+    total_expenses NUMERIC(19, 2),
+    total_income NUMERIC(19, 2),
+    net_savings NUMERIC(19, 2),
+    savings_rate NUMERIC(5, 2),
+    total_assets NUMERIC(19, 2),
+    total_liabilities NUMERIC(19, 2),
+    net_worth NUMERIC(19, 2),
+    liquid_assets NUMERIC(19, 2),
+    budget_utilization NUMERIC(5, 2),
+    over_budget_count INTEGER,
+    top_category VARCHAR(255),
+    top_category_amount NUMERIC(19, 2),
+    transaction_count INTEGER,
+    average_transaction NUMERIC(19, 2),
+    active_goals_count INTEGER,
+    completed_goals_count INTEGER,
+    total_goal_progress NUMERIC(5, 2),
+    CONSTRAINT fk_analytics_rollups_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE (user_id, resolution, period_start),
+    CHECK (resolution IN ('WEEKLY', 'MONTHLY'))
+);
+
+CREATE INDEX idx_analytics_rollups_user_date ON analytics_snapshot_rollups(user_id, snapshot_date);
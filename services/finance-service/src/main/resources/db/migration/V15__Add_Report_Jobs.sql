@@ -0,0 +1,8 @@
+-- V15__Add_Report_Jobs.sql
+ALTER TABLE reports ADD COLUMN status VARCHAR(20) NOT NULL DEFAULT 'COMPLETED';
+ALTER TABLE reports ADD COLUMN error_message TEXT;
+ALTER TABLE reports ADD COLUMN data_version VARCHAR(64);
+ALTER TABLE reports ADD COLUMN completed_at TIMESTAMP;
+ALTER TABLE reports ADD CONSTRAINT reports_status_check CHECK (status IN ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED'));
+
+CREATE INDEX idx_reports_cache_key ON reports(user_id, report_type, data_version);
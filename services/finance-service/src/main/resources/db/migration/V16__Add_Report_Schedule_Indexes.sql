@@ -0,0 +1,3 @@
+-- V16__Add_Report_Schedule_Indexes.sql
+CREATE INDEX idx_reports_due ON reports(is_scheduled, next_generation);
+CREATE INDEX idx_reports_status ON reports(status, generated_at);
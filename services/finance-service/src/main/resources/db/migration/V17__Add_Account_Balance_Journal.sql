@@ -0,0 +1,43 @@
+-- V17__Add_Account_Balance_Journal.sql
+ALTER TABLE accounts ADD COLUMN balance_sequence BIGINT NOT NULL DEFAULT 0;
+
+-- account_id deliberately has no foreign key: history outlives a deleted account
+CREATE TABLE IF NOT EXISTS account_balance_entries (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    sequence BIGINT NOT NULL,
+    entry_type VARCHAR(20) NOT NULL,
+    amount NUMERIC(19, 2) NOT NULL,
+    liability BOOLEAN NOT NULL,
+    effective_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_balance_entries_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE (account_id, sequence),
+    CHECK (entry_type IN ('OPEN', 'ADJUSTMENT', 'TYPE_CHANGE', 'CLOSE'))
+);
+
+CREATE INDEX idx_balance_entries_user_time ON account_balance_entries(user_id, effective_at);
+
+CREATE TABLE IF NOT EXISTS account_balance_checkpoints (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    sequence BIGINT NOT NULL,
+    balance NUMERIC(19, 2) NOT NULL,
+    liability BOOLEAN NOT NULL,
+    as_of TIMESTAMP NOT NULL,
+    CONSTRAINT fk_balance_checkpoints_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE (account_id, sequence)
+);
+
+CREATE INDEX idx_balance_checkpoints_account_time ON account_balance_checkpoints(account_id, as_of);
+CREATE INDEX idx_balance_checkpoints_user ON account_balance_checkpoints(user_id, account_id);
+
+-- Existing accounts open the journal with their current balance as of creation
+INSERT INTO account_balance_entries (user_id, account_id, sequence, entry_type, amount, liability, effective_at)
+SELECT user_id, id, 1, 'OPEN', current_balance, account_type IN ('CREDIT_CARD', 'LOAN'), created_at FROM accounts;
+
+INSERT INTO account_balance_checkpoints (user_id, account_id, sequence, balance, liability, as_of)
+SELECT user_id, id, 1, current_balance, account_type IN ('CREDIT_CARD', 'LOAN'), created_at FROM accounts;
+
+UPDATE accounts SET balance_sequence = 1;
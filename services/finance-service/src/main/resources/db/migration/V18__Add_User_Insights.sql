@@ -0,0 +1,12 @@
+-- V18__Add_User_Insights.sql
+-- Precomputed insight set per user, replaced as a whole on each background refresh
+CREATE TABLE IF NOT EXISTS user_insights (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    position INT NOT NULL,
+    insight_type VARCHAR(30) NOT NULL,
+    message TEXT NOT NULL,
+    computed_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_user_insights_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE (user_id, position)
+);
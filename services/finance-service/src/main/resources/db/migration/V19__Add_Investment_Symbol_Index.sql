@@ -0,0 +1,3 @@
+-- V19__Add_Investment_Symbol_Index.sql
+-- Price feeds revalue holdings by symbol across all users; idx_investments_symbol leads with user_id
+CREATE INDEX idx_investments_by_symbol ON investments(symbol);
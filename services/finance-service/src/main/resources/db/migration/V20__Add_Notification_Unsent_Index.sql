@@ -0,0 +1,3 @@
+-- V20__Add_Notification_Unsent_Index.sql
+-- Unsent notifications are re-queued by id at startup, since the dispatch queue is memory-only
+CREATE INDEX idx_notifications_unsent ON notifications(is_sent, id);
@@ -0,0 +1,5 @@
+-- V21__Add_Report_Run_Lease.sql
+-- When a report was claimed for generation, so runs abandoned by a stopped instance can be returned to PENDING
+ALTER TABLE reports ADD COLUMN running_since TIMESTAMP;
+
+CREATE INDEX idx_reports_running ON reports(status, running_since);
@@ -0,0 +1,4 @@
+-- V22__Add_Snapshot_Job_Lease.sql
+-- Which snapshot job run holds a partition and until when, so instances never process the same partition at once
+ALTER TABLE snapshot_job_checkpoints ADD COLUMN lease_owner VARCHAR(64);
+ALTER TABLE snapshot_job_checkpoints ADD COLUMN lease_until TIMESTAMP;
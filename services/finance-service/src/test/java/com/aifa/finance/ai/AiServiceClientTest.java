@@ -0,0 +1,80 @@
+package com.aifa.finance.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiServiceClientTest {
+
+    // Jackson refuses to serialize a bean without properties
+    private static final Object UNSERIALIZABLE = new Object();
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private AiServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+        // One permit, and a breaker opened by a single failure that allows a trial straight away
+        client = new AiServiceClient("http://127.0.0.1:" + server.getAddress().getPort(), Duration.ofSeconds(2),
+            Duration.ofSeconds(2), 1, 1, 1, 1.0, Duration.ZERO, new ObjectMapper(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void requestThatCannotBeBuiltGivesBackItsBulkheadPermit() {
+        for (int i = 0; i < 3; i++) {
+            assertUnavailable(client.post("/predict", UNSERIALIZABLE), "Could not build AI request");
+            assertUnavailable(client.post("/not a path", Map.of()), "Could not build AI request");
+        }
+
+        assertThat(meterRegistry.get("ai.client.in_flight").gauge().value()).isZero();
+        assertThat(meterRegistry.get("ai.client.rejections").tag("reason", "bulkhead").counter().count()).isZero();
+    }
+
+    @Test
+    void trialThatCannotBeBuiltGivesBackTheHalfOpenTrial() {
+        assertUnavailable(client.post("/predict", Map.of()), "returned HTTP 503");
+        assertThat(client.breakerState()).isEqualTo("OPEN");
+
+        // Granted as the half-open trial, then never made
+        assertUnavailable(client.post("/predict", UNSERIALIZABLE), "Could not build AI request");
+        assertThat(client.breakerState()).isEqualTo("HALF_OPEN");
+
+        // Had the trial not been given back, this would be rejected as circuit open
+        assertUnavailable(client.post("/predict", Map.of()), "returned HTTP 503");
+        assertThat(client.breakerState()).isEqualTo("OPEN");
+        assertThat(meterRegistry.get("ai.client.rejections").tag("reason", "circuit_open").counter().count()).isZero();
+    }
+
+    private static void assertUnavailable(CompletableFuture<Map<String, Object>> call, String message) {
+        assertThatThrownBy(call::join)
+            .hasCauseInstanceOf(AiServiceUnavailableException.class)
+            .cause().hasMessageContaining(message);
+    }
+}
@@ -0,0 +1,91 @@
+package com.aifa.finance.ai;
+
+import com.aifa.finance.api.dto.TransactionDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of transactions sent to the AI service: one map per transaction, as risk assessment used
+ * to send them, against the columnar {@link TransactionBatch}. The payload size of each shape is printed at setup.
+ * Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBatchBenchmark {
+
+    private static final String[] TYPES = {"EXPENSE", "INCOME"};
+    private static final String[] CATEGORIES = {"Groceries", "Rent", "Transport", "Dining", "Utilities", "Salary", null};
+
+    @Param({"100", "5000"})
+    public int count;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private List<TransactionDto> transactions;
+
+    @Setup
+    public void generate() throws JsonProcessingException {
+        SplittableRandom random = new SplittableRandom(7);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(new TransactionDto((long) i + 1, TYPES[random.nextInt(10) == 0 ? 1 : 0], "Card payment",
+                Math.round(random.nextDouble(1, 500) * 100) / 100.0, start.plusDays(random.nextInt(365)), "Merchant " + random.nextInt(50),
+                CATEGORIES[random.nextInt(CATEGORIES.length)]));
+        }
+        System.out.printf("%n%d transactions: maps %d B, columnar %d B%n", count, maps().length, columnar().length);
+    }
+
+    @Benchmark
+    public byte[] maps() throws JsonProcessingException {
+        List<Map<String, Object>> rows = new ArrayList<>(transactions.size());
+        for (TransactionDto t : transactions) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", t.id());
+            row.put("type", t.type());
+            row.put("amount", t.amount());
+            row.put("date", t.date());
+            row.put("category", t.category());
+            rows.add(row);
+        }
+        return mapper.writeValueAsBytes(rows);
+    }
+
+    @Benchmark
+    public byte[] columnar() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(new TransactionBatch(transactions));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionBatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.aifa.finance.forecast;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class CashFlowProjectorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 7, 15);
+    private static final int HISTORY_DAYS = 180;
+
+    static Stream<Arguments> histories() {
+        RecurringFlow salary = new RecurringFlow("Salary", 3000, Cadence.MONTHLY, LocalDate.of(2024, 8, 1), null, 0);
+        return Stream.of(
+            // name, history, scheduled flows, expected daily residual, expected backtest accuracy, expected flow labels
+            arguments("no history", List.of(), List.of(), 0.0, null, List.of()),
+            arguments("too short to backtest", daily(-10, 40), List.of(), -10.0, null, List.of()),
+            arguments("flat daily spend", daily(-10, 120), List.of(), -10.0, 1.0, List.of()),
+            // Unclipped, the 3000 purchase would make the residual -35 a day; clipped at three standard
+            // deviations it is held to -856.58, for a residual of (119 * -10 - 856.58) / 120. The backtest trains on
+            // 90 days, where the clipped spike still predicts -626 against an actual -300, scoring zero
+            arguments("one-off spike is clipped", merge(daily(-10, 120), List.of(
+                new CashFlowEvent(TODAY.minusDays(60), -3000, "Furniture"))), List.of(), -17.05, 0.0, List.of()),
+            arguments("detected salary leaves the residual", withPayroll(3000), List.of(), -50.0, 1.0, List.of("Acme payroll")),
+            arguments("scheduled income replaces a matching detected inflow", withPayroll(3000), List.of(salary), -50.0, 1.0,
+                List.of("Salary")),
+            arguments("scheduled income too different to match", withPayroll(4000), List.of(salary), -50.0, 1.0,
+                List.of("Salary", "Acme payroll"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("histories")
+    void fitsResidualFlowsAndBacktest(String name, List<CashFlowEvent> history, List<RecurringFlow> scheduled,
+                                      double residual, Double accuracy, List<String> flows) {
+        Projection projection = CashFlowProjector.project(1000, history, scheduled, TODAY, HISTORY_DAYS, 30);
+
+        assertThat(projection.dailyResidual()).isCloseTo(residual, within(0.01));
+        if (accuracy == null) {
+            assertThat(projection.accuracy()).isNull();
+        } else {
+            assertThat(projection.accuracy()).isCloseTo(accuracy, within(0.01));
+        }
+        assertThat(projection.recurringFlows()).extracting(RecurringFlow::label).containsExactlyElementsOf(flows);
+        assertThat(projection.days()).hasSize(30);
+        assertThat(projection.dataPoints()).isEqualTo(history.size());
+    }
+
+    @Test
+    void placesRecurringFlowsOnTheirDates() {
+        Projection projection = CashFlowProjector.project(1000, withPayroll(3000), List.of(), TODAY, HISTORY_DAYS, 30);
+
+        ProjectedDay payday = projection.days().get(16);
+        assertThat(payday.date()).isEqualTo(LocalDate.of(2024, 8, 1));
+        assertThat(payday.factors()).containsExactly("Acme payroll +3000.00");
+        assertThat(payday.expected()).isCloseTo(1000 - 50 * 17 + 3000, within(0.01));
+        assertThat(projection.days().get(15).factors()).isEmpty();
+    }
+
+    @Test
+    void riskFollowsTheBalanceAgainstAMonthOfOutflow() {
+        Projection projection = CashFlowProjector.project(1000, daily(-10, 120), List.of(), TODAY, HISTORY_DAYS, 120);
+
+        // A month of outflow is 300: LOW down to it, MEDIUM below it, HIGH once the band dips under zero
+        assertThat(projection.days().get(69).riskLevel()).isEqualTo("LOW");
+        assertThat(projection.days().get(70).riskLevel()).isEqualTo("MEDIUM");
+        assertThat(projection.days().get(99).riskLevel()).isEqualTo("MEDIUM");
+        assertThat(projection.days().get(100).riskLevel()).isEqualTo("HIGH");
+        assertThat(projection.days()).allSatisfy(day -> assertThat(day.lower()).isEqualTo(day.upper()));
+    }
+
+    @Test
+    void bandWidensWithTheSquareRootOfTheHorizon() {
+        List<CashFlowEvent> history = new ArrayList<>();
+        for (int i = 119; i >= 0; i--) {
+            history.add(new CashFlowEvent(TODAY.minusDays(i), i % 2 == 0 ? -20 : -0.01, "Groceries"));
+        }
+
+        Projection projection = CashFlowProjector.project(1000, history, List.of(), TODAY, HISTORY_DAYS, 40);
+
+        ProjectedDay tenth = projection.days().get(9);
+        ProjectedDay fortieth = projection.days().get(39);
+        assertThat(tenth.upper() - tenth.expected()).isCloseTo(tenth.expected() - tenth.lower(), within(0.02));
+        assertThat(fortieth.upper() - fortieth.lower()).isCloseTo(2 * (tenth.upper() - tenth.lower()), within(0.05));
+        assertThat(fortieth.confidence()).isLessThan(tenth.confidence());
+    }
+
+    /**
+     * One spend a day for the given number of days up to today
+     */
+    private static List<CashFlowEvent> daily(double amount, int days) {
+        List<CashFlowEvent> events = new ArrayList<>(days);
+        for (int i = days - 1; i >= 0; i--) {
+            events.add(new CashFlowEvent(TODAY.minusDays(i), amount, "Groceries"));
+        }
+        return events;
+    }
+
+    /**
+     * 180 days of -50 a day with pay on the first of each month
+     */
+    private static List<CashFlowEvent> withPayroll(double pay) {
+        List<CashFlowEvent> payroll = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(2024, 2, 1); !date.isAfter(TODAY); date = date.plusMonths(1)) {
+            payroll.add(new CashFlowEvent(date, pay, "Acme payroll"));
+        }
+        return merge(daily(-50, HISTORY_DAYS), payroll);
+    }
+
+    private static List<CashFlowEvent> merge(List<CashFlowEvent> first, List<CashFlowEvent> second) {
+        List<CashFlowEvent> merged = new ArrayList<>(first);
+        merged.addAll(second);
+        merged.sort(Comparator.comparing(CashFlowEvent::date));
+        return merged;
+    }
+}
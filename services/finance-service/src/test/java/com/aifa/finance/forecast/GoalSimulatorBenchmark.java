@@ -0,0 +1,73 @@
+package com.aifa.finance.forecast;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link GoalSimulator} in simulated paths per second.
+ * {@code singleCore} runs every chunk on the benchmark thread, so its score is paths per second per core;
+ * {@code allCores} runs them on a pool with one thread per core, and its score divided by the core count shows
+ * how close the chunking comes to linear scaling. Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(GoalSimulatorBenchmark.PATHS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoalSimulatorBenchmark {
+
+    static final int PATHS = 50_000;
+
+    /**
+     * Months to the median outcome: a near goal stops most paths early, a far one runs them long
+     */
+    @Param({"100000", "500000"})
+    public double targetAmount;
+
+    private ExecutorService pool;
+
+    @Setup(Level.Trial)
+    public void startPool() {
+        pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public GoalSimulation singleCore() {
+        return GoalSimulator.simulate(20_000, 1_000, targetAmount, 0.07, 0.15, 480, PATHS, 42L, Runnable::run);
+    }
+
+    @Benchmark
+    public GoalSimulation allCores() {
+        return GoalSimulator.simulate(20_000, 1_000, targetAmount, 0.07, 0.15, 480, PATHS, 42L, pool);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GoalSimulatorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,128 @@
+package com.aifa.finance.forecast;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class RecurrenceDetectorTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    static Stream<Arguments> histories() {
+        return Stream.of(
+            // name, history, today, expected cadence (null when nothing recurs), expected next date
+            arguments("weekly on the dot", series("Gym", -15, START, 7, 7, 7, 7, 7),
+                START.plusDays(38), Cadence.WEEKLY, START.plusDays(42)),
+            arguments("biweekly pay", series("Acme payroll", 2000, START, 14, 14, 14, 14),
+                START.plusDays(60), Cadence.BIWEEKLY, START.plusDays(70)),
+            arguments("monthly with jitter", series("Rent", -1200, START, 29, 32, 30, 31, 28),
+                START.plusDays(160), Cadence.MONTHLY, START.plusDays(150).plusMonths(1)),
+            arguments("quarterly", series("Water utility", -90, START, 91, 90, 92),
+                START.plusDays(300), Cadence.QUARTERLY, START.plusDays(273).plusMonths(3)),
+            arguments("annual", series("Car insurance", -600, START, 365, 366),
+                START.plusDays(800), Cadence.ANNUAL, START.plusDays(731).plusYears(1)),
+            arguments("late within tolerance is expected tomorrow", series("Rent", -1200, START, 30, 31, 29),
+                START.plusDays(90).plusMonths(1).plusDays(4), Cadence.MONTHLY, START.plusDays(90).plusMonths(1).plusDays(5)),
+            arguments("lapsed by more than the tolerance", series("Streaming", -12, START, 31, 29, 31),
+                START.plusDays(91).plusMonths(1).plusDays(10), null, null),
+            arguments("too few occurrences", series("Rent", -1200, START, 30),
+                START.plusDays(40), null, null),
+            arguments("gaps match no cadence", series("Hardware store", -40, START, 4, 24, 43, 9),
+                START.plusDays(80), null, null),
+            arguments("too few regular gaps", series("Pharmacy", -20, START, 7, 7, 20, 3, 7, 16),
+                START.plusDays(62), null, null),
+            arguments("daily spend is not a cadence", series("Coffee", -4, START, 1, 1, 1, 1, 1, 1),
+                START.plusDays(7), null, null)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("histories")
+    void detectsCadenceAndNextDate(String name, List<CashFlowEvent> history, LocalDate today, Cadence cadence, LocalDate next) {
+        boolean[] matched = new boolean[history.size()];
+
+        List<RecurringFlow> flows = RecurrenceDetector.detect(history, today, matched);
+
+        if (cadence == null) {
+            assertThat(flows).isEmpty();
+            assertThat(matched).containsOnly(false);
+        } else {
+            assertThat(flows).singleElement().satisfies(flow -> {
+                assertThat(flow.cadence()).isEqualTo(cadence);
+                assertThat(flow.nextDate()).isEqualTo(next);
+                assertThat(flow.amount()).isEqualTo(history.get(0).amount());
+            });
+            assertThat(matched).containsOnly(true);
+        }
+    }
+
+    @Test
+    void amountIsTheMedianAndSpreadIgnoresOneOutlier() {
+        List<CashFlowEvent> history = new ArrayList<>();
+        double[] amounts = {-50, -52, -48, -50, -400, -50};
+        for (int i = 0; i < amounts.length; i++) {
+            history.add(new CashFlowEvent(START.plusMonths(i), amounts[i], "Electric"));
+        }
+
+        List<RecurringFlow> flows = RecurrenceDetector.detect(history, START.plusMonths(5).plusDays(3), new boolean[history.size()]);
+
+        assertThat(flows).singleElement().satisfies(flow -> {
+            assertThat(flow.amount()).isEqualTo(-50);
+            // Median absolute deviation is 1, scaled to a standard deviation
+            assertThat(flow.spread()).isEqualTo(1.4826);
+        });
+    }
+
+    @Test
+    void groupsByDirectionAndNormalizedLabel() {
+        List<CashFlowEvent> history = new ArrayList<>();
+        history.addAll(series("NETFLIX.COM 4411", -15, START, 30, 31));
+        history.add(new CashFlowEvent(START.plusDays(91), -15, "Netflix.com *8812"));
+        // Same label, other direction, irregular: not part of the subscription
+        history.addAll(series("Netflix.com", 15, START.plusDays(2), 3, 50));
+        history.sort(Comparator.comparing(CashFlowEvent::date));
+        boolean[] matched = new boolean[history.size()];
+
+        List<RecurringFlow> flows = RecurrenceDetector.detect(history, START.plusDays(95), matched);
+
+        assertThat(flows).singleElement().satisfies(flow -> {
+            assertThat(flow.amount()).isEqualTo(-15);
+            assertThat(flow.cadence()).isEqualTo(Cadence.MONTHLY);
+        });
+        for (int i = 0; i < history.size(); i++) {
+            assertThat(matched[i]).as("event %s", history.get(i)).isEqualTo(history.get(i).amount() < 0);
+        }
+    }
+
+    @Test
+    void normalizeKeepsTheFirstThreeWordsOfLetters() {
+        assertThat(RecurrenceDetector.normalize("SPOTIFY P0A1B2 Stockholm SE 77")).isEqualTo("spotify p a");
+        assertThat(RecurrenceDetector.normalize("  Rent - March  ")).isEqualTo("rent march");
+        assertThat(RecurrenceDetector.normalize("1234")).isEmpty();
+        assertThat(RecurrenceDetector.normalize(null)).isEmpty();
+    }
+
+    /**
+     * One event at the start date and one after each gap, all with the same amount and label
+     */
+    static List<CashFlowEvent> series(String label, double amount, LocalDate start, int... gaps) {
+        List<CashFlowEvent> events = new ArrayList<>(gaps.length + 1);
+        LocalDate date = start;
+        events.add(new CashFlowEvent(date, amount, label));
+        for (int gap : gaps) {
+            date = date.plusDays(gap);
+            events.add(new CashFlowEvent(date, amount, label));
+        }
+        return events;
+    }
+}
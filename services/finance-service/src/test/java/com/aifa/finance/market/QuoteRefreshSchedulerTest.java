@@ -0,0 +1,206 @@
+package com.aifa.finance.market;
+
+import com.aifa.finance.domain.Account;
+import com.aifa.finance.domain.Investment;
+import com.aifa.finance.domain.User;
+import com.aifa.finance.dto.PriceFeedResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({QuoteRefreshScheduler.class, QuoteRefreshSchedulerTest.Config.class})
+@TestPropertySource(properties = {
+    "prices.refresh.max-age=PT15M",
+    "prices.refresh.concurrency=4",
+    "prices.refresh.retry-backoff=PT1H"
+})
+// The scheduler keeps its backoffs between runs, so each test starts from a fresh one
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class QuoteRefreshSchedulerTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final double REQUESTS_PER_SECOND = 20;
+
+    @Autowired
+    private QuoteRefreshScheduler scheduler;
+
+    @Autowired
+    private RecordingFileQuoteProvider provider;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private PriceFeedService priceFeedService;
+
+    private final List<Quote> applied = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        provider.requests.clear();
+        // Stands in for the revaluation: written symbols get a fresh lastUpdated, as revalueBySymbols sets it
+        when(priceFeedService.applyQuotes(any())).thenAnswer(invocation -> {
+            Collection<Quote> quotes = invocation.getArgument(0);
+            applied.addAll(quotes);
+            Set<String> written = new HashSet<>();
+            quotes.forEach(quote -> written.add(quote.symbol()));
+            if (!written.isEmpty()) {
+                entityManager.getEntityManager()
+                    .createQuery("UPDATE Investment i SET i.lastUpdated = :now WHERE i.symbol IN :symbols")
+                    .setParameter("now", LocalDateTime.now())
+                    .setParameter("symbols", written)
+                    .executeUpdate();
+            }
+            return new PriceFeedService.Applied(new PriceFeedResponse(written.size(), 0, 1, 0, 0, 0), written);
+        });
+
+        User first = user("first");
+        User second = user("second");
+        User third = user("third");
+        hold(first, "AAPL");
+        hold(second, "AAPL");
+        hold(third, "AAPL");
+        hold(first, "MSFT");
+        hold(second, "GOOG");
+        hold(third, "TSLA");
+        hold(first, "DELISTED");
+        hold(second, "NVDA");
+        entityManager.flush();
+        entityManager.getEntityManager()
+            .createQuery("UPDATE Investment i SET i.lastUpdated = :old WHERE i.symbol <> 'NVDA'")
+            .setParameter("old", LocalDateTime.now().minusHours(1))
+            .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    void requestsEachStaleSymbolOnceInProviderSizedBatches() {
+        scheduler.refreshStaleQuotes();
+
+        List<String> requested = provider.requests.stream().flatMap(request -> request.symbols().stream()).toList();
+        assertThat(requested).containsExactlyInAnyOrder("AAPL", "DELISTED", "GOOG", "MSFT", "TSLA");
+        assertThat(provider.requests).hasSize(3)
+            .allSatisfy(request -> assertThat(request.symbols()).hasSizeLessThanOrEqualTo(BATCH_SIZE));
+        assertThat(applied).extracting(Quote::symbol).containsExactlyInAnyOrder("AAPL", "GOOG", "MSFT", "TSLA");
+        assertThat(applied).filteredOn(quote -> quote.symbol().equals("AAPL"))
+            .singleElement().satisfies(quote -> assertThat(quote.price()).isEqualByComparingTo("190.25"));
+    }
+
+    @Test
+    void spacesRequestsToTheProviderRate() {
+        long started = System.nanoTime();
+        scheduler.refreshStaleQuotes();
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / REQUESTS_PER_SECOND);
+        List<Long> starts = provider.requests.stream().map(Request::startedNanos).sorted().toList();
+        assertThat(starts).hasSize(3);
+        for (int i = 0; i < starts.size(); i++) {
+            assertThat(starts.get(i) - started).isGreaterThanOrEqualTo(i * interval);
+        }
+    }
+
+    @Test
+    void backsOffSymbolsTheProviderLeavesUnrefreshed() {
+        scheduler.refreshStaleQuotes();
+        provider.requests.clear();
+
+        scheduler.refreshStaleQuotes();
+
+        // Refreshed symbols are no longer stale and DELISTED waits out its backoff
+        assertThat(provider.requests).isEmpty();
+    }
+
+    private User user(String name) {
+        return entityManager.persist(User.builder()
+            .email(name + "@test.local").keycloakId(name).fullName(name).build());
+    }
+
+    private void hold(User user, String symbol) {
+        Account account = entityManager.persist(Account.builder()
+            .user(user).accountName(symbol + " brokerage").accountType(Account.AccountType.INVESTMENT)
+            .currentBalance(BigDecimal.ZERO).currency("USD").isPrimary(false).isActive(true).build());
+        entityManager.persist(Investment.builder()
+            .user(user).account(account).symbol(symbol).name(symbol)
+            .investmentType(Investment.InvestmentType.STOCK)
+            .quantity(BigDecimal.TEN).purchasePrice(new BigDecimal("100.00"))
+            .totalCost(new BigDecimal("1000.00")).purchaseDate(LocalDateTime.now().minusYears(1))
+            .currency("USD").build());
+    }
+
+    record Request(List<String> symbols, long startedNanos) {}
+
+    /**
+     * File provider that records each request it serves
+     */
+    static class RecordingFileQuoteProvider extends FileQuoteProvider {
+
+        final List<Request> requests = new CopyOnWriteArrayList<>();
+
+        RecordingFileQuoteProvider(Path path) {
+            super(path, BATCH_SIZE, REQUESTS_PER_SECOND);
+        }
+
+        @Override
+        public List<Quote> fetch(List<String> symbols) {
+            requests.add(new Request(List.copyOf(symbols), System.nanoTime()));
+            return super.fetch(symbols);
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RecordingFileQuoteProvider quoteProvider() {
+            try {
+                Path path = Files.createTempFile("quotes", ".csv");
+                path.toFile().deleteOnExit();
+                Files.writeString(path, """
+                    # symbol,price
+                    AAPL,190.25
+                    MSFT,410.10
+                    GOOG,165.40
+                    TSLA,240.00
+                    NVDA,120.00
+                    """);
+                return new RecordingFileQuoteProvider(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
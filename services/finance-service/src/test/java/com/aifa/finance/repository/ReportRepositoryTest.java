@@ -0,0 +1,69 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.Report;
+import com.aifa.finance.domain.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static com.aifa.finance.domain.Report.ReportStatus.PENDING;
+import static com.aifa.finance.domain.Report.ReportStatus.RUNNING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ReportRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void reportIsClaimedOnce() {
+        Long id = pendingReport();
+
+        assertThat(reportRepository.claimForRun(id, NOW, PENDING, RUNNING)).isEqualTo(1);
+        assertThat(reportRepository.claimForRun(id, NOW, PENDING, RUNNING)).isZero();
+        entityManager.clear();
+
+        Report report = reportRepository.findById(id).orElseThrow();
+        assertThat(report.getStatus()).isEqualTo(RUNNING);
+        assertThat(report.getRunningSince()).isEqualTo(NOW);
+    }
+
+    @Test
+    void onlyExpiredRunsReturnToPending() {
+        Long abandoned = pendingReport();
+        Long active = pendingReport();
+        reportRepository.claimForRun(abandoned, NOW.minusHours(1), PENDING, RUNNING);
+        reportRepository.claimForRun(active, NOW.minusMinutes(1), PENDING, RUNNING);
+
+        assertThat(reportRepository.releaseExpiredRuns(NOW.minusMinutes(15), RUNNING, PENDING)).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(reportRepository.findById(abandoned).orElseThrow().getStatus()).isEqualTo(PENDING);
+        assertThat(reportRepository.findById(abandoned).orElseThrow().getRunningSince()).isNull();
+        assertThat(reportRepository.findById(active).orElseThrow().getStatus()).isEqualTo(RUNNING);
+        // A released run can be claimed again
+        assertThat(reportRepository.claimForRun(abandoned, NOW, PENDING, RUNNING)).isEqualTo(1);
+    }
+
+    private Long pendingReport() {
+        User user = entityManager.persist(User.builder()
+            .email("u" + System.nanoTime() + "@test.local").keycloakId("kc").fullName("U").build());
+        return entityManager.persistAndFlush(Report.builder()
+            .user(user)
+            .reportType(Report.ReportType.EXPENSE_SUMMARY)
+            .reportName("Monthly expenses")
+            .isScheduled(false)
+            .status(PENDING)
+            .build()).getId();
+    }
+}
@@ -0,0 +1,76 @@
+package com.aifa.finance.repository;
+
+import com.aifa.finance.domain.SnapshotJobCheckpoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static com.aifa.finance.domain.SnapshotJobCheckpoint.Status.COMPLETED;
+import static com.aifa.finance.domain.SnapshotJobCheckpoint.Status.IN_PROGRESS;
+import static com.aifa.finance.domain.SnapshotJobCheckpoint.Status.PENDING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class SnapshotJobCheckpointRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    private static final LocalDate DATE = NOW.toLocalDate().minusDays(1);
+
+    @Autowired
+    private SnapshotJobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void partitionIsLeasedToOneRunAtATime() {
+        Long id = checkpoint(0L, PENDING);
+
+        assertThat(checkpointRepository.claim(id, "first", NOW, NOW.plusMinutes(10), IN_PROGRESS, COMPLETED)).isEqualTo(1);
+        assertThat(checkpointRepository.claim(id, "second", NOW, NOW.plusMinutes(10), IN_PROGRESS, COMPLETED)).isZero();
+        entityManager.clear();
+
+        SnapshotJobCheckpoint checkpoint = checkpointRepository.findById(id).orElseThrow();
+        assertThat(checkpoint.getStatus()).isEqualTo(IN_PROGRESS);
+        assertThat(checkpoint.getLeaseOwner()).isEqualTo("first");
+        assertThat(checkpoint.getLeaseUntil()).isEqualTo(NOW.plusMinutes(10));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverAndTheFormerHolderCannotRenew() {
+        Long id = checkpoint(0L, PENDING);
+        checkpointRepository.claim(id, "stopped", NOW.minusMinutes(20), NOW.minusMinutes(10), IN_PROGRESS, COMPLETED);
+
+        assertThat(checkpointRepository.claim(id, "next", NOW, NOW.plusMinutes(10), IN_PROGRESS, COMPLETED)).isEqualTo(1);
+
+        assertThat(checkpointRepository.renewLease(id, "stopped", NOW.plusMinutes(10))).isZero();
+        assertThat(checkpointRepository.renewLease(id, "next", NOW.plusMinutes(20))).isEqualTo(1);
+    }
+
+    @Test
+    void releasedPartitionCanBeClaimedAgainButACompletedOneCannot() {
+        Long released = checkpoint(0L, PENDING);
+        Long completed = checkpoint(100L, COMPLETED);
+        checkpointRepository.claim(released, "first", NOW, NOW.plusMinutes(10), IN_PROGRESS, COMPLETED);
+        checkpointRepository.renewLease(released, "first", null);
+
+        assertThat(checkpointRepository.claim(released, "second", NOW, NOW.plusMinutes(10), IN_PROGRESS, COMPLETED)).isEqualTo(1);
+        assertThat(checkpointRepository.claim(completed, "second", NOW, NOW.plusMinutes(10), IN_PROGRESS, COMPLETED)).isZero();
+    }
+
+    private Long checkpoint(long partitionStart, SnapshotJobCheckpoint.Status status) {
+        return entityManager.persistAndFlush(SnapshotJobCheckpoint.builder()
+            .snapshotDate(DATE)
+            .partitionStart(partitionStart)
+            .partitionEnd(partitionStart + 99)
+            .status(status)
+            .processedCount(0)
+            .failedCount(0)
+            .build()).getId();
+    }
+}
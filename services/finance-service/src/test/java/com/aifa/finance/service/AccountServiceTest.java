@@ -0,0 +1,58 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.User;
+import com.aifa.finance.dto.AccountRequest;
+import com.aifa.finance.dto.AccountResponse;
+import com.aifa.finance.repository.AccountRepository;
+import com.aifa.finance.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({AccountService.class, BalanceJournalService.class})
+class AccountServiceTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void createdAccountIsJournalledFromTheFirstSequence() {
+        User user = userRepository.save(User.builder().email("a@test.local").keycloakId("a").fullName("A").build());
+
+        AccountResponse created = accountService.createAccount(user.getId(), new AccountRequest(
+            "Checking", "CHECKING", null, null, new BigDecimal("120.00"), null, "USD", null, false));
+
+        assertThat(accountRepository.findById(created.id()))
+            .hasValueSatisfying(account -> assertThat(account.getBalanceSequence()).isEqualTo(1L));
+        assertThat(accountService.getBalanceAt(created.id(), LocalDateTime.now().plusSeconds(1)).balance())
+            .isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void updatesAfterCreationContinueTheJournal() {
+        User user = userRepository.save(User.builder().email("b@test.local").keycloakId("b").fullName("B").build());
+        AccountResponse created = accountService.createAccount(user.getId(), new AccountRequest(
+            "Savings", "SAVINGS", null, null, new BigDecimal("50.00"), null, "USD", null, false));
+
+        accountService.updateAccount(created.id(), new AccountRequest(
+            "Savings", "SAVINGS", null, null, new BigDecimal("80.00"), null, "USD", null, false));
+
+        assertThat(accountRepository.findById(created.id()))
+            .hasValueSatisfying(account -> assertThat(account.getBalanceSequence()).isEqualTo(2L));
+        assertThat(accountService.getBalanceAt(created.id(), LocalDateTime.now().plusSeconds(1)).balance())
+            .isEqualByComparingTo("80.00");
+    }
+}
@@ -0,0 +1,103 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.domain.Budget;
+import com.aifa.finance.domain.User;
+import com.aifa.finance.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BudgetForecastServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final BudgetForecastService service =
+        new BudgetForecastService(transactionRepository, 30, 1_000, 7, Duration.ofHours(6));
+
+    @Test
+    void singlePurchaseIsSpreadOverTheWindow() {
+        DailySpendSeries series = new DailySpendSeries(30);
+        series.add(TODAY, 100.0);
+
+        assertThat(series.dailyVelocity(TODAY)).isEqualTo(100.0 / 30);
+        assertThat(series.observedDays(TODAY)).isEqualTo(1);
+    }
+
+    @Test
+    void spendOlderThanTheWindowLeavesTheVelocity() {
+        DailySpendSeries series = new DailySpendSeries(30);
+        series.add(TODAY.minusDays(40), 300.0);
+        series.add(TODAY.minusDays(10), 60.0);
+
+        assertThat(series.dailyVelocity(TODAY)).isEqualTo(2.0);
+        assertThat(series.observedDays(TODAY)).isEqualTo(30);
+        assertThat(new DailySpendSeries(30).observedDays(TODAY)).isZero();
+    }
+
+    @Test
+    void firstPurchaseOfThePeriodPredictsNoCrossing() {
+        seed(List.<Object[]>of(new Object[] {TODAY, 100.0}));
+
+        BudgetForecastService.BudgetForecast forecast = service.forecast(budget("500.00", "100.00"), TODAY);
+
+        assertThat(forecast.predictedExceedDate()).isNull();
+        assertThat(forecast.projectedSpend()).isLessThan(new BigDecimal("500.00"));
+    }
+
+    @Test
+    void historyShorterThanTheMinimumPredictsNoCrossing() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < 3; day++) {
+            rows.add(new Object[] {TODAY.minusDays(day), 400.0});
+        }
+        seed(rows);
+
+        assertThat(service.forecast(budget("1300.00", "1200.00"), TODAY).predictedExceedDate()).isNull();
+    }
+
+    @Test
+    void steadySpendPredictsTheCrossingDay() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < 30; day++) {
+            rows.add(new Object[] {TODAY.minusDays(day), 20.0});
+        }
+        seed(rows);
+        Budget budget = budget("500.00", "490.00");
+
+        BudgetForecastService.BudgetForecast forecast = service.forecast(budget, TODAY);
+
+        assertThat(forecast.dailyVelocity()).isEqualTo(20.0);
+        // The period ends with the month, so on its last day nothing is left to cross in
+        if (service.periodEnd(budget, TODAY).isAfter(TODAY)) {
+            assertThat(forecast.predictedExceedDate()).isEqualTo(TODAY.plusDays(1));
+        }
+    }
+
+    private void seed(List<Object[]> rows) {
+        when(transactionRepository.sumExpensesByDaySince(anyLong(), anyString(), any())).thenReturn(rows);
+    }
+
+    private static Budget budget(String limit, String spent) {
+        User user = new User();
+        user.setId(1L);
+        return Budget.builder()
+            .user(user)
+            .category("Groceries")
+            .monthlyLimit(new BigDecimal(limit))
+            .spentAmount(new BigDecimal(spent))
+            .startDate(TODAY.withDayOfMonth(1))
+            .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.aifa.finance.service;
+
+import com.aifa.finance.dto.BudgetOverviewResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetOverviewCacheTest {
+
+    private final BudgetOverviewCache cache = new BudgetOverviewCache(Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictionWaitsForCommit() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit(1L);
+        // A read before commit still sees the cached state rather than loading uncommitted data into the cache
+        load();
+        assertThat(loads).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        load();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void loadRacingACommittedEvictionIsNotCached() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(1L);
+
+        cache.get(1L, () -> {
+            // The change commits while this load is still reading
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            loads.incrementAndGet();
+            return new BudgetOverviewResponse();
+        });
+        load();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsImmediatelyOutsideATransaction() {
+        load();
+        cache.evictAfterCommit(1L);
+        load();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private void load() {
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return new BudgetOverviewResponse();
+        });
+    }
+}
@@ -0,0 +1,204 @@
+package com.aifa.finance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.awaitility.Awaitility.await;
+
+class EventStreamServiceTest {
+
+    private static final int IDLE_CONNECTIONS = 5_000;
+
+    private EventStreamService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void idleConnectionsHoldNoThreadsAndSurviveHeartbeats() throws InterruptedException {
+        // Zero retention: only streams that still have connections may outlive a heartbeat
+        service = new EventStreamService(Duration.ofMinutes(30), Duration.ofMillis(20), Duration.ZERO, 100);
+        int threadsBefore = Thread.activeCount();
+
+        List<SseEmitter> emitters = new ArrayList<>(IDLE_CONNECTIONS);
+        for (int i = 0; i < IDLE_CONNECTIONS; i++) {
+            emitters.add(service.subscribe((long) (i % 1_000), null));
+        }
+        Thread.sleep(200);
+
+        assertThat(emitters).hasSize(IDLE_CONNECTIONS);
+        assertThat(service.connectionCount()).isEqualTo(IDLE_CONNECTIONS);
+        // Sends and heartbeats run on virtual threads, which Thread.activeCount does not see
+        assertThat(Thread.activeCount() - threadsBefore).isLessThan(10);
+    }
+
+    @Test
+    void subscribersJoiningDuringHeartbeatsAreNeverOrphaned() throws InterruptedException {
+        service = new EventStreamService(Duration.ofMinutes(30), Duration.ofMillis(1), Duration.ZERO, 100);
+
+        for (int i = 0; i < IDLE_CONNECTIONS; i++) {
+            service.subscribe((long) i, null);
+        }
+        Thread.sleep(50);
+
+        assertThat(service.connectionCount()).isEqualTo(IDLE_CONNECTIONS);
+    }
+
+    @Test
+    void publishToUserWithoutStreamIsIgnored() {
+        RecordingService recording = new RecordingService(100);
+        service = recording;
+
+        service.publish(42L, "notification", "ignored");
+        service.subscribe(7L, null);
+        service.publish(7L, "notification", "delivered");
+
+        assertThat(service.connectionCount()).isEqualTo(1);
+        RecordingEmitter emitter = recording.emitters.get(0);
+        await().until(() -> emitter.events.size() == 1);
+        assertThat(emitter.events).extracting(Sent::name, Sent::data).containsExactly(tuple("notification", "delivered"));
+    }
+
+    @Test
+    void publishedEventsReachEveryConnectionOfTheUserInOrder() {
+        RecordingService recording = new RecordingService(100);
+        service = recording;
+        service.subscribe(7L, null);
+        service.subscribe(7L, null);
+        service.subscribe(8L, null);
+
+        service.publish(7L, "notification", "first");
+        service.publish(7L, "budget-alert", "second");
+        service.publish(7L, "notification", "third");
+
+        RecordingEmitter first = recording.emitters.get(0);
+        RecordingEmitter second = recording.emitters.get(1);
+        await().until(() -> first.events.size() == 3 && second.events.size() == 3);
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            assertThat(emitter.events).extracting(Sent::name, Sent::data).containsExactly(
+                tuple("notification", "first"), tuple("budget-alert", "second"), tuple("notification", "third"));
+            assertThat(emitter.events).extracting(Sent::id).isSorted().doesNotHaveDuplicates();
+        }
+        assertThat(recording.emitters.get(2).events).isEmpty();
+    }
+
+    @Test
+    void reconnectingWithLastEventIdReplaysOnlyLaterEvents() {
+        RecordingService recording = new RecordingService(100);
+        service = recording;
+        service.subscribe(7L, null);
+        service.publish(7L, "notification", "first");
+        service.publish(7L, "notification", "second");
+        service.publish(7L, "notification", "third");
+        RecordingEmitter original = recording.emitters.get(0);
+        await().until(() -> original.events.size() == 3);
+
+        service.subscribe(7L, Long.parseLong(original.events.get(0).id()));
+
+        RecordingEmitter resumed = recording.emitters.get(1);
+        await().until(() -> resumed.events.size() == 2);
+        assertThat(resumed.events).extracting(Sent::id, Sent::data).containsExactly(
+            tuple(original.events.get(1).id(), "second"), tuple(original.events.get(2).id(), "third"));
+    }
+
+    @Test
+    void reconnectingPastTheReplayBufferIsToldToResync() {
+        RecordingService recording = new RecordingService(2);
+        service = recording;
+        service.subscribe(7L, null);
+        service.publish(7L, "notification", "first");
+        RecordingEmitter original = recording.emitters.get(0);
+        await().until(() -> original.events.size() == 1);
+        service.publish(7L, "notification", "second");
+        service.publish(7L, "notification", "third");
+        service.publish(7L, "notification", "fourth");
+
+        service.subscribe(7L, Long.parseLong(original.events.get(0).id()));
+
+        // "second" has left the buffer, so the client must refetch before the buffered events
+        RecordingEmitter resumed = recording.emitters.get(1);
+        await().until(() -> resumed.events.size() == 3);
+        assertThat(resumed.events).extracting(Sent::name, Sent::data).containsExactly(
+            tuple("resync", ""), tuple("notification", "third"), tuple("notification", "fourth"));
+    }
+
+    @Test
+    void reconnectingToAStreamThatNoLongerExistsIsToldToResync() {
+        RecordingService recording = new RecordingService(100);
+        service = recording;
+
+        service.subscribe(7L, 12345L);
+
+        RecordingEmitter resumed = recording.emitters.get(0);
+        await().until(() -> resumed.events.size() == 1);
+        assertThat(resumed.events).extracting(Sent::name).containsExactly("resync");
+    }
+
+    /**
+     * Service whose connections record the events sent to them; heartbeats are kept out of the way
+     */
+    private static final class RecordingService extends EventStreamService {
+
+        private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private RecordingService(int replayBufferSize) {
+            super(Duration.ofMinutes(30), Duration.ofMinutes(30), Duration.ofMinutes(5), replayBufferSize);
+        }
+
+        @Override
+        SseEmitter newEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    }
+
+    private record Sent(String id, String name, String data) {}
+
+    /**
+     * Emitter that parses each event it is asked to send instead of writing to a response
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<Sent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                text.append(part.getData());
+            }
+            String id = null;
+            String name = null;
+            String data = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    data = line.substring(5);
+                }
+            }
+            // Comment-only frames are heartbeats
+            if (name != null || data != null) {
+                events.add(new Sent(id, name, data));
+            }
+        }
+    }
+}
+